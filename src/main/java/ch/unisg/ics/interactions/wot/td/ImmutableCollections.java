@@ -0,0 +1,312 @@
+package ch.unisg.ics.interactions.wot.td;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Creates the immutable collections held by the TD object model. Builders copy their collections
+ * with these methods when an object is built, such that built objects do not share state with
+ * their builders and can be published safely across threads.
+ *
+ * The copies keep the iteration order of the copied collections. Lists are backed by an array.
+ * Small sets and maps, such as sets of semantic types, are also backed by arrays and looked up
+ * with a linear scan; larger ones are backed by hash tables.
+ */
+public final class ImmutableCollections {
+  /* The largest set or map that is looked up with a linear scan */
+  private static final int MAX_ARRAY_SIZE = 8;
+
+  private ImmutableCollections() { }
+
+  /**
+   * Copies a collection into an immutable list. Immutable lists created by this class are returned
+   * as is.
+   *
+   * @param elements the elements, in list order
+   * @return the immutable list
+   */
+  public static <E> List<E> copyOfList(Collection<? extends E> elements) {
+    if (elements instanceof ArrayBackedList) {
+      @SuppressWarnings("unchecked")
+      List<E> list = (List<E>) elements;
+      return list;
+    }
+
+    if (elements.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    return new ArrayBackedList<E>(elements.toArray());
+  }
+
+  /**
+   * Copies a collection into an immutable set. Immutable sets created by this class are returned as
+   * is.
+   *
+   * @param elements the elements, duplicates are removed
+   * @return the immutable set
+   */
+  public static <E> Set<E> copyOfSet(Collection<? extends E> elements) {
+    if (elements instanceof ArrayBackedSet || elements instanceof HashBackedSet) {
+      @SuppressWarnings("unchecked")
+      Set<E> set = (Set<E>) elements;
+      return set;
+    }
+
+    if (elements.isEmpty()) {
+      return Collections.emptySet();
+    }
+
+    Set<E> unique = (elements instanceof Set) ? null : new LinkedHashSet<E>(elements);
+    Collection<? extends E> source = (unique == null) ? elements : unique;
+
+    if (source.size() > MAX_ARRAY_SIZE) {
+      return new HashBackedSet<E>(new LinkedHashSet<E>(source));
+    }
+
+    return new ArrayBackedSet<E>(source.toArray());
+  }
+
+  /**
+   * Copies a map into an immutable map. Immutable maps created by this class are returned as is.
+   *
+   * @param entries the entries
+   * @return the immutable map
+   */
+  public static <K, V> Map<K, V> copyOfMap(Map<? extends K, ? extends V> entries) {
+    if (entries instanceof ArrayBackedMap || entries instanceof HashBackedMap) {
+      @SuppressWarnings("unchecked")
+      Map<K, V> map = (Map<K, V>) entries;
+      return map;
+    }
+
+    if (entries.isEmpty()) {
+      return Collections.emptyMap();
+    }
+
+    if (entries.size() > MAX_ARRAY_SIZE) {
+      return new HashBackedMap<K, V>(new LinkedHashMap<K, V>(entries));
+    }
+
+    Object[] keys = new Object[entries.size()];
+    Object[] values = new Object[entries.size()];
+
+    int i = 0;
+    for (Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+      keys[i] = entry.getKey();
+      values[i] = entry.getValue();
+      i++;
+    }
+
+    return new ArrayBackedMap<K, V>(keys, values);
+  }
+
+  private static final class ArrayBackedList<E> extends AbstractList<E> implements RandomAccess {
+    private final Object[] elements;
+
+    ArrayBackedList(Object[] elements) {
+      this.elements = elements;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+      return (E) elements[index];
+    }
+
+    @Override
+    public int size() {
+      return elements.length;
+    }
+  }
+
+  private static final class ArrayBackedSet<E> extends AbstractSet<E> {
+    private final Object[] elements;
+
+    ArrayBackedSet(Object[] elements) {
+      this.elements = elements;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      for (Object element : elements) {
+        if (Objects.equals(element, o)) {
+          return true;
+        }
+      }
+
+      return false;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+      return new ArrayIterator<E>(elements);
+    }
+
+    @Override
+    public int size() {
+      return elements.length;
+    }
+  }
+
+  /* Wraps a set that is not shared, such that it can be recognized when it is copied again */
+  private static final class HashBackedSet<E> extends AbstractSet<E> {
+    private final Set<E> elements;
+
+    HashBackedSet(Set<E> elements) {
+      this.elements = elements;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return elements.contains(o);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+      return Collections.unmodifiableSet(elements).iterator();
+    }
+
+    @Override
+    public int size() {
+      return elements.size();
+    }
+  }
+
+  private static final class ArrayBackedMap<K, V> extends AbstractMap<K, V> {
+    private final Object[] keys;
+    private final Object[] values;
+
+    ArrayBackedMap(Object[] keys, Object[] values) {
+      this.keys = keys;
+      this.values = values;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return indexOf(key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+      int index = indexOf(key);
+      return (index < 0) ? null : (V) values[index];
+    }
+
+    @Override
+    public int size() {
+      return keys.length;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+      return new AbstractSet<Map.Entry<K, V>>() {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+          return new Iterator<Map.Entry<K, V>>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+              return next < keys.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Map.Entry<K, V> next() {
+              if (!hasNext()) {
+                throw new NoSuchElementException();
+              }
+
+              Map.Entry<K, V> entry = new AbstractMap.SimpleImmutableEntry<K, V>((K) keys[next],
+                  (V) values[next]);
+              next++;
+              return entry;
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return keys.length;
+        }
+      };
+    }
+
+    private int indexOf(Object key) {
+      for (int i = 0; i < keys.length; i++) {
+        if (Objects.equals(keys[i], key)) {
+          return i;
+        }
+      }
+
+      return -1;
+    }
+  }
+
+  private static final class HashBackedMap<K, V> extends AbstractMap<K, V> {
+    private final Map<K, V> entries;
+
+    HashBackedMap(Map<K, V> entries) {
+      this.entries = entries;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return entries.containsKey(key);
+    }
+
+    @Override
+    public V get(Object key) {
+      return entries.get(key);
+    }
+
+    @Override
+    public int size() {
+      return entries.size();
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+      return Collections.unmodifiableMap(entries).entrySet();
+    }
+  }
+
+  private static final class ArrayIterator<E> implements Iterator<E> {
+    private final Object[] elements;
+    private int next;
+
+    ArrayIterator(Object[] elements) {
+      this.elements = elements;
+      this.next = 0;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < elements.length;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+
+      return (E) elements[next++];
+    }
+  }
+}
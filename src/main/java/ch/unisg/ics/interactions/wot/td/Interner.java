@@ -0,0 +1,140 @@
+package ch.unisg.ics.interactions.wot.td;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import ch.unisg.ics.interactions.wot.td.vocabularies.TD;
+
+/**
+ * A pool that maps equal strings to a single shared instance. The TD object model interns the
+ * strings that recur across TDs when objects are built: content types, method names, operation
+ * types and semantic types. All readers build TDs through the builders, so their values are
+ * interned as well.
+ *
+ * The pool used by the object model is returned by <code>Interner.shared()</code> and can be
+ * replaced with <code>Interner.setShared</code>, e.g. with <code>Interner.none()</code> to turn
+ * interning off. A new pool contains the operation types and the default content type defined by
+ * this library, such that interned values are the same instances as the library constants.
+ *
+ * Strings are held weakly: an interned string is dropped once it is no longer used. The pool is
+ * split into stripes that are locked independently, such that threads that build TDs in parallel
+ * rarely wait for each other.
+ */
+public class Interner {
+  private static final int STRIPES = 16;
+
+  private static final Interner NONE = new Interner(0) {
+    @Override
+    public String intern(String value) {
+      return value;
+    }
+  };
+
+  private static volatile Interner shared = new Interner();
+
+  private final List<Map<String, WeakReference<String>>> stripes;
+
+  public Interner() {
+    this(STRIPES);
+
+    intern(TD.readProperty);
+    intern(TD.writeProperty);
+    intern(TD.invokeAction);
+    intern("application/json");
+  }
+
+  private Interner(int stripes) {
+    this.stripes = new ArrayList<Map<String, WeakReference<String>>>(stripes);
+
+    for (int i = 0; i < stripes; i++) {
+      this.stripes.add(new WeakHashMap<String, WeakReference<String>>());
+    }
+  }
+
+  /**
+   * Gets the pool used by the TD object model.
+   *
+   * @return the shared <code>Interner</code>
+   */
+  public static Interner shared() {
+    return shared;
+  }
+
+  /**
+   * Sets the pool used by the TD object model. Objects that are already built keep their values.
+   *
+   * @param interner the pool to be used
+   */
+  public static void setShared(Interner interner) {
+    shared = interner;
+  }
+
+  /**
+   * Gets a pool that does not intern strings: each value is returned as is.
+   *
+   * @return the <code>Interner</code> that interns nothing
+   */
+  public static Interner none() {
+    return NONE;
+  }
+
+  /**
+   * Gets the pooled string that is equal to the given string. If there is no such string, the
+   * given string is added to the pool and returned.
+   *
+   * @param value the string to be interned
+   * @return the pooled instance of the string
+   */
+  public String intern(String value) {
+    Map<String, WeakReference<String>> stripe = stripes.get(stripe(value));
+
+    synchronized (stripe) {
+      WeakReference<String> cached = stripe.get(value);
+      String pooled = (cached == null) ? null : cached.get();
+
+      if (pooled == null) {
+        stripe.put(value, new WeakReference<String>(value));
+        return value;
+      }
+
+      return pooled;
+    }
+  }
+
+  /**
+   * Interns all the strings in a collection.
+   *
+   * @param values the strings to be interned
+   * @return a new list with the pooled instances, in the iteration order of the collection
+   */
+  public List<String> internAll(Collection<String> values) {
+    List<String> interned = new ArrayList<String>(values.size());
+
+    for (String value : values) {
+      interned.add(intern(value));
+    }
+
+    return interned;
+  }
+
+  public int size() {
+    int size = 0;
+
+    for (Map<String, WeakReference<String>> stripe : stripes) {
+      synchronized (stripe) {
+        size += stripe.size();
+      }
+    }
+
+    return size;
+  }
+
+  private int stripe(String value) {
+    int hash = value.hashCode();
+    return ((hash ^ (hash >>> 16)) & 0x7fffffff) % stripes.size();
+  }
+}
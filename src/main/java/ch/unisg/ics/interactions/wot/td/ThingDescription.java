@@ -1,19 +1,25 @@
 package ch.unisg.ics.interactions.wot.td;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.model.util.ModelBuilder;
 
 import ch.unisg.ics.interactions.wot.td.affordances.ActionAffordance;
+import ch.unisg.ics.interactions.wot.td.affordances.Form;
+import ch.unisg.ics.interactions.wot.td.affordances.InteractionAffordance;
+import ch.unisg.ics.interactions.wot.td.affordances.LazyAffordanceList;
 import ch.unisg.ics.interactions.wot.td.affordances.PropertyAffordance;
 import ch.unisg.ics.interactions.wot.td.security.NoSecurityScheme;
 import ch.unisg.ics.interactions.wot.td.security.SecurityScheme;
@@ -39,6 +45,10 @@ public class ThingDescription {
 
   private final Optional<Model> graph;
 
+  /* Indexes of eager affordance lists are created with the TD, those of lazy lists on first use */
+  private volatile AffordanceIndex<PropertyAffordance> propertyIndex;
+  private volatile AffordanceIndex<ActionAffordance> actionIndex;
+
   /**
    * Supported serialization formats -- currently only RDF serialization formats, namely Turtle and
    * JSON-LD 1.0. The version of JSON-LD currently supported is the one provided by RDF4J.
@@ -54,19 +64,30 @@ public class ThingDescription {
 
     this.title = title;
 
-    if (security.isEmpty()) {
-      security.add(new NoSecurityScheme());
-    }
-    this.security = security;
+    this.security = security.isEmpty()
+        ? Collections.<SecurityScheme>singletonList(new NoSecurityScheme())
+        : ImmutableCollections.copyOfList(security);
 
     this.uri = uri;
-    this.types = types;
+    this.types = ImmutableCollections.copyOfSet(Interner.shared().internAll(types));
     this.baseURI = baseURI;
 
-    this.properties = properties;
-    this.actions = actions;
+    // Lazy lists are immutable, their affordances are built on first access
+    this.properties = (properties instanceof LazyAffordanceList) ? properties
+        : ImmutableCollections.copyOfList(properties);
+    this.actions = (actions instanceof LazyAffordanceList) ? actions
+        : ImmutableCollections.copyOfList(actions);
 
-    this.graph = graph;
+    if (!(properties instanceof LazyAffordanceList)) {
+      this.propertyIndex = new AffordanceIndex<PropertyAffordance>(this.properties);
+    }
+
+    if (!(actions instanceof LazyAffordanceList)) {
+      this.actionIndex = new AffordanceIndex<ActionAffordance>(this.actions);
+    }
+
+    // The graph is handed over by the builder, which copies it before any later change
+    this.graph = graph.map(Model::unmodifiable);
   }
 
   public String getTitle() {
@@ -103,16 +124,10 @@ public class ThingDescription {
    * Gets a set with all the semantic types of the action affordances provided by the described
    * thing.
    *
-   * @return The set of semantic types, can be empty.
+   * @return The unmodifiable set of semantic types, can be empty.
    */
   public Set<String> getSupportedActionTypes() {
-    Set<String> supportedActionTypes = new HashSet<String>();
-
-    for (ActionAffordance action : actions) {
-      supportedActionTypes.addAll(action.getSemanticTypes());
-    }
-
-    return supportedActionTypes;
+    return getActionIndex().semanticTypes;
   }
 
   /**
@@ -123,15 +138,13 @@ public class ThingDescription {
    * @param name the name of the property affordance
    * @return an <code>Optional</code> with the property affordance (empty if not found)
    */
+  @SuppressWarnings("unchecked")
   public Optional<PropertyAffordance> getPropertyByName(String name) {
-    for (PropertyAffordance property : properties) {
-      Optional<String> propertyName = property.getName();
-      if (propertyName.isPresent() && propertyName.get().equals(name)) {
-        return Optional.of(property);
-      }
+    if (properties instanceof LazyAffordanceList) {
+      return ((LazyAffordanceList<PropertyAffordance>) properties).getByName(name);
     }
 
-    return Optional.empty();
+    return Optional.ofNullable(getPropertyIndex().byName.get(name));
   }
 
   /**
@@ -142,11 +155,10 @@ public class ThingDescription {
    * and <code>td:writeProperty</code>.
    *
    * @param operationType a string that captures the operation type
-   * @return the list of property affordances
+   * @return the unmodifiable list of property affordances
    */
   public List<PropertyAffordance> getPropertiesByOperationType(String operationType) {
-    return properties.stream().filter(property -> property.hasFormWithOperationType(operationType))
-        .collect(Collectors.toList());
+    return getPropertyIndex().getByOperationType(operationType);
   }
 
   /**
@@ -156,13 +168,7 @@ public class ThingDescription {
    * @return an <code>Optional</code> with the property affordance (empty if not found)
    */
   public Optional<PropertyAffordance> getFirstPropertyBySemanticType(String propertyType) {
-    for (PropertyAffordance property : properties) {
-      if (property.getSemanticTypes().contains(propertyType)) {
-        return Optional.of(property);
-      }
-    }
-
-    return Optional.empty();
+    return getPropertyIndex().getFirstBySemanticType(propertyType);
   }
 
   /**
@@ -173,15 +179,13 @@ public class ThingDescription {
    * @param name the name of the action affordance
    * @return an <code>Optional</code> with the action affordance (empty if not found)
    */
+  @SuppressWarnings("unchecked")
   public Optional<ActionAffordance> getActionByName(String name) {
-    for (ActionAffordance action : actions) {
-      Optional<String> actionName = action.getName();
-      if (actionName.isPresent() && actionName.get().equals(name)) {
-        return Optional.of(action);
-      }
+    if (actions instanceof LazyAffordanceList) {
+      return ((LazyAffordanceList<ActionAffordance>) actions).getByName(name);
     }
 
-    return Optional.empty();
+    return Optional.ofNullable(getActionIndex().byName.get(name));
   }
 
   /**
@@ -192,11 +196,10 @@ public class ThingDescription {
    * simplified in future iterations.
    *
    * @param operationType a string that captures the operation type
-   * @return the list of property affordances
+   * @return the unmodifiable list of action affordances
    */
   public List<ActionAffordance> getActionsByOperationType(String operationType) {
-    return actions.stream().filter(action -> action.hasFormWithOperationType(operationType))
-        .collect(Collectors.toList());
+    return getActionIndex().getByOperationType(operationType);
   }
 
   /**
@@ -206,13 +209,7 @@ public class ThingDescription {
    * @return an <code>Optional</code> with the action affordance (empty if not found)
    */
   public Optional<ActionAffordance> getFirstActionBySemanticType(String actionType) {
-    for (ActionAffordance action : actions) {
-      if (action.getSemanticTypes().contains(actionType)) {
-        return Optional.of(action);
-      }
-    }
-
-    return Optional.empty();
+    return getActionIndex().getFirstBySemanticType(actionType);
   }
 
   public List<PropertyAffordance> getProperties() {
@@ -223,10 +220,91 @@ public class ThingDescription {
     return this.actions;
   }
 
+  /**
+   * Gets the RDF graph of the TD, if any (see <code>Builder.addGraph</code>).
+   *
+   * @return an <code>Optional</code> with the unmodifiable graph
+   */
   public Optional<Model> getGraph() {
     return graph;
   }
 
+  private AffordanceIndex<PropertyAffordance> getPropertyIndex() {
+    AffordanceIndex<PropertyAffordance> index = propertyIndex;
+
+    // Concurrent callers may build the index more than once, the indexes are equivalent
+    if (index == null) {
+      index = new AffordanceIndex<PropertyAffordance>(properties);
+      propertyIndex = index;
+    }
+
+    return index;
+  }
+
+  private AffordanceIndex<ActionAffordance> getActionIndex() {
+    AffordanceIndex<ActionAffordance> index = actionIndex;
+
+    if (index == null) {
+      index = new AffordanceIndex<ActionAffordance>(actions);
+      actionIndex = index;
+    }
+
+    return index;
+  }
+
+  /*
+   * Lookup tables for a list of affordances by name, semantic type and operation type. The lists
+   * in the tables keep the order of the affordances in the TD.
+   */
+  private static final class AffordanceIndex<T extends InteractionAffordance> {
+    private final Map<String, T> byName;
+    private final Map<String, List<T>> bySemanticType;
+    private final Map<String, List<T>> byOperationType;
+    private final Set<String> semanticTypes;
+
+    AffordanceIndex(List<T> affordances) {
+      Map<String, T> byName = new HashMap<String, T>();
+      Map<String, List<T>> bySemanticType = new HashMap<String, List<T>>();
+      Map<String, List<T>> byOperationType = new HashMap<String, List<T>>();
+
+      for (T affordance : affordances) {
+        // Names should be unique within a TD, the first affordance with a given name wins otherwise
+        if (affordance.getName().isPresent()) {
+          byName.putIfAbsent(affordance.getName().get(), affordance);
+        }
+
+        for (String type : affordance.getSemanticTypes()) {
+          bySemanticType.computeIfAbsent(type, t -> new ArrayList<T>()).add(affordance);
+        }
+
+        Set<String> operationTypes = new HashSet<String>();
+        for (Form form : affordance.getForms()) {
+          operationTypes.addAll(form.getOperationTypes());
+        }
+
+        for (String operationType : operationTypes) {
+          byOperationType.computeIfAbsent(operationType, t -> new ArrayList<T>()).add(affordance);
+        }
+      }
+
+      byOperationType.replaceAll((operationType, list) -> ImmutableCollections.copyOfList(list));
+
+      this.byName = byName;
+      this.bySemanticType = bySemanticType;
+      this.byOperationType = byOperationType;
+      this.semanticTypes = ImmutableCollections.copyOfSet(bySemanticType.keySet());
+    }
+
+    List<T> getByOperationType(String operationType) {
+      return byOperationType.getOrDefault(operationType, Collections.<T>emptyList());
+    }
+
+    Optional<T> getFirstBySemanticType(String type) {
+      List<T> affordances = bySemanticType.get(type);
+      return (affordances == null) ? Optional.empty() : Optional.of(affordances.get(0));
+    }
+  }
+
   /**
    * Helper class used to construct a <code>ThingDescription</code>. All TDs should have a mandatory
    * <code>title</code> field. In addition to the optional fields defined by the W3C Recommendation,
@@ -242,10 +320,15 @@ public class ThingDescription {
     private Optional<String> baseURI;
     private final Set<String> types;
 
-    private final List<PropertyAffordance> properties;
-    private final List<ActionAffordance> actions;
+    private List<PropertyAffordance> properties;
+    private List<ActionAffordance> actions;
 
     private Optional<Model> graph;
+    /*
+     * True while the graph is the one passed to addGraph or the one handed over to a built TD,
+     * which should not be modified
+     */
+    private boolean graphShared;
 
     public Builder(String title) {
       this.title = title;
@@ -259,6 +342,7 @@ public class ThingDescription {
       this.actions = new ArrayList<ActionAffordance>();
 
       this.graph = Optional.empty();
+      this.graphShared = false;
     }
 
     public Builder addSecurityScheme(SecurityScheme security) {
@@ -292,22 +376,22 @@ public class ThingDescription {
     }
 
     public Builder addProperty(PropertyAffordance property) {
-      this.properties.add(property);
+      this.properties = append(this.properties, Collections.singletonList(property));
       return this;
     }
 
     public Builder addProperties(List<PropertyAffordance> properties) {
-      this.properties.addAll(properties);
+      this.properties = append(this.properties, properties);
       return this;
     }
 
     public Builder addAction(ActionAffordance action) {
-      this.actions.add(action);
+      this.actions = append(this.actions, Collections.singletonList(action));
       return this;
     }
 
     public Builder addActions(List<ActionAffordance> actions) {
-      this.actions.addAll(actions);
+      this.actions = append(this.actions, actions);
       return this;
     }
 
@@ -319,15 +403,37 @@ public class ThingDescription {
      */
     public Builder addGraph(Model graph) {
       if (this.graph.isPresent()) {
-        this.graph.get().addAll(graph);
+        Model current = getOwnGraph();
+        current.addAll(graph);
 
         graph.getNamespaces().stream()
-          .filter(ns -> !this.graph.get().getNamespace(ns.getPrefix()).isPresent())
-          .forEach(this.graph.get()::setNamespace);
+          .filter(ns -> !current.getNamespace(ns.getPrefix()).isPresent())
+          .forEach(current::setNamespace);
       } else {
         this.graph = Optional.of(graph);
+        this.graphShared = true;
+      }
+
+      return this;
+    }
+
+    /**
+     * Adds an RDF graph that the caller hands over to the builder, e.g. a graph it has just read.
+     * Unlike with <code>addGraph</code>, the graph is not copied when the TD is built: the caller
+     * should not modify it afterwards. If an RDF graph is already present, the graph is merged
+     * with it.
+     *
+     * @param graph the RDF graph to be added
+     * @return this <code>Builder</code>
+     */
+    public Builder addOwnedGraph(Model graph) {
+      if (this.graph.isPresent()) {
+        return addGraph(graph);
       }
 
+      this.graph = Optional.of(graph);
+      this.graphShared = false;
+
       return this;
     }
 
@@ -342,7 +448,7 @@ public class ThingDescription {
      */
     public Builder addTriple(Resource subject, IRI predicate, Value object) {
       if (this.graph.isPresent()) {
-        this.graph.get().add(subject, predicate, object);
+        getOwnGraph().add(subject, predicate, object);
       } else {
         this.graph = Optional.of(new ModelBuilder().add(subject, predicate, object).build());
       }
@@ -350,13 +456,45 @@ public class ThingDescription {
       return this;
     }
 
+    /* Copies a graph that should not be modified before it is first modified */
+    private Model getOwnGraph() {
+      if (graphShared) {
+        this.graph = Optional.of(new LinkedHashModel(graph.get().getNamespaces(), graph.get()));
+        this.graphShared = false;
+      }
+
+      return graph.get();
+    }
+
+    /*
+     * A lazy list added to an empty builder is kept as is, such that its affordances are not built
+     * when the TD is constructed. Appending to a lazy list builds all its affordances.
+     */
+    private static <T extends InteractionAffordance> List<T> append(List<T> current,
+        List<T> added) {
+      if (current.isEmpty() && added instanceof LazyAffordanceList) {
+        return added;
+      }
+
+      List<T> affordances = (current instanceof LazyAffordanceList) ? new ArrayList<T>(current)
+          : current;
+      affordances.addAll(added);
+
+      return affordances;
+    }
+
     /**
      * Constructs and returns a <code>ThingDescription</code>.
      *
      * @return the constructed <code>ThingDescription</code>
      */
     public ThingDescription build() {
-      return new ThingDescription(title, security, uri, types, baseURI, properties, actions, graph);
+      // A graph added with addGraph is copied once, then the graph is handed over to the TD
+      Optional<Model> tdGraph = graph.isPresent() ? Optional.of(getOwnGraph()) : graph;
+      this.graphShared = graph.isPresent();
+
+      return new ThingDescription(title, security, uri, types, baseURI, properties, actions,
+          tdGraph);
     }
   }
 }
@@ -44,20 +44,15 @@ public class ActionAffordance extends InteractionAffordance {
     public Builder(List<Form> forms) {
       super(forms);
 
-      for (Form form : this.forms) {
-        form.addOperationType(TD.invokeAction);
-
-        if (!form.getMethodName().isPresent()) {
-          form.setMethodName("POST");
-        }
-      }
+      this.forms.replaceAll(form -> form.withOperationType(TD.invokeAction)
+        .withDefaultMethodName("POST"));
 
       this.inputSchema = Optional.empty();
       this.outputSchema = Optional.empty();
     }
 
     public Builder(Form form) {
-      this(new ArrayList<Form>(Arrays.asList(form)));
+      this(Arrays.asList(form));
     }
 
     public Builder addInputSchema(DataSchema inputSchema) {
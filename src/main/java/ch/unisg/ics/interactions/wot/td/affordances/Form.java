@@ -1,9 +1,13 @@
 package ch.unisg.ics.interactions.wot.td.affordances;
 
+import ch.unisg.ics.interactions.wot.td.ImmutableCollections;
+import ch.unisg.ics.interactions.wot.td.Interner;
 import ch.unisg.ics.interactions.wot.td.vocabularies.TD;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -19,14 +23,16 @@ public class Form {
   private final String contentType;
   private final Set<String> operationTypes;
   private final Optional<String> subprotocol;
-  private Optional<String> methodName;
+  private final Optional<String> methodName;
 
   private Form(String href, Optional<String> methodName, String mediaType, Set<String> operationTypes,
                Optional<String> subprotocol) {
-    this.methodName = methodName;
+    Interner interner = Interner.shared();
+
+    this.methodName = methodName.map(interner::intern);
     this.target = href;
-    this.contentType = mediaType;
-    this.operationTypes = operationTypes;
+    this.contentType = interner.intern(mediaType);
+    this.operationTypes = ImmutableCollections.copyOfSet(interner.internAll(operationTypes));
     this.subprotocol = subprotocol;
   }
 
@@ -34,11 +40,6 @@ public class Form {
     return methodName;
   }
 
-  // Package-level access, used for setting affordance-specific default values after instantiation
-  void setMethodName(String methodName) {
-    this.methodName = Optional.of(methodName);
-  }
-
   public Optional<String> getMethodName(String operationType) {
     if (!operationTypes.contains(operationType)) {
       throw new IllegalArgumentException("Unknown operation type: " + operationType);
@@ -75,9 +76,61 @@ public class Form {
     return this.subprotocol;
   }
 
-  // Package-level access, used for setting affordance-specific default values after instantiation
-  void addOperationType(String operationType) {
-    this.operationTypes.add(operationType);
+  /**
+   * Forms are equal if they have the same target, content type, method name, operation types and
+   * subprotocol.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+
+    Form other = (Form) obj;
+    return target.equals(other.target) && contentType.equals(other.contentType)
+      && methodName.equals(other.methodName) && operationTypes.equals(other.operationTypes)
+      && subprotocol.equals(other.subprotocol);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(target, contentType, methodName, operationTypes, subprotocol);
+  }
+
+  /*
+   * Package-level access, used for setting affordance-specific default values. Forms are immutable:
+   * the methods below return a form with the default value, or this form if a value is already set.
+   */
+  Form withDefaultMethodName(String methodName) {
+    if (this.methodName.isPresent()) {
+      return this;
+    }
+
+    return new Form(target, Optional.of(methodName), contentType, operationTypes, subprotocol);
+  }
+
+  Form withDefaultOperationTypes(String... operationTypes) {
+    if (!this.operationTypes.isEmpty()) {
+      return this;
+    }
+
+    return new Form(target, methodName, contentType, new HashSet<String>(Arrays.asList(
+      operationTypes)), subprotocol);
+  }
+
+  Form withOperationType(String operationType) {
+    if (operationTypes.contains(operationType)) {
+      return this;
+    }
+
+    Set<String> types = new HashSet<String>(operationTypes);
+    types.add(operationType);
+
+    return new Form(target, methodName, contentType, types, subprotocol);
   }
 
   public static class Builder {
@@ -1,7 +1,9 @@
 package ch.unisg.ics.interactions.wot.td.affordances;
 
+import ch.unisg.ics.interactions.wot.td.ImmutableCollections;
+import ch.unisg.ics.interactions.wot.td.Interner;
+
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * TODO: add javadoc
@@ -13,17 +15,36 @@ public class InteractionAffordance {
   public static final String EVENT = "event";
   public static final String ACTION = "action";
 
-  protected Optional<String> name;
-  protected Optional<String> title;
-  protected Set<String> types;
-  protected List<Form> forms;
+  protected final Optional<String> name;
+  protected final Optional<String> title;
+  protected final Set<String> types;
+  protected final List<Form> forms;
+
+  /* Forms by operation type, computed once such that form selection does not allocate */
+  private final Map<String, List<Form>> formsByOperationType;
+  private final Map<String, Optional<Form>> firstFormByOperationType;
 
   protected InteractionAffordance(Optional<String> name, Optional<String> title, Set<String> types,
                                   List<Form> forms) {
     this.name = name;
     this.title = title;
-    this.types = types;
-    this.forms = forms;
+    this.types = ImmutableCollections.copyOfSet(Interner.shared().internAll(types));
+    this.forms = ImmutableCollections.copyOfList(forms);
+
+    Map<String, List<Form>> formsByOperationType = new HashMap<>();
+    for (Form form : this.forms) {
+      for (String operationType : form.getOperationTypes()) {
+        formsByOperationType.computeIfAbsent(operationType, op -> new ArrayList<>()).add(form);
+      }
+    }
+
+    this.formsByOperationType = new HashMap<>();
+    this.firstFormByOperationType = new HashMap<>();
+    formsByOperationType.forEach((operationType, operationForms) -> {
+      this.formsByOperationType.put(operationType,
+        ImmutableCollections.copyOfList(operationForms));
+      this.firstFormByOperationType.put(operationType, Optional.of(operationForms.get(0)));
+    });
   }
 
   public Optional<String> getName() {
@@ -43,19 +64,21 @@ public class InteractionAffordance {
   }
 
   public boolean hasFormWithOperationType(String operationType) {
-    return !forms.stream().filter(form -> form.hasOperationType(operationType))
-      .collect(Collectors.toList()).isEmpty();
+    return formsByOperationType.containsKey(operationType);
   }
 
-  public Optional<Form> getFirstFormForOperationType(String operationType) {
-    if (hasFormWithOperationType(operationType)) {
-      Form firstForm = forms.stream().filter(form -> form.hasOperationType(operationType))
-        .collect(Collectors.toList()).get(0);
-
-      return Optional.of(firstForm);
-    }
+  /**
+   * Gets the forms for a given operation type, in the order in which they were added.
+   *
+   * @param operationType the operation type
+   * @return the unmodifiable list of forms, can be empty
+   */
+  public List<Form> getFormsForOperationType(String operationType) {
+    return formsByOperationType.getOrDefault(operationType, Collections.emptyList());
+  }
 
-    return Optional.empty();
+  public Optional<Form> getFirstFormForOperationType(String operationType) {
+    return firstFormByOperationType.getOrDefault(operationType, Optional.empty());
   }
 
   public boolean hasSemanticType(String type) {
@@ -92,14 +115,14 @@ public class InteractionAffordance {
     protected List<Form> forms;
 
     protected Builder(Form form) {
-      this(new ArrayList<Form>(Arrays.asList(form)));
+      this(Arrays.asList(form));
     }
 
     protected Builder(List<Form> forms) {
       this.name = Optional.empty();
       this.title = Optional.empty();
       this.types = new HashSet<String>();
-      this.forms = forms;
+      this.forms = new ArrayList<Form>(forms);
     }
 
     @SuppressWarnings("unchecked")
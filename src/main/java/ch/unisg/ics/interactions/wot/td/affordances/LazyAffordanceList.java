@@ -0,0 +1,92 @@
+package ch.unisg.ics.interactions.wot.td.affordances;
+
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * An immutable list of interaction affordances that are built only when first accessed. The size
+ * of the list and the names of the affordances are known upfront, such that affordances can be
+ * looked up by name without building the other affordances in the list.
+ *
+ * Built affordances are kept by the list. The loader is released once all the affordances in the
+ * list are built, together with the state it holds, e.g. the graph the affordances are read from.
+ * The list can be shared across threads: if an affordance is accessed concurrently, it may be built
+ * more than once, but all threads see the same instance.
+ *
+ * @param <T> the type of interaction affordances in the list
+ */
+public final class LazyAffordanceList<T extends InteractionAffordance> extends AbstractList<T>
+    implements RandomAccess {
+  private final AtomicReferenceArray<T> affordances;
+  private final Map<String, Integer> positions;
+  private final AtomicInteger built;
+  /* Set to null once all the affordances are built */
+  private volatile IntFunction<T> loader;
+
+  /**
+   * Constructs a list of affordances with the given names.
+   *
+   * @param names the names of the affordances, in list order
+   * @param loader builds the affordance at a given position in the list
+   */
+  public LazyAffordanceList(List<Optional<String>> names, IntFunction<T> loader) {
+    this.affordances = new AtomicReferenceArray<T>(names.size());
+    this.positions = new HashMap<String, Integer>();
+    this.built = new AtomicInteger();
+    this.loader = names.isEmpty() ? null : loader;
+
+    for (int i = 0; i < names.size(); i++) {
+      // Names should be unique within a TD, the first affordance with a given name wins otherwise
+      if (names.get(i).isPresent()) {
+        positions.putIfAbsent(names.get(i).get(), i);
+      }
+    }
+  }
+
+  @Override
+  public T get(int index) {
+    T affordance = affordances.get(index);
+
+    if (affordance == null) {
+      IntFunction<T> current = loader;
+
+      // The loader is released only after all the affordances are set
+      if (current != null && affordances.compareAndSet(index, null, current.apply(index))
+          && built.incrementAndGet() == affordances.length()) {
+        loader = null;
+      }
+
+      affordance = affordances.get(index);
+    }
+
+    return affordance;
+  }
+
+  /* Returns true until all the affordances are built */
+  boolean holdsLoader() {
+    return loader != null;
+  }
+
+  @Override
+  public int size() {
+    return affordances.length();
+  }
+
+  /**
+   * Gets an affordance by name, building only that affordance if needed.
+   *
+   * @param name the name of the affordance
+   * @return an <code>Optional</code> with the affordance (empty if not found)
+   */
+  public Optional<T> getByName(String name) {
+    Integer position = positions.get(name);
+    return (position == null) ? Optional.empty() : Optional.of(get(position));
+  }
+}
@@ -33,19 +33,15 @@ public class PropertyAffordance extends InteractionAffordance {
     public Builder(DataSchema schema, List<Form> forms) {
       super(forms);
 
-      for (Form form : this.forms) {
-        if (form.getOperationTypes().isEmpty()) {
-          form.addOperationType(TD.readProperty);
-          form.addOperationType(TD.writeProperty);
-        }
-      }
+      this.forms.replaceAll(form -> form.withDefaultOperationTypes(TD.readProperty,
+        TD.writeProperty));
 
       this.schema = schema;
       this.observable = false;
     }
 
     public Builder(DataSchema schema, Form form) {
-      this(schema, new ArrayList<Form>(Arrays.asList(form)));
+      this(schema, Arrays.asList(form));
     }
 
     public Builder addObserve() {
@@ -0,0 +1,208 @@
+package ch.unisg.ics.interactions.wot.td.io;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.eclipse.rdf4j.rio.RDFFormat;
+
+import ch.unisg.ics.interactions.wot.td.ThingDescription;
+import ch.unisg.ics.interactions.wot.td.io.graph.TDGraphWriter;
+import ch.unisg.ics.interactions.wot.td.io.json.TDJsonWriter;
+
+/**
+ * A cache of TD serializations keyed by TD instance and format. A TD is serialized the first time
+ * it is requested in a given format; later requests return the cached bytes and entity tag.
+ *
+ * TDs are compared by identity. This relies on built TDs being immutable, including their graph,
+ * which is copied when a TD is built: the serializations of a TD instance never change. A TD that
+ * is replaced by a new instance should be invalidated to release its serializations. The cache
+ * evicts the least recently used serializations once their total size exceeds
+ * <code>maxBytes</code>.
+ *
+ * A cache can be shared across threads. A TD is serialized once per format even if it is requested
+ * concurrently: later requests wait for the serialization in progress.
+ */
+public class SerializationCache {
+  private final long maxBytes;
+  private final Map<Key, SerializedTD> entries;
+  /* Serializations in progress, completed by the thread that started them */
+  private final Map<Key, CompletableFuture<SerializedTD>> pending;
+  private long size;
+
+  public SerializationCache(long maxBytes) {
+    if (maxBytes < 1) {
+      throw new IllegalArgumentException("The cache should hold at least one byte.");
+    }
+
+    this.maxBytes = maxBytes;
+    this.entries = new LinkedHashMap<Key, SerializedTD>(16, 0.75f, true);
+    this.pending = new HashMap<Key, CompletableFuture<SerializedTD>>();
+    this.size = 0;
+  }
+
+  /**
+   * Gets the serialization of a TD in the given format, serializing the TD if needed. JSON-LD TDs
+   * are written with <code>TDJsonWriter</code>, other formats with <code>TDGraphWriter</code>.
+   *
+   * @param td the thing description
+   * @param format the serialization format
+   * @return the serialized TD
+   */
+  public SerializedTD get(ThingDescription td, RDFFormat format) {
+    Key key = new Key(td, format);
+    CompletableFuture<SerializedTD> future;
+    boolean owner;
+
+    synchronized (this) {
+      SerializedTD cached = entries.get(key);
+      if (cached != null) {
+        return cached;
+      }
+
+      future = pending.get(key);
+      owner = (future == null);
+
+      if (owner) {
+        future = new CompletableFuture<SerializedTD>();
+        pending.put(key, future);
+      }
+    }
+
+    if (!owner) {
+      return await(future);
+    }
+
+    // TDs are serialized outside the lock, such that other TDs can be served in the meantime
+    SerializedTD serialized;
+
+    try {
+      serialized = new SerializedTD(format, serialize(td, format));
+    } catch (RuntimeException | Error e) {
+      synchronized (this) {
+        pending.remove(key, future);
+      }
+
+      future.completeExceptionally(e);
+      throw e;
+    }
+
+    synchronized (this) {
+      // The TD may have been invalidated in the meantime
+      if (pending.remove(key, future) && serialized.size() <= maxBytes) {
+        entries.put(key, serialized);
+        size += serialized.size();
+        evict();
+      }
+    }
+
+    future.complete(serialized);
+    return serialized;
+  }
+
+  /**
+   * Removes the serializations of a TD in all formats.
+   *
+   * @param td the thing description
+   */
+  public synchronized void invalidate(ThingDescription td) {
+    pending.keySet().removeIf(key -> key.td == td);
+
+    Iterator<Map.Entry<Key, SerializedTD>> iterator = entries.entrySet().iterator();
+
+    while (iterator.hasNext()) {
+      Map.Entry<Key, SerializedTD> entry = iterator.next();
+
+      if (entry.getKey().td == td) {
+        size -= entry.getValue().size();
+        iterator.remove();
+      }
+    }
+  }
+
+  public synchronized void clear() {
+    pending.clear();
+    entries.clear();
+    size = 0;
+  }
+
+  /**
+   * Gets the total size in bytes of the cached serializations.
+   */
+  public synchronized long size() {
+    return size;
+  }
+
+  private void evict() {
+    Iterator<SerializedTD> iterator = entries.values().iterator();
+
+    while (size > maxBytes && iterator.hasNext()) {
+      size -= iterator.next().size();
+      iterator.remove();
+    }
+  }
+
+  private static SerializedTD await(CompletableFuture<SerializedTD> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      // Rethrow the failure of the thread that serialized the TD
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+
+      throw e;
+    }
+  }
+
+  private static byte[] serialize(ThingDescription td, RDFFormat format) {
+    if (format.equals(RDFFormat.JSONLD) || format.equals(RDFFormat.NDJSONLD)) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      new TDJsonWriter(td).write(out);
+      return out.toByteArray();
+    }
+
+    // Turtle is pretty-printed, as with TDWriter
+    if (format.equals(RDFFormat.TURTLE)) {
+      return new TDGraphWriter(td).write().getBytes(StandardCharsets.UTF_8);
+    }
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new TDGraphWriter(td).write(out, format);
+    return out.toByteArray();
+  }
+
+  private static final class Key {
+    private final ThingDescription td;
+    private final RDFFormat format;
+
+    Key(ThingDescription td, RDFFormat format) {
+      this.td = td;
+      this.format = format;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+
+      Key other = (Key) obj;
+      return td == other.td && format.equals(other.format);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(td) + format.hashCode();
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package ch.unisg.ics.interactions.wot.td.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+import org.eclipse.rdf4j.rio.RDFFormat;
+
+/**
+ * An immutable serialization of a TD in a given format, together with a strong entity tag derived
+ * from the SHA-256 digest of the serialized bytes. Instances are created by a
+ * <code>SerializationCache</code>.
+ */
+public final class SerializedTD {
+  private final RDFFormat format;
+  private final byte[] bytes;
+  private final String etag;
+
+  SerializedTD(RDFFormat format, byte[] bytes) {
+    this.format = format;
+    this.bytes = bytes;
+    this.etag = computeETag(bytes);
+  }
+
+  public RDFFormat getFormat() {
+    return format;
+  }
+
+  /**
+   * Gets a copy of the serialized bytes.
+   *
+   * @return the serialized bytes
+   */
+  public byte[] getBytes() {
+    return Arrays.copyOf(bytes, bytes.length);
+  }
+
+  /**
+   * Gets the serialization as a string. All serializations are UTF-8 encoded, except for binary RDF
+   * formats that cannot be represented as strings.
+   *
+   * @return the serialization
+   */
+  public String getString() {
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Gets a strong entity tag for the serialization, quoted as in an HTTP <code>ETag</code> header.
+   *
+   * @return the entity tag
+   */
+  public String getETag() {
+    return etag;
+  }
+
+  public int size() {
+    return bytes.length;
+  }
+
+  /**
+   * Writes the serialized bytes to the given output stream. The stream is not closed.
+   *
+   * @param out the output stream
+   * @throws IOException if the bytes cannot be written
+   */
+  public void writeTo(OutputStream out) throws IOException {
+    out.write(bytes);
+  }
+
+  private static String computeETag(byte[] bytes) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+      return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+    } catch (NoSuchAlgorithmException e) {
+      // Every Java platform is required to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+}
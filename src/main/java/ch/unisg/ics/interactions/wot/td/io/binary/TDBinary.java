@@ -0,0 +1,33 @@
+package ch.unisg.ics.interactions.wot.td.io.binary;
+
+/**
+ * Constants of the binary TD encoding used by <code>TDBinaryWriter</code> and
+ * <code>TDBinaryReader</code>.
+ *
+ * An encoded TD starts with the magic bytes <code>WTDB</code> and a version byte. Integers are
+ * written as unsigned variable-length integers (7 bits per byte). Strings are written once: the
+ * first occurrence of a string is written as <code>0</code> followed by its UTF-8 bytes, later
+ * occurrences as the position of the string in the string table plus one. Data schemas are
+ * shared in the same way, such that a schema instance used by several affordances is written once.
+ */
+final class TDBinary {
+  static final byte[] MAGIC = { 'W', 'T', 'D', 'B' };
+  static final int VERSION = 1;
+
+  static final int NEW_ENTRY = 0;
+
+  static final int SCHEMA_OBJECT = 0;
+  static final int SCHEMA_ARRAY = 1;
+  static final int SCHEMA_BOOLEAN = 2;
+  static final int SCHEMA_INTEGER = 3;
+  static final int SCHEMA_NUMBER = 4;
+  static final int SCHEMA_STRING = 5;
+  static final int SCHEMA_NULL = 6;
+
+  static final int VALUE_IRI = 0;
+  static final int VALUE_BNODE = 1;
+  static final int VALUE_LITERAL = 2;
+  static final int VALUE_LANG_LITERAL = 3;
+
+  private TDBinary() { }
+}
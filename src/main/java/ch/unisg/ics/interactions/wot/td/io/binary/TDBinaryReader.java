@@ -0,0 +1,466 @@
+package ch.unisg.ics.interactions.wot.td.io.binary;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+
+import ch.unisg.ics.interactions.wot.td.ThingDescription;
+import ch.unisg.ics.interactions.wot.td.affordances.ActionAffordance;
+import ch.unisg.ics.interactions.wot.td.affordances.Form;
+import ch.unisg.ics.interactions.wot.td.affordances.InteractionAffordance;
+import ch.unisg.ics.interactions.wot.td.affordances.PropertyAffordance;
+import ch.unisg.ics.interactions.wot.td.io.InvalidTDException;
+import ch.unisg.ics.interactions.wot.td.schemas.ArraySchema;
+import ch.unisg.ics.interactions.wot.td.schemas.BooleanSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.DataSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.IntegerSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.NullSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.NumberSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.ObjectSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.StringSchema;
+import ch.unisg.ics.interactions.wot.td.security.SecurityScheme;
+
+/**
+ * A reader for decoding TDs encoded with <code>TDBinaryWriter</code>. Decoding a TD does not
+ * involve any RDF parsing, which makes it suitable for reloading persisted TDs at start-up.
+ *
+ * Encoded TDs that are truncated, corrupted, or written with an unsupported version of the
+ * encoding are rejected with an <code>InvalidTDException</code>. Lengths and counts read from the
+ * input are checked before anything is allocated for them: they cannot exceed the size of an
+ * encoded byte array, or <code>MAX_LENGTH</code> when reading from a stream.
+ */
+public class TDBinaryReader {
+  /** The largest length or count accepted when reading from a stream of unknown size. */
+  public static final int MAX_LENGTH = 1 << 24;
+
+  /* Lists are not presized beyond this capacity, they grow as their elements are read */
+  private static final int MAX_INITIAL_CAPACITY = 64;
+
+  private final DataInputStream in;
+  private final int limit;
+  private final List<String> strings;
+  private final List<DataSchema> schemas;
+  private final ValueFactory rdf;
+
+  private TDBinaryReader(InputStream stream, int limit) {
+    this.in = new DataInputStream(stream);
+    this.limit = limit;
+    this.strings = new ArrayList<String>();
+    this.schemas = new ArrayList<DataSchema>();
+    this.rdf = SimpleValueFactory.getInstance();
+  }
+
+  /**
+   * Decodes a TD from a byte array.
+   *
+   * @param bytes the encoded TD
+   * @return the decoded <code>ThingDescription</code>
+   */
+  public static ThingDescription readFromBytes(byte[] bytes) {
+    try {
+      // Each length or count is encoded on at least one byte
+      return read(new ByteArrayInputStream(bytes), bytes.length);
+    } catch (IOException e) {
+      // Not thrown by a ByteArrayInputStream
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Decodes a TD from an input stream. The stream is read up to the end of the encoded TD and is
+   * not closed, callers should provide a buffered stream.
+   *
+   * @param stream the input stream
+   * @return the decoded <code>ThingDescription</code>
+   * @throws IOException if the stream cannot be read
+   */
+  public static ThingDescription readFromStream(InputStream stream) throws IOException {
+    return read(stream, MAX_LENGTH);
+  }
+
+  private static ThingDescription read(InputStream stream, int limit) throws IOException {
+    try {
+      return new TDBinaryReader(stream, limit).read();
+    } catch (EOFException e) {
+      throw new InvalidTDException("Truncated binary TD", e);
+    } catch (IllegalArgumentException | IndexOutOfBoundsException | NegativeArraySizeException
+        | ClassCastException e) {
+      throw new InvalidTDException("Invalid binary TD", e);
+    }
+  }
+
+  private ThingDescription read() throws IOException {
+    byte[] magic = new byte[TDBinary.MAGIC.length];
+    in.readFully(magic);
+
+    for (int i = 0; i < magic.length; i++) {
+      if (magic[i] != TDBinary.MAGIC[i]) {
+        throw new InvalidTDException("Not a binary TD");
+      }
+    }
+
+    int version = in.readUnsignedByte();
+    if (version != TDBinary.VERSION) {
+      throw new InvalidTDException("Unsupported binary TD version: " + version);
+    }
+
+    ThingDescription.Builder builder = new ThingDescription.Builder(readString());
+
+    Optional<String> uri = readOptionalString();
+    if (uri.isPresent()) {
+      builder.addThingURI(uri.get());
+    }
+
+    Optional<String> baseURI = readOptionalString();
+    if (baseURI.isPresent()) {
+      builder.addBaseURI(baseURI.get());
+    }
+
+    builder.addSemanticTypes(new HashSet<String>(readStrings()));
+
+    int count = readLength();
+    for (int i = 0; i < count; i++) {
+      builder.addSecurityScheme(readSecurityScheme());
+    }
+
+    count = readLength();
+    for (int i = 0; i < count; i++) {
+      builder.addProperty(readProperty());
+    }
+
+    count = readLength();
+    for (int i = 0; i < count; i++) {
+      builder.addAction(readAction());
+    }
+
+    if (in.readBoolean()) {
+      builder.addOwnedGraph(readGraph());
+    }
+
+    return builder.build();
+  }
+
+  private SecurityScheme readSecurityScheme() throws IOException {
+    String type = readString();
+    Model model = readStatements(new LinkedHashModel());
+
+    if (model.isEmpty()) {
+      throw new InvalidTDException("Missing security scheme definition");
+    }
+
+    Resource node = model.iterator().next().getSubject();
+    Optional<SecurityScheme> scheme = SecurityScheme.fromRDF(type, model, node);
+
+    if (!scheme.isPresent()) {
+      throw new InvalidTDException("Unknown type of security scheme: " + type);
+    }
+
+    return scheme.get();
+  }
+
+  private PropertyAffordance readProperty() throws IOException {
+    Optional<String> name = readOptionalString();
+    Optional<String> title = readOptionalString();
+    List<String> types = readStrings();
+    List<Form> forms = readForms();
+
+    PropertyAffordance.Builder builder = new PropertyAffordance.Builder(readSchema(), forms);
+    addAffordanceMetadata(builder, name, title, types);
+
+    if (in.readBoolean()) {
+      builder.addObserve();
+    }
+
+    return builder.build();
+  }
+
+  private ActionAffordance readAction() throws IOException {
+    Optional<String> name = readOptionalString();
+    Optional<String> title = readOptionalString();
+    List<String> types = readStrings();
+    List<Form> forms = readForms();
+
+    ActionAffordance.Builder builder = new ActionAffordance.Builder(forms);
+    addAffordanceMetadata(builder, name, title, types);
+
+    if (in.readBoolean()) {
+      builder.addInputSchema(readSchema());
+    }
+
+    if (in.readBoolean()) {
+      builder.addOutputSchema(readSchema());
+    }
+
+    return builder.build();
+  }
+
+  private void addAffordanceMetadata(InteractionAffordance.Builder<?, ?> builder,
+      Optional<String> name, Optional<String> title, List<String> types) {
+    if (name.isPresent()) {
+      builder.addName(name.get());
+    }
+
+    if (title.isPresent()) {
+      builder.addTitle(title.get());
+    }
+
+    builder.addSemanticTypes(types);
+  }
+
+  private List<Form> readForms() throws IOException {
+    int count = readLength();
+    List<Form> forms = new ArrayList<Form>(initialCapacity(count));
+
+    for (int i = 0; i < count; i++) {
+      Form.Builder builder = new Form.Builder(readString());
+
+      Optional<String> methodName = readOptionalString();
+      if (methodName.isPresent()) {
+        builder.setMethodName(methodName.get());
+      }
+
+      builder.setContentType(readString());
+
+      Optional<String> subprotocol = readOptionalString();
+      if (subprotocol.isPresent()) {
+        builder.addSubProtocol(subprotocol.get());
+      }
+
+      builder.addOperationTypes(new HashSet<String>(readStrings()));
+      forms.add(builder.build());
+    }
+
+    return forms;
+  }
+
+  private DataSchema readSchema() throws IOException {
+    int position = readVarInt();
+
+    if (position != TDBinary.NEW_ENTRY) {
+      return schemas.get(position - 1);
+    }
+
+    DataSchema schema;
+    int kind = in.readUnsignedByte();
+
+    switch (kind) {
+      case TDBinary.SCHEMA_OBJECT:
+        ObjectSchema.Builder object = readSchemaTypes(new ObjectSchema.Builder());
+
+        int count = readLength();
+        for (int i = 0; i < count; i++) {
+          object.addProperty(readString(), readSchema());
+        }
+
+        schema = object.addRequiredProperties(readStrings().toArray(new String[0])).build();
+        break;
+      case TDBinary.SCHEMA_ARRAY:
+        ArraySchema.Builder array = readSchemaTypes(new ArraySchema.Builder());
+
+        Optional<Integer> minItems = readOptionalInt();
+        if (minItems.isPresent()) {
+          array.addMinItems(minItems.get());
+        }
+
+        Optional<Integer> maxItems = readOptionalInt();
+        if (maxItems.isPresent()) {
+          array.addMaxItems(maxItems.get());
+        }
+
+        count = readLength();
+        for (int i = 0; i < count; i++) {
+          array.addItem(readSchema());
+        }
+
+        schema = array.build();
+        break;
+      case TDBinary.SCHEMA_BOOLEAN:
+        schema = readSchemaTypes(new BooleanSchema.Builder()).build();
+        break;
+      case TDBinary.SCHEMA_INTEGER:
+        IntegerSchema.Builder integer = readSchemaTypes(new IntegerSchema.Builder());
+
+        Optional<Double> minimum = readOptionalDouble();
+        if (minimum.isPresent()) {
+          integer.addMinimum(minimum.get().intValue());
+        }
+
+        Optional<Double> maximum = readOptionalDouble();
+        if (maximum.isPresent()) {
+          integer.addMaximum(maximum.get().intValue());
+        }
+
+        schema = integer.build();
+        break;
+      case TDBinary.SCHEMA_NUMBER:
+        NumberSchema.Builder number = readSchemaTypes(new NumberSchema.Builder());
+
+        minimum = readOptionalDouble();
+        if (minimum.isPresent()) {
+          number.addMinimum(minimum.get());
+        }
+
+        maximum = readOptionalDouble();
+        if (maximum.isPresent()) {
+          number.addMaximum(maximum.get());
+        }
+
+        schema = number.build();
+        break;
+      case TDBinary.SCHEMA_STRING:
+        schema = readSchemaTypes(new StringSchema.Builder()).build();
+        break;
+      case TDBinary.SCHEMA_NULL:
+        schema = readSchemaTypes(new NullSchema.Builder()).build();
+        break;
+      default:
+        throw new InvalidTDException("Unknown data schema kind: " + kind);
+    }
+
+    schemas.add(schema);
+    return schema;
+  }
+
+  private <T extends DataSchema, S extends DataSchema.Builder<T, S>> S readSchemaTypes(S builder)
+      throws IOException {
+    builder.addSemanticTypes(new HashSet<String>(readStrings()));
+
+    Set<String> enumeration = new HashSet<String>(readStrings());
+    if (!enumeration.isEmpty()) {
+      builder.addEnum(enumeration);
+    }
+
+    return builder;
+  }
+
+  private Model readGraph() throws IOException {
+    Model graph = new LinkedHashModel();
+
+    int count = readLength();
+    for (int i = 0; i < count; i++) {
+      graph.setNamespace(readString(), readString());
+    }
+
+    return readStatements(graph);
+  }
+
+  private Model readStatements(Model model) throws IOException {
+    int count = readLength();
+
+    for (int i = 0; i < count; i++) {
+      Value subject = readValue();
+
+      if (!(subject instanceof Resource)) {
+        throw new InvalidTDException("Invalid statement subject: " + subject);
+      }
+
+      model.add((Resource) subject, rdf.createIRI(readString()), readValue());
+    }
+
+    return model;
+  }
+
+  private Value readValue() throws IOException {
+    int kind = in.readUnsignedByte();
+
+    switch (kind) {
+      case TDBinary.VALUE_IRI:
+        return rdf.createIRI(readString());
+      case TDBinary.VALUE_BNODE:
+        return rdf.createBNode(readString());
+      case TDBinary.VALUE_LITERAL:
+        String label = readString();
+        return rdf.createLiteral(label, rdf.createIRI(readString()));
+      case TDBinary.VALUE_LANG_LITERAL:
+        label = readString();
+        return rdf.createLiteral(label, readString());
+      default:
+        throw new InvalidTDException("Unknown RDF value kind: " + kind);
+    }
+  }
+
+  private List<String> readStrings() throws IOException {
+    int count = readLength();
+    List<String> values = new ArrayList<String>(initialCapacity(count));
+
+    for (int i = 0; i < count; i++) {
+      values.add(readString());
+    }
+
+    return values;
+  }
+
+  private Optional<String> readOptionalString() throws IOException {
+    return in.readBoolean() ? Optional.of(readString()) : Optional.empty();
+  }
+
+  private String readString() throws IOException {
+    int position = readVarInt();
+
+    if (position != TDBinary.NEW_ENTRY) {
+      return strings.get(position - 1);
+    }
+
+    byte[] bytes = new byte[readLength()];
+    in.readFully(bytes);
+
+    String value = new String(bytes, StandardCharsets.UTF_8);
+    strings.add(value);
+
+    return value;
+  }
+
+  private Optional<Integer> readOptionalInt() throws IOException {
+    return in.readBoolean() ? Optional.of(readVarInt()) : Optional.empty();
+  }
+
+  private Optional<Double> readOptionalDouble() throws IOException {
+    return in.readBoolean() ? Optional.of(in.readDouble()) : Optional.empty();
+  }
+
+  /* Reads a length or a count, which is bounded by the size of the input */
+  private int readLength() throws IOException {
+    int length = readVarInt();
+
+    if (length < 0 || length > limit) {
+      throw new InvalidTDException("Invalid length in binary TD: " + (length & 0xFFFFFFFFL));
+    }
+
+    return length;
+  }
+
+  private static int initialCapacity(int count) {
+    return Math.min(count, MAX_INITIAL_CAPACITY);
+  }
+
+  private int readVarInt() throws IOException {
+    int value = 0;
+
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = in.readUnsignedByte();
+      value |= (b & 0x7F) << shift;
+
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+
+    throw new InvalidTDException("Malformed variable-length integer");
+  }
+}
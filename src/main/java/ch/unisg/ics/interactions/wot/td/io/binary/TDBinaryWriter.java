@@ -0,0 +1,325 @@
+package ch.unisg.ics.interactions.wot.td.io.binary;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Namespace;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+
+import ch.unisg.ics.interactions.wot.td.ThingDescription;
+import ch.unisg.ics.interactions.wot.td.affordances.ActionAffordance;
+import ch.unisg.ics.interactions.wot.td.affordances.Form;
+import ch.unisg.ics.interactions.wot.td.affordances.InteractionAffordance;
+import ch.unisg.ics.interactions.wot.td.affordances.PropertyAffordance;
+import ch.unisg.ics.interactions.wot.td.schemas.ArraySchema;
+import ch.unisg.ics.interactions.wot.td.schemas.DataSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.NumberSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.ObjectSchema;
+import ch.unisg.ics.interactions.wot.td.security.SecurityScheme;
+
+/**
+ * A writer for encoding TDs in a compact binary format, e.g. to persist TDs in a directory and
+ * reload them without parsing RDF. The encoding covers the TD metadata, security schemes,
+ * affordances with their forms and data schemas, and the additional RDF graph of the TD. Encoded
+ * TDs are read with <code>TDBinaryReader</code>.
+ *
+ * A writer can encode its TD several times, each encoding is self-contained.
+ */
+public class TDBinaryWriter {
+  private final ThingDescription td;
+  private final Map<String, Integer> strings;
+  private final Map<DataSchema, Integer> schemas;
+  private DataOutputStream out;
+
+  public TDBinaryWriter(ThingDescription td) {
+    this.td = td;
+    this.strings = new HashMap<String, Integer>();
+    // Schemas are shared by identity, structurally equal schemas are written again
+    this.schemas = new IdentityHashMap<DataSchema, Integer>();
+  }
+
+  /**
+   * Encodes the TD.
+   *
+   * @return the encoded TD
+   */
+  public byte[] write() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    try {
+      write(bytes);
+    } catch (IOException e) {
+      // Not thrown by a ByteArrayOutputStream
+      throw new UncheckedIOException(e);
+    }
+
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Encodes the TD to the given output stream. The stream is flushed, but not closed.
+   *
+   * @param stream the output stream
+   * @throws IOException if the TD cannot be written to the stream
+   */
+  public void write(OutputStream stream) throws IOException {
+    out = new DataOutputStream(new BufferedOutputStream(stream));
+    // The string and schema tables are local to each encoding
+    strings.clear();
+    schemas.clear();
+
+    out.write(TDBinary.MAGIC);
+    out.writeByte(TDBinary.VERSION);
+
+    writeString(td.getTitle());
+    writeOptionalString(td.getThingURI());
+    writeOptionalString(td.getBaseURI());
+    writeStrings(td.getSemanticTypes());
+
+    writeVarInt(td.getSecuritySchemes().size());
+    for (SecurityScheme scheme : td.getSecuritySchemes()) {
+      writeSecurityScheme(scheme);
+    }
+
+    writeVarInt(td.getProperties().size());
+    for (PropertyAffordance property : td.getProperties()) {
+      writeAffordance(property);
+      writeSchema(property.getDataSchema());
+      out.writeBoolean(property.isObservable());
+    }
+
+    writeVarInt(td.getActions().size());
+    for (ActionAffordance action : td.getActions()) {
+      writeAffordance(action);
+      writeOptionalSchema(action.getInputSchema());
+      writeOptionalSchema(action.getOutputSchema());
+    }
+
+    out.writeBoolean(td.getGraph().isPresent());
+    if (td.getGraph().isPresent()) {
+      writeGraph(td.getGraph().get());
+    }
+
+    out.flush();
+  }
+
+  /*
+   * Security schemes are written as their RDF representation, such that they are read back with
+   * SecurityScheme.fromRDF as done by TDGraphReader.
+   */
+  private void writeSecurityScheme(SecurityScheme scheme) throws IOException {
+    Resource node = SimpleValueFactory.getInstance().createBNode();
+
+    writeString(scheme.getSchemeType());
+    writeStatements(scheme.toRDF(node));
+  }
+
+  private void writeAffordance(InteractionAffordance affordance) throws IOException {
+    writeOptionalString(affordance.getName());
+    writeOptionalString(affordance.getTitle());
+    writeStrings(affordance.getSemanticTypes());
+
+    List<Form> forms = affordance.getForms();
+    writeVarInt(forms.size());
+
+    for (Form form : forms) {
+      writeString(form.getTarget());
+      writeOptionalString(form.getMethodName());
+      writeString(form.getContentType());
+      writeOptionalString(form.getSubProtocol());
+      writeStrings(form.getOperationTypes());
+    }
+  }
+
+  private void writeOptionalSchema(Optional<DataSchema> schema) throws IOException {
+    out.writeBoolean(schema.isPresent());
+    if (schema.isPresent()) {
+      writeSchema(schema.get());
+    }
+  }
+
+  private void writeSchema(DataSchema schema) throws IOException {
+    Integer position = schemas.get(schema);
+
+    if (position != null) {
+      writeVarInt(position + 1);
+      return;
+    }
+
+    writeVarInt(TDBinary.NEW_ENTRY);
+
+    switch (schema.getDatatype()) {
+      case DataSchema.OBJECT:
+        out.writeByte(TDBinary.SCHEMA_OBJECT);
+        writeSchemaTypes(schema);
+
+        ObjectSchema object = (ObjectSchema) schema;
+        writeVarInt(object.getProperties().size());
+        for (Map.Entry<String, DataSchema> property : object.getProperties().entrySet()) {
+          writeString(property.getKey());
+          writeSchema(property.getValue());
+        }
+        writeStrings(object.getRequiredProperties());
+        break;
+      case DataSchema.ARRAY:
+        out.writeByte(TDBinary.SCHEMA_ARRAY);
+        writeSchemaTypes(schema);
+
+        ArraySchema array = (ArraySchema) schema;
+        writeOptionalInt(array.getMinItems());
+        writeOptionalInt(array.getMaxItems());
+        writeVarInt(array.getItems().size());
+        for (DataSchema item : array.getItems()) {
+          writeSchema(item);
+        }
+        break;
+      case DataSchema.BOOLEAN:
+        out.writeByte(TDBinary.SCHEMA_BOOLEAN);
+        writeSchemaTypes(schema);
+        break;
+      case DataSchema.INTEGER:
+      case DataSchema.NUMBER:
+        out.writeByte(schema.getDatatype().equals(DataSchema.INTEGER) ? TDBinary.SCHEMA_INTEGER
+            : TDBinary.SCHEMA_NUMBER);
+        writeSchemaTypes(schema);
+
+        NumberSchema number = (NumberSchema) schema;
+        writeOptionalDouble(number.getMinimum());
+        writeOptionalDouble(number.getMaximum());
+        break;
+      case DataSchema.STRING:
+        out.writeByte(TDBinary.SCHEMA_STRING);
+        writeSchemaTypes(schema);
+        break;
+      case DataSchema.NULL:
+        out.writeByte(TDBinary.SCHEMA_NULL);
+        writeSchemaTypes(schema);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown data schema type: " + schema.getDatatype());
+    }
+
+    // Schemas are numbered once fully written, in the same order as they are read
+    schemas.put(schema, schemas.size());
+  }
+
+  private void writeSchemaTypes(DataSchema schema) throws IOException {
+    writeStrings(schema.getSemanticTypes());
+    writeStrings(schema.getEnumeration());
+  }
+
+  private void writeGraph(Model graph) throws IOException {
+    writeVarInt(graph.getNamespaces().size());
+    for (Namespace namespace : graph.getNamespaces()) {
+      writeString(namespace.getPrefix());
+      writeString(namespace.getName());
+    }
+
+    writeStatements(graph);
+  }
+
+  private void writeStatements(Model model) throws IOException {
+    writeVarInt(model.size());
+
+    for (Statement statement : model) {
+      writeValue(statement.getSubject());
+      writeString(statement.getPredicate().stringValue());
+      writeValue(statement.getObject());
+    }
+  }
+
+  private void writeValue(Value value) throws IOException {
+    if (value instanceof IRI) {
+      out.writeByte(TDBinary.VALUE_IRI);
+      writeString(value.stringValue());
+    } else if (value instanceof BNode) {
+      out.writeByte(TDBinary.VALUE_BNODE);
+      writeString(((BNode) value).getID());
+    } else {
+      Literal literal = (Literal) value;
+
+      if (literal.getLanguage().isPresent()) {
+        out.writeByte(TDBinary.VALUE_LANG_LITERAL);
+        writeString(literal.getLabel());
+        writeString(literal.getLanguage().get());
+      } else {
+        out.writeByte(TDBinary.VALUE_LITERAL);
+        writeString(literal.getLabel());
+        writeString(literal.getDatatype().stringValue());
+      }
+    }
+  }
+
+  private void writeStrings(Collection<String> values) throws IOException {
+    writeVarInt(values.size());
+
+    for (String value : values) {
+      writeString(value);
+    }
+  }
+
+  private void writeOptionalString(Optional<String> value) throws IOException {
+    out.writeBoolean(value.isPresent());
+    if (value.isPresent()) {
+      writeString(value.get());
+    }
+  }
+
+  private void writeString(String value) throws IOException {
+    Integer position = strings.get(value);
+
+    if (position != null) {
+      writeVarInt(position + 1);
+      return;
+    }
+
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+    writeVarInt(TDBinary.NEW_ENTRY);
+    writeVarInt(bytes.length);
+    out.write(bytes);
+
+    strings.put(value, strings.size());
+  }
+
+  private void writeOptionalInt(Optional<Integer> value) throws IOException {
+    out.writeBoolean(value.isPresent());
+    if (value.isPresent()) {
+      writeVarInt(value.get());
+    }
+  }
+
+  private void writeOptionalDouble(Optional<Double> value) throws IOException {
+    out.writeBoolean(value.isPresent());
+    if (value.isPresent()) {
+      out.writeDouble(value.get());
+    }
+  }
+
+  private void writeVarInt(int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+
+    out.writeByte(value);
+  }
+}
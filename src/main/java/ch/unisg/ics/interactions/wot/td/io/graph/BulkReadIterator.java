@@ -0,0 +1,208 @@
+package ch.unisg.ics.interactions.wot.td.io.graph;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import ch.unisg.ics.interactions.wot.td.ThingDescription;
+import ch.unisg.ics.interactions.wot.td.io.InvalidTDException;
+
+/**
+ * Reads TDs from a stream of inputs in parallel. At most <code>maxInFlight</code> inputs are read
+ * at any time: a new input is pulled from the source only once a result is consumed, which bounds
+ * the memory used by a bulk read regardless of the size of the source.
+ *
+ * Each input is read in a separate task, and each task creates its own parser. Closing the stream
+ * of results cancels the tasks that are pending or running.
+ */
+final class BulkReadIterator<T> implements Iterator<TDReadResult> {
+  private final Iterator<T> sources;
+  private final Function<T, ThingDescription> reader;
+  private final Executor executor;
+  private final int maxInFlight;
+  private final boolean ordered;
+
+  /* Tasks in submission order, results are consumed in this order if they are ordered */
+  private final Deque<ReadTask> pending;
+  /* Results in completion order, used if results are unordered */
+  private final BlockingQueue<TDReadResult> completed;
+
+  private int inFlight;
+  private long nextIndex;
+  private volatile boolean closed;
+
+  private BulkReadIterator(Iterator<T> sources, Function<T, ThingDescription> reader,
+      ReaderOptions options) {
+    this.sources = sources;
+    this.reader = reader;
+    this.executor = options.getExecutor();
+    this.maxInFlight = options.getMaxInFlight();
+    this.ordered = options.isOrdered();
+    this.pending = new ArrayDeque<ReadTask>();
+    this.completed = new LinkedBlockingQueue<TDReadResult>();
+    this.inFlight = 0;
+    this.nextIndex = 0;
+    this.closed = false;
+  }
+
+  static <T> Stream<TDReadResult> readAll(Stream<T> sources, Function<T, ThingDescription> reader,
+      ReaderOptions options) {
+    BulkReadIterator<T> iterator = new BulkReadIterator<T>(sources.iterator(), reader, options);
+
+    int characteristics = Spliterator.NONNULL | (options.isOrdered() ? Spliterator.ORDERED : 0);
+
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, characteristics),
+        false)
+        .onClose(iterator::cancel)
+        .onClose(sources::close);
+  }
+
+  @Override
+  public boolean hasNext() {
+    submitPending();
+    return inFlight > 0;
+  }
+
+  @Override
+  public TDReadResult next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+
+    inFlight--;
+
+    if (ordered) {
+      ReadTask task;
+      synchronized (pending) {
+        task = pending.peekFirst();
+      }
+
+      // The task is removed once done, such that it can be cancelled while it is awaited
+      TDReadResult result = task.getResult();
+
+      synchronized (pending) {
+        pending.removeFirst();
+      }
+
+      return result;
+    }
+
+    try {
+      return completed.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for a TD to be read.", e);
+    }
+  }
+
+  private void submitPending() {
+    while (!closed && inFlight < maxInFlight && sources.hasNext()) {
+      ReadTask task = new ReadTask(nextIndex++, sources.next());
+
+      synchronized (pending) {
+        // The stream may be closed meanwhile, cancel would then miss the task
+        if (closed) {
+          return;
+        }
+
+        if (!ordered) {
+          pending.removeIf(Future::isDone);
+        }
+
+        pending.addLast(task);
+      }
+
+      // A task cancelled before it is executed does not run
+      try {
+        executor.execute(task);
+      } catch (RejectedExecutionException e) {
+        task.reject(e);
+      }
+
+      inFlight++;
+    }
+  }
+
+  private TDReadResult read(long index, T source) {
+    try {
+      return TDReadResult.success(index, reader.apply(source));
+    } catch (InvalidTDException e) {
+      return TDReadResult.failure(index, e);
+    } catch (RuntimeException e) {
+      return TDReadResult.failure(index, new InvalidTDException("Unable to read TD.", e));
+    }
+  }
+
+  /*
+   * Called when the stream is closed, possibly from another thread. No more inputs are read, the
+   * tasks in flight still produce a (failed) result for a consumer that is waiting for them.
+   */
+  private void cancel() {
+    closed = true;
+
+    synchronized (pending) {
+      for (ReadTask task : pending) {
+        task.cancel(true);
+      }
+    }
+  }
+
+  /*
+   * Reads a single input. Tasks that fail with an Error or that are cancelled still produce a
+   * failed result: the result is set when the task is done, whatever the outcome.
+   */
+  private final class ReadTask extends FutureTask<TDReadResult> {
+    private final long index;
+
+    ReadTask(long index, T source) {
+      super(() -> read(index, source));
+      this.index = index;
+    }
+
+    @Override
+    protected void done() {
+      if (!ordered) {
+        completed.add(getResult());
+      }
+    }
+
+    /* The task fails with the rejection, its result is consumed like any other */
+    void reject(RejectedExecutionException e) {
+      setException(e);
+    }
+
+    TDReadResult getResult() {
+      try {
+        return get();
+      } catch (ExecutionException e) {
+        return failure(e.getCause());
+      } catch (CancellationException e) {
+        return failure(e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for a TD to be read.", e);
+      }
+    }
+
+    private TDReadResult failure(Throwable cause) {
+      InvalidTDException error = new InvalidTDException("Unable to read TD.");
+      error.initCause(cause);
+
+      return TDReadResult.failure(index, error);
+    }
+  }
+}
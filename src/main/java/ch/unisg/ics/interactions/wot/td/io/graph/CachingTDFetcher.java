@@ -0,0 +1,144 @@
+package ch.unisg.ics.interactions.wot.td.io.graph;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.hc.client5.http.HttpResponseException;
+import org.apache.hc.client5.http.fluent.Request;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpStatus;
+
+import ch.unisg.ics.interactions.wot.td.ThingDescription;
+import ch.unisg.ics.interactions.wot.td.ThingDescription.TDFormat;
+import ch.unisg.ics.interactions.wot.td.io.InvalidTDException;
+
+/**
+ * Fetches TDs over HTTP using conditional requests. The validators sent by the server
+ * (<code>ETag</code> and <code>Last-Modified</code>) are kept together with the parsed TD in a bounded
+ * in-memory cache. Subsequent fetches send <code>If-None-Match</code> and
+ * <code>If-Modified-Since</code>, and return the cached <code>ThingDescription</code> if the server
+ * answers with <code>304 Not Modified</code>.
+ *
+ * The cache evicts the least recently fetched TDs once it holds <code>maxEntries</code> TDs. A fetcher
+ * can be shared across threads.
+ */
+public class CachingTDFetcher {
+  private final TDFormat format;
+  private final ReaderOptions options;
+  private final Map<String, CacheEntry> cache;
+
+  public CachingTDFetcher(TDFormat format, int maxEntries) {
+    this(format, maxEntries, ReaderOptions.DEFAULT);
+  }
+
+  public CachingTDFetcher(TDFormat format, int maxEntries, ReaderOptions options) {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("The cache should hold at least one TD.");
+    }
+
+    this.format = format;
+    this.options = options;
+    this.cache = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Fetches the TD at the given URL, or returns the cached TD if it was not modified since it was
+   * last fetched.
+   *
+   * @param url the URL of the TD
+   * @return the thing description
+   * @throws IOException if the TD cannot be retrieved
+   */
+  public ThingDescription fetch(String url) throws IOException {
+    Optional<CacheEntry> cached = getCachedEntry(url);
+    Request request = Request.get(url);
+
+    if (cached.isPresent()) {
+      cached.get().etag.ifPresent(etag -> request.setHeader(HttpHeaders.IF_NONE_MATCH, etag));
+      cached.get().lastModified.ifPresent(date ->
+          request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, date));
+    }
+
+    return request.execute().handleResponse(response -> handleResponse(url, cached, response));
+  }
+
+  /**
+   * Removes all cached TDs.
+   */
+  public synchronized void clear() {
+    cache.clear();
+  }
+
+  synchronized int size() {
+    return cache.size();
+  }
+
+  private ThingDescription handleResponse(String url, Optional<CacheEntry> cached,
+      ClassicHttpResponse response) throws IOException {
+    if (response.getCode() == HttpStatus.SC_NOT_MODIFIED && cached.isPresent()) {
+      return cached.get().td;
+    }
+
+    if (response.getCode() >= HttpStatus.SC_REDIRECTION) {
+      throw new HttpResponseException(response.getCode(), response.getReasonPhrase());
+    }
+
+    HttpEntity entity = response.getEntity();
+    if (entity == null) {
+      throw new InvalidTDException("Empty TD representation: " + url);
+    }
+
+    ThingDescription td;
+    try (InputStream in = entity.getContent()) {
+      td = TDGraphReader.readFromStream(format, in, options);
+    }
+
+    Optional<String> etag = getHeader(response, HttpHeaders.ETAG);
+    Optional<String> lastModified = getHeader(response, HttpHeaders.LAST_MODIFIED);
+
+    synchronized (this) {
+      if (etag.isPresent() || lastModified.isPresent()) {
+        cache.put(url, new CacheEntry(td, etag, lastModified));
+      } else {
+        // Without validators the TD can only be fetched again unconditionally
+        cache.remove(url);
+      }
+    }
+
+    return td;
+  }
+
+  private synchronized Optional<CacheEntry> getCachedEntry(String url) {
+    return Optional.ofNullable(cache.get(url));
+  }
+
+  private Optional<String> getHeader(ClassicHttpResponse response, String name) {
+    Header header = response.getFirstHeader(name);
+    return (header == null) ? Optional.empty() : Optional.of(header.getValue());
+  }
+
+  private static final class CacheEntry {
+    private final ThingDescription td;
+    private final Optional<String> etag;
+    private final Optional<String> lastModified;
+
+    CacheEntry(ThingDescription td, Optional<String> etag, Optional<String> lastModified) {
+      this.td = td;
+      this.etag = etag;
+      this.lastModified = lastModified;
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package ch.unisg.ics.interactions.wot.td.io.graph;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+
+import ch.unisg.ics.interactions.wot.td.io.InvalidTDException;
+
+/**
+ * An RDF handler that splits a dataset into the graphs of individual TDs, as written by
+ * <code>TDGraphWriter.writeAll</code>: one named graph per TD. Each graph is passed to the
+ * consumer, without contexts, as soon as the next graph starts. Statements in the default graph
+ * are rejected, as the statements of a TD cannot be told apart from those of another TD.
+ */
+final class DatasetSplitter extends AbstractRDFHandler {
+  private final Consumer<Model> consumer;
+  private final Map<String, String> namespaces;
+  /* Graphs already passed to the consumer, used to detect graphs that are not contiguous */
+  private final Set<Resource> completed;
+
+  private Resource graphId;
+  private Model graph;
+
+  DatasetSplitter(Consumer<Model> consumer) {
+    this.consumer = consumer;
+    this.namespaces = new LinkedHashMap<String, String>();
+    this.completed = new HashSet<Resource>();
+  }
+
+  @Override
+  public void handleNamespace(String prefix, String uri) throws RDFHandlerException {
+    namespaces.put(prefix, uri);
+  }
+
+  @Override
+  public void handleStatement(Statement st) throws RDFHandlerException {
+    Resource id = st.getContext();
+
+    if (id == null) {
+      throw new InvalidTDException("The statements of a TD should be in a named graph: " + st);
+    }
+
+    if (!id.equals(graphId)) {
+      flush();
+
+      if (!completed.add(id)) {
+        throw new InvalidTDException("The statements of the TD in graph " + id
+            + " are not contiguous.");
+      }
+
+      graphId = id;
+      graph = new LinkedHashModel();
+      namespaces.forEach(graph::setNamespace);
+    }
+
+    graph.add(st.getSubject(), st.getPredicate(), st.getObject());
+  }
+
+  @Override
+  public void endRDF() throws RDFHandlerException {
+    flush();
+  }
+
+  private void flush() {
+    if (graph != null) {
+      consumer.accept(graph);
+      graph = null;
+    }
+  }
+}
@@ -0,0 +1,183 @@
+package ch.unisg.ics.interactions.wot.td.io.graph;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+
+/**
+ * Writes a graph as sorted N-Triples with deterministic blank node labels, such that equal graphs
+ * are written identically regardless of statement order and original blank node labels.
+ *
+ * Blank nodes are labeled by a signature that is refined from the statements around them until
+ * the partition of blank nodes is stable. Blank nodes with the same signature are interchangeable
+ * in tree-shaped graphs such as TDs, so their order does not change the output. For graphs with
+ * symmetric cycles of blank nodes, equal graphs may still be written differently.
+ */
+final class GraphCanonicalizer {
+  private final Collection<Statement> statements;
+
+  GraphCanonicalizer(Collection<Statement> statements) {
+    this.statements = statements;
+  }
+
+  String write() {
+    Map<BNode, String> labels = labelBlankNodes();
+    List<String> lines = new ArrayList<String>(statements.size());
+
+    for (Statement st : statements) {
+      lines.add(term(st.getSubject(), labels) + " " + term(st.getPredicate(), labels) + " "
+          + term(st.getObject(), labels) + " .\n");
+    }
+
+    lines.sort(Comparator.naturalOrder());
+
+    StringBuilder out = new StringBuilder();
+    // Duplicate statements are written once
+    String previous = null;
+    for (String line : lines) {
+      if (!line.equals(previous)) {
+        out.append(line);
+      }
+      previous = line;
+    }
+
+    return out.toString();
+  }
+
+  private Map<BNode, String> labelBlankNodes() {
+    Map<BNode, String> signatures = new LinkedHashMap<BNode, String>();
+
+    for (Statement st : statements) {
+      if (st.getSubject() instanceof BNode) {
+        signatures.put((BNode) st.getSubject(), "");
+      }
+      if (st.getObject() instanceof BNode) {
+        signatures.put((BNode) st.getObject(), "");
+      }
+    }
+
+    int classes = 1;
+    while (!signatures.isEmpty()) {
+      signatures = refine(signatures);
+
+      int refined = new HashSet<String>(signatures.values()).size();
+      if (refined == classes) {
+        break;
+      }
+      classes = refined;
+    }
+
+    List<Map.Entry<BNode, String>> entries =
+        new ArrayList<Map.Entry<BNode, String>>(signatures.entrySet());
+    entries.sort(Map.Entry.comparingByValue());
+
+    Map<BNode, String> labels = new HashMap<BNode, String>();
+    for (int i = 0; i < entries.size(); i++) {
+      labels.put(entries.get(i).getKey(), "_:b" + i);
+    }
+
+    return labels;
+  }
+
+  /* Computes new signatures from the statements in which each blank node occurs */
+  private Map<BNode, String> refine(Map<BNode, String> signatures) {
+    Map<BNode, List<String>> neighbourhoods = new HashMap<BNode, List<String>>();
+
+    for (Statement st : statements) {
+      String subject = term(st.getSubject(), signatures);
+      String predicate = term(st.getPredicate(), signatures);
+      String object = term(st.getObject(), signatures);
+
+      if (st.getSubject() instanceof BNode) {
+        neighbourhoods.computeIfAbsent((BNode) st.getSubject(), b -> new ArrayList<String>())
+            .add("+" + predicate + " " + object);
+      }
+      if (st.getObject() instanceof BNode) {
+        neighbourhoods.computeIfAbsent((BNode) st.getObject(), b -> new ArrayList<String>())
+            .add("-" + subject + " " + predicate);
+      }
+    }
+
+    Map<BNode, String> refined = new LinkedHashMap<BNode, String>();
+    for (Map.Entry<BNode, String> entry : signatures.entrySet()) {
+      List<String> neighbourhood = neighbourhoods.get(entry.getKey());
+      neighbourhood.sort(Comparator.naturalOrder());
+      refined.put(entry.getKey(), digest(entry.getValue() + "\n" + String.join("\n",
+          neighbourhood)));
+    }
+
+    return refined;
+  }
+
+  private static String term(Value value, Map<BNode, String> labels) {
+    if (value instanceof BNode) {
+      return labels.get(value);
+    }
+
+    if (value instanceof IRI) {
+      return "<" + escape(value.stringValue()) + ">";
+    }
+
+    Literal literal = (Literal) value;
+    String label = "\"" + escape(literal.getLabel()) + "\"";
+
+    if (literal.getLanguage().isPresent()) {
+      return label + "@" + literal.getLanguage().get();
+    }
+
+    return label + "^^<" + escape(literal.getDatatype().stringValue()) + ">";
+  }
+
+  private static String escape(String value) {
+    StringBuilder escaped = new StringBuilder(value.length());
+
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+
+      switch (c) {
+        case '\\':
+          escaped.append("\\\\");
+          break;
+        case '"':
+          escaped.append("\\\"");
+          break;
+        case '\n':
+          escaped.append("\\n");
+          break;
+        case '\r':
+          escaped.append("\\r");
+          break;
+        default:
+          escaped.append(c);
+      }
+    }
+
+    return escaped.toString();
+  }
+
+  private static String digest(String value) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256")
+          .digest(value.getBytes(StandardCharsets.UTF_8));
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      // Every Java platform is required to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+}
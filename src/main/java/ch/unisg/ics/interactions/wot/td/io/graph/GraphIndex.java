@@ -0,0 +1,257 @@
+package ch.unisg.ics.interactions.wot.td.io.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+
+/**
+ * A read-only view of an RDF graph indexed by subject and predicate. The index is built once, in
+ * linear time in the number of triples, and then used by the graph readers to retrieve the objects
+ * of a given subject and predicate without scanning the graph.
+ *
+ * The accessors mirror the ones provided by {@link org.eclipse.rdf4j.model.util.Models}, but
+ * preserve the order in which the triples were added.
+ *
+ * Once <code>recordReads</code> is called, the index keeps track of the triples whose objects are
+ * returned by its accessors, i.e. the triples mapped into the TD object model, such that all other
+ * triples can be retrieved with <code>addUnreadStatements</code>. Readers that inspect a node they
+ * may then skip look it up through <code>peek</code>, and mark the triples they keep with
+ * <code>markRead</code>.
+ */
+final class GraphIndex {
+  private final Map<Resource, Map<IRI, List<Value>>> index;
+  private Map<Resource, Map<IRI, Set<Value>>> reads;
+
+  GraphIndex() {
+    this(new LinkedHashMap<Resource, Map<IRI, List<Value>>>());
+  }
+
+  private GraphIndex(Map<Resource, Map<IRI, List<Value>>> index) {
+    this.index = index;
+    this.reads = null;
+  }
+
+  GraphIndex(Model model) {
+    this();
+
+    for (Statement st : model) {
+      add(st.getSubject(), st.getPredicate(), st.getObject());
+    }
+  }
+
+  void add(Resource subject, IRI predicate, Value object) {
+    index.computeIfAbsent(subject, s -> new LinkedHashMap<IRI, List<Value>>(4))
+        .computeIfAbsent(predicate, p -> new ArrayList<Value>(1))
+        .add(object);
+  }
+
+  /**
+   * Starts recording the triples read from this index.
+   */
+  void recordReads() {
+    this.reads = new HashMap<Resource, Map<IRI, Set<Value>>>();
+  }
+
+  /**
+   * Gets a view of this index whose accessors do not mark triples as read.
+   */
+  GraphIndex peek() {
+    return (reads == null) ? this : new GraphIndex(index);
+  }
+
+  /**
+   * Marks a triple as read, e.g. the link to a node that was looked up through <code>peek</code>
+   * and then mapped.
+   */
+  void markRead(Resource subject, IRI predicate, Value object) {
+    if (reads != null) {
+      reads.computeIfAbsent(subject, s -> new HashMap<IRI, Set<Value>>(4))
+          .computeIfAbsent(predicate, p -> new HashSet<Value>(2))
+          .add(object);
+    }
+  }
+
+  /**
+   * Marks all triples of the given subject as read, e.g. when the node is mapped as a whole.
+   */
+  void markRead(Resource subject) {
+    Map<IRI, List<Value>> predicates = index.get(subject);
+
+    if (reads != null && predicates != null) {
+      for (Map.Entry<IRI, List<Value>> objects : predicates.entrySet()) {
+        for (Value object : objects.getValue()) {
+          markRead(subject, objects.getKey(), object);
+        }
+      }
+    }
+  }
+
+  /**
+   * Adds to the given model the triples that were not read since <code>recordReads</code> was
+   * called.
+   */
+  void addUnreadStatements(Model model) {
+    for (Map.Entry<Resource, Map<IRI, List<Value>>> entry : index.entrySet()) {
+      Map<IRI, Set<Value>> read = (reads == null) ? null : reads.get(entry.getKey());
+
+      for (Map.Entry<IRI, List<Value>> objects : entry.getValue().entrySet()) {
+        Set<Value> readObjects = (read == null) ? null : read.get(objects.getKey());
+
+        for (Value object : objects.getValue()) {
+          if (readObjects == null || !readObjects.contains(object)) {
+            model.add(entry.getKey(), objects.getKey(), object);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the triples of the given subject as a model. The triples are not marked as read.
+   */
+  Model subgraph(Resource subject) {
+    Model model = new LinkedHashModel();
+    Map<IRI, List<Value>> predicates = index.get(subject);
+
+    if (predicates != null) {
+      for (Map.Entry<IRI, List<Value>> objects : predicates.entrySet()) {
+        for (Value object : objects.getValue()) {
+          model.add(subject, objects.getKey(), object);
+        }
+      }
+    }
+
+    return model;
+  }
+
+  /**
+   * Gets all indexed triples, in the order in which they were added.
+   */
+  List<Statement> statements() {
+    ValueFactory rdf = SimpleValueFactory.getInstance();
+    List<Statement> statements = new ArrayList<Statement>();
+
+    for (Map.Entry<Resource, Map<IRI, List<Value>>> entry : index.entrySet()) {
+      for (Map.Entry<IRI, List<Value>> objects : entry.getValue().entrySet()) {
+        for (Value object : objects.getValue()) {
+          statements.add(rdf.createStatement(entry.getKey(), objects.getKey(), object));
+        }
+      }
+    }
+
+    return statements;
+  }
+
+  /**
+   * Gets the subjects that have at least one triple with the given predicate.
+   */
+  Set<Resource> subjects(IRI predicate) {
+    Set<Resource> subjects = new LinkedHashSet<Resource>();
+
+    for (Map.Entry<Resource, Map<IRI, List<Value>>> entry : index.entrySet()) {
+      if (entry.getValue().containsKey(predicate)) {
+        subjects.add(entry.getKey());
+      }
+    }
+
+    return subjects;
+  }
+
+  /**
+   * Gets the objects of the given subject and predicate. The triples are not marked as read.
+   */
+  List<Value> objects(Resource subject, IRI predicate) {
+    Map<IRI, List<Value>> predicates = index.get(subject);
+
+    if (predicates == null) {
+      return Collections.emptyList();
+    }
+
+    List<Value> objects = predicates.get(predicate);
+    return (objects == null) ? Collections.emptyList() : objects;
+  }
+
+  /**
+   * Returns true if the graph contains the given triple. The triple is not marked as read.
+   */
+  boolean contains(Resource subject, IRI predicate, Value object) {
+    return objects(subject, predicate).contains(object);
+  }
+
+  Optional<IRI> objectIRI(Resource subject, IRI predicate) {
+    return firstObject(subject, predicate, IRI.class);
+  }
+
+  Optional<Literal> objectLiteral(Resource subject, IRI predicate) {
+    return firstObject(subject, predicate, Literal.class);
+  }
+
+  Optional<Resource> objectResource(Resource subject, IRI predicate) {
+    return firstObject(subject, predicate, Resource.class);
+  }
+
+  Set<IRI> objectIRIs(Resource subject, IRI predicate) {
+    return allObjects(subject, predicate, IRI.class);
+  }
+
+  Set<Literal> objectLiterals(Resource subject, IRI predicate) {
+    return allObjects(subject, predicate, Literal.class);
+  }
+
+  Set<Resource> objectResources(Resource subject, IRI predicate) {
+    return allObjects(subject, predicate, Resource.class);
+  }
+
+  Set<String> objectStrings(Resource subject, IRI predicate) {
+    Set<String> strings = new LinkedHashSet<String>();
+
+    for (Value object : objects(subject, predicate)) {
+      markRead(subject, predicate, object);
+      strings.add(object.stringValue());
+    }
+
+    return strings;
+  }
+
+  private <T extends Value> Optional<T> firstObject(Resource subject, IRI predicate,
+      Class<T> type) {
+    for (Value object : objects(subject, predicate)) {
+      if (type.isInstance(object)) {
+        markRead(subject, predicate, object);
+        return Optional.of(type.cast(object));
+      }
+    }
+
+    return Optional.empty();
+  }
+
+  private <T extends Value> Set<T> allObjects(Resource subject, IRI predicate, Class<T> type) {
+    Set<T> values = new LinkedHashSet<T>();
+
+    for (Value object : objects(subject, predicate)) {
+      if (type.isInstance(object)) {
+        markRead(subject, predicate, object);
+        values.add(type.cast(object));
+      }
+    }
+
+    return values;
+  }
+}
@@ -0,0 +1,38 @@
+package ch.unisg.ics.interactions.wot.td.io.graph;
+
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+import org.eclipse.rdf4j.rio.helpers.StatementCollector;
+
+/**
+ * An RDF handler that adds statements to a <code>GraphIndex</code> as they are reported by the
+ * parser. Statements are also collected in a model only if the full graph has to be retained;
+ * namespaces are always forwarded to the model.
+ */
+final class GraphIndexCollector extends AbstractRDFHandler {
+  private final GraphIndex index;
+  private final StatementCollector collector;
+  private final boolean retainStatements;
+
+  GraphIndexCollector(GraphIndex index, Model model, boolean retainStatements) {
+    this.index = index;
+    this.collector = new StatementCollector(model);
+    this.retainStatements = retainStatements;
+  }
+
+  @Override
+  public void handleNamespace(String prefix, String uri) throws RDFHandlerException {
+    collector.handleNamespace(prefix, uri);
+  }
+
+  @Override
+  public void handleStatement(Statement st) throws RDFHandlerException {
+    index.add(st.getSubject(), st.getPredicate(), st.getObject());
+
+    if (retainStatements) {
+      collector.handleStatement(st);
+    }
+  }
+}
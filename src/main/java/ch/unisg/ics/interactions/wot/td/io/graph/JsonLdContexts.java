@@ -0,0 +1,93 @@
+package ch.unisg.ics.interactions.wot.td.io.graph;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+import com.github.jsonldjava.core.DocumentLoader;
+import com.github.jsonldjava.core.JsonLdError;
+
+/**
+ * Resolves the JSON-LD context provided by this library from a copy bundled with the library, such
+ * that parsing a JSON-LD TD that uses it never requires network access.
+ *
+ * The library context is a JSON-LD 1.0 mapping of the TD terms onto the vocabulary read by this
+ * library, e.g. <code>title</code> is mapped onto <code>dct:title</code>. It is not the W3C TD
+ * context: TDs opt into it by using {@link #TD_CONTEXT} as their context. The W3C context relies on
+ * JSON-LD 1.1 features (e.g., type-scoped contexts) that the JSON-LD processor of RDF4J does not
+ * support, TDs that use it are parsed with the default document loader. As the keys of JSON-LD 1.0
+ * index maps are not represented in RDF, the names of affordances and security schemes are lost.
+ *
+ * The bundled context is served by a document loader. It is read and parsed the first time it is
+ * needed and is then cached for the lifetime of the JVM. Other remote contexts are retrieved by
+ * the default document loader.
+ */
+public final class JsonLdContexts {
+  /**
+   * The IRI of the library context. It identifies the bundled context and is not dereferenceable.
+   */
+  public static final String TD_CONTEXT = "https://ics.unisg.ch/wot-td-java/contexts/td-v1";
+
+  /* Context IRI -> bundled context document */
+  private static final Map<String, String> BUNDLED_CONTEXTS = Collections.singletonMap(
+      TD_CONTEXT, "/contexts/wot-td-java-v1.jsonld");
+
+  private JsonLdContexts() {
+    throw new AssertionError();
+  }
+
+  /*
+   * Lazy holder, the bundled contexts are loaded at most once per JVM.
+   */
+  private static final class Cache {
+    static final DocumentLoader LOADER = createLoader();
+  }
+
+  /**
+   * Gets the document loader that serves the bundled contexts, the same loader is returned on
+   * every call.
+   *
+   * @return the shared document loader
+   */
+  static DocumentLoader documentLoader() {
+    return Cache.LOADER;
+  }
+
+  private static DocumentLoader createLoader() {
+    DocumentLoader loader = new DocumentLoader();
+
+    for (Map.Entry<String, String> context : BUNDLED_CONTEXTS.entrySet()) {
+      try {
+        loader.addInjectedDoc(context.getKey(), readResource(context.getValue()));
+      } catch (JsonLdError e) {
+        throw new IllegalStateException("Invalid bundled JSON-LD context: " + context.getValue(),
+            e);
+      }
+    }
+
+    return loader;
+  }
+
+  private static String readResource(String path) {
+    try (InputStream in = JsonLdContexts.class.getResourceAsStream(path)) {
+      if (in == null) {
+        throw new IllegalStateException("Missing bundled JSON-LD context: " + path);
+      }
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      int read;
+
+      while ((read = in.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+
+      return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to read bundled JSON-LD context: " + path, e);
+    }
+  }
+}
@@ -0,0 +1,217 @@
+package ch.unisg.ics.interactions.wot.td.io.graph;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ch.unisg.ics.interactions.wot.td.schemas.SchemaCache;
+
+/**
+ * Options used to configure how a <code>TDGraphReader</code> builds <code>ThingDescription</code>
+ * objects. Options are immutable and can be shared across readers; new instances are created
+ * with a <code>ReaderOptions.Builder</code>.
+ */
+public class ReaderOptions {
+  /**
+   * Controls which part of the parsed RDF graph is attached to the read <code>ThingDescription</code>
+   * (see <code>ThingDescription.getGraph</code>).
+   */
+  public enum GraphRetention {
+    /**
+     * The full graph read as input is retained (default). While the TD is read, and until its lazy
+     * affordances are built, the statements are held both in the graph and in the index used to
+     * map them into the object model. The index shares the RDF values of the graph, but adds its
+     * own entries: use <code>NONE</code> to reduce the peak memory of reading large TDs.
+     */
+    FULL,
+    /**
+     * Only the triples that are not mapped into the TD object model are retained. The graph is not
+     * materialized while parsing: statements are indexed as they arrive and the remaining triples
+     * are collected once the TD is built.
+     */
+    EXTRAS_ONLY,
+    /** No graph is retained, the TD is represented only by its object model. */
+    NONE
+  }
+
+  /** The number of threads of the default bulk read pool: twice the number of processors. */
+  public static final int DEFAULT_PARALLELISM = 2 * Runtime.getRuntime().availableProcessors();
+
+  public static final ReaderOptions DEFAULT = new ReaderOptions.Builder().build();
+
+  private final GraphRetention graphRetention;
+  private final Optional<Executor> executor;
+  private final Optional<Integer> maxInFlight;
+  private final boolean ordered;
+  private final boolean memoryMapped;
+  private final boolean lazyAffordances;
+  private final Optional<SchemaCache> schemaCache;
+
+  private ReaderOptions(GraphRetention graphRetention, Optional<Executor> executor,
+      Optional<Integer> maxInFlight, boolean ordered, boolean memoryMapped,
+      boolean lazyAffordances, Optional<SchemaCache> schemaCache) {
+    this.graphRetention = graphRetention;
+    this.executor = executor;
+    this.maxInFlight = maxInFlight;
+    this.ordered = ordered;
+    this.memoryMapped = memoryMapped;
+    this.lazyAffordances = lazyAffordances;
+    this.schemaCache = schemaCache;
+  }
+
+  public GraphRetention getGraphRetention() {
+    return graphRetention;
+  }
+
+  /**
+   * Gets the executor used to read TDs in bulk reads. Defaults to a pool of daemon threads that is
+   * dedicated to bulk reads, such that reads blocked on I/O do not starve the common fork-join
+   * pool. The default pool has <code>DEFAULT_PARALLELISM</code> threads, which exit when idle.
+   */
+  public Executor getExecutor() {
+    return executor.orElseGet(() -> BulkReadPool.INSTANCE);
+  }
+
+  /**
+   * Gets the maximum number of TDs being read or waiting to be consumed at any time during a bulk
+   * read. Defaults to <code>DEFAULT_PARALLELISM</code>.
+   */
+  public int getMaxInFlight() {
+    return maxInFlight.orElse(DEFAULT_PARALLELISM);
+  }
+
+  /**
+   * Returns true if bulk reads return TDs in the order of their inputs (default), or false if
+   * they are returned as soon as they are read.
+   */
+  public boolean isOrdered() {
+    return ordered;
+  }
+
+  /**
+   * Returns true if files are mapped in memory when read, false by default. Mapping avoids copying
+   * the content of large files into the heap.
+   */
+  public boolean isMemoryMapped() {
+    return memoryMapped;
+  }
+
+  /**
+   * Returns true if property and action affordances are built only when first accessed, false by
+   * default. The lazy lists of properties and actions of a TD each keep a reference to the reader,
+   * and thus to the parsed graph index, until all the affordances in the list are built. Lazy TDs
+   * report invalid affordances when they are accessed rather than when the TD is read.
+   */
+  public boolean isLazyAffordances() {
+    return lazyAffordances;
+  }
+
+  /**
+   * Gets the cache used to share structurally equal data schemas across the read TDs, if any. By
+   * default, each data schema is a distinct instance.
+   */
+  public Optional<SchemaCache> getSchemaCache() {
+    return schemaCache;
+  }
+
+  public static class Builder {
+    private GraphRetention graphRetention;
+    private Optional<Executor> executor;
+    private Optional<Integer> maxInFlight;
+    private boolean ordered;
+    private boolean memoryMapped;
+    private boolean lazyAffordances;
+    private Optional<SchemaCache> schemaCache;
+
+    public Builder() {
+      this.graphRetention = GraphRetention.FULL;
+      this.executor = Optional.empty();
+      this.maxInFlight = Optional.empty();
+      this.ordered = true;
+      this.memoryMapped = false;
+      this.lazyAffordances = false;
+      this.schemaCache = Optional.empty();
+    }
+
+    public Builder setGraphRetention(GraphRetention graphRetention) {
+      this.graphRetention = graphRetention;
+      return this;
+    }
+
+    public Builder setExecutor(Executor executor) {
+      this.executor = Optional.of(executor);
+      return this;
+    }
+
+    public Builder setMaxInFlight(int maxInFlight) throws IllegalArgumentException {
+      if (maxInFlight < 1) {
+        throw new IllegalArgumentException("At least one TD should be allowed in flight.");
+      }
+
+      this.maxInFlight = Optional.of(maxInFlight);
+      return this;
+    }
+
+    public Builder setOrdered(boolean ordered) {
+      this.ordered = ordered;
+      return this;
+    }
+
+    public Builder setMemoryMapped(boolean memoryMapped) {
+      this.memoryMapped = memoryMapped;
+      return this;
+    }
+
+    public Builder setLazyAffordances(boolean lazyAffordances) {
+      this.lazyAffordances = lazyAffordances;
+      return this;
+    }
+
+    public Builder setSchemaCache(SchemaCache schemaCache) {
+      this.schemaCache = Optional.of(schemaCache);
+      return this;
+    }
+
+    /**
+     * Constructs and returns the <code>ReaderOptions</code>. Lazy affordances cannot be used when
+     * only the extra triples are retained: the extra triples are only known once all affordances
+     * are built.
+     *
+     * @return the constructed <code>ReaderOptions</code>
+     * @throws IllegalArgumentException if the options are inconsistent
+     */
+    public ReaderOptions build() throws IllegalArgumentException {
+      if (lazyAffordances && graphRetention == GraphRetention.EXTRAS_ONLY) {
+        throw new IllegalArgumentException("Lazy affordances cannot be used when only the extra "
+            + "triples are retained.");
+      }
+
+      return new ReaderOptions(graphRetention, executor, maxInFlight, ordered, memoryMapped,
+          lazyAffordances, schemaCache);
+    }
+  }
+
+  /* Created on first use */
+  private static final class BulkReadPool {
+    private static final Executor INSTANCE = create();
+
+    private static Executor create() {
+      AtomicInteger threads = new AtomicInteger();
+      ThreadFactory factory = task -> {
+        Thread thread = new Thread(task, "td-bulk-read-" + threads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      };
+
+      ThreadPoolExecutor pool = new ThreadPoolExecutor(DEFAULT_PARALLELISM, DEFAULT_PARALLELISM,
+          60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), factory);
+      pool.allowCoreThreadTimeOut(true);
+
+      return pool;
+    }
+  }
+}
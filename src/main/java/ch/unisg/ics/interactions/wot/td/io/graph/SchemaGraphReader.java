@@ -1,5 +1,7 @@
 package ch.unisg.ics.interactions.wot.td.io.graph;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -11,7 +13,6 @@ import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
-import org.eclipse.rdf4j.model.util.Models;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 
 import ch.unisg.ics.interactions.wot.td.schemas.ArraySchema;
@@ -21,24 +22,66 @@ import ch.unisg.ics.interactions.wot.td.schemas.IntegerSchema;
 import ch.unisg.ics.interactions.wot.td.schemas.NullSchema;
 import ch.unisg.ics.interactions.wot.td.schemas.NumberSchema;
 import ch.unisg.ics.interactions.wot.td.schemas.ObjectSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.SchemaCache;
 import ch.unisg.ics.interactions.wot.td.schemas.StringSchema;
 import ch.unisg.ics.interactions.wot.td.vocabularies.JSONSchema;
 
 class SchemaGraphReader {
-  private final Model model;
+  private static final Set<String> SCHEMA_TYPES = new HashSet<String>(Arrays.asList(
+      JSONSchema.ObjectSchema, JSONSchema.ArraySchema, JSONSchema.BooleanSchema,
+      JSONSchema.NumberSchema, JSONSchema.IntegerSchema, JSONSchema.StringSchema,
+      JSONSchema.NullSchema));
+
+  private final GraphIndex index;
+  private final Optional<SchemaCache> cache;
   private final ValueFactory rdf = SimpleValueFactory.getInstance();
 
-  SchemaGraphReader(Model model) {
-    this.model = model;
+  SchemaGraphReader(GraphIndex index, Optional<SchemaCache> cache) {
+    this.index = index;
+    this.cache = cache;
   }
 
   static Optional<DataSchema> readDataSchema(Resource nodeId, Model model) {
-    SchemaGraphReader reader = new SchemaGraphReader(model);
+    return readDataSchema(nodeId, new GraphIndex(model));
+  }
+
+  static Optional<DataSchema> readDataSchema(Resource nodeId, GraphIndex index) {
+    return readDataSchema(nodeId, index, Optional.empty());
+  }
+
+  /**
+   * Reads the data schema of the given node. If a cache is given, the schema and all its nested
+   * schemas are replaced with their canonical instances.
+   */
+  static Optional<DataSchema> readDataSchema(Resource nodeId, GraphIndex index,
+      Optional<SchemaCache> cache) {
+    SchemaGraphReader reader = new SchemaGraphReader(index, cache);
     return reader.readDataSchema(nodeId);
   }
 
+  /**
+   * Returns true if the node has one of the data schema types supported by this reader, in which
+   * case <code>readDataSchema</code> does not return an empty schema.
+   */
+  static boolean isDataSchema(Resource nodeId, GraphIndex index) {
+    return index.peek().objectIRIs(nodeId, RDF.TYPE).stream()
+        .anyMatch(type -> SCHEMA_TYPES.contains(type.stringValue()));
+  }
+
+  /* Nested schemas are read first, such that they are canonicalized before their parents */
   private Optional<DataSchema> readDataSchema(Resource schemaId) {
-    Set<IRI> types = Models.objectIRIs(model.filter(schemaId, RDF.TYPE, null));
+    Optional<DataSchema> schema = readSchema(schemaId);
+
+    if (schema.isPresent() && cache.isPresent()) {
+      return Optional.of(cache.get().canonicalize(schema.get()));
+    }
+
+    return schema;
+  }
+
+  /* The types are marked as read with the semantic types of the schema */
+  private Optional<DataSchema> readSchema(Resource schemaId) {
+    Set<IRI> types = index.peek().objectIRIs(schemaId, RDF.TYPE);
 
     if (!types.isEmpty()) {
       if (types.contains(rdf.createIRI(JSONSchema.ObjectSchema))) {
@@ -72,24 +115,25 @@ class SchemaGraphReader {
     readDataSchemaMetadata(builder, schemaId);
 
     /* Read properties */
-    Set<Resource> propertyIds = Models.objectResources(model.filter(schemaId,
-        rdf.createIRI(JSONSchema.properties), null));
+    IRI properties = rdf.createIRI(JSONSchema.properties);
+    Set<Resource> propertyIds = index.peek().objectResources(schemaId, properties);
     for (Resource property : propertyIds) {
       Optional<DataSchema> propertySchema = readDataSchema(property);
       if (propertySchema.isPresent()) {
         // Each property of an object should also have an associated property name
-        Optional<Literal> propertyName = Models.objectLiteral(model.filter(property,
-            rdf.createIRI(JSONSchema.propertyName), null));
+        Optional<Literal> propertyName = index.objectLiteral(property,
+            rdf.createIRI(JSONSchema.propertyName));
         if (!propertyName.isPresent()) {
           throw new InvalidTDException("ObjectSchema property is missing a property name.");
         }
         builder.addProperty(propertyName.get().stringValue(), propertySchema.get());
+        index.markRead(schemaId, properties, property);
       }
     }
 
     /* Read required properties */
-    Set<Literal> requiredProperties = Models.objectLiterals(model.filter(schemaId,
-        rdf.createIRI(JSONSchema.required), null));
+    Set<Literal> requiredProperties = index.objectLiterals(schemaId,
+        rdf.createIRI(JSONSchema.required));
     for (Literal requiredProp : requiredProperties) {
       builder.addRequiredProperties(requiredProp.stringValue());
     }
@@ -102,25 +146,24 @@ class SchemaGraphReader {
     readDataSchemaMetadata(builder, schemaId);
 
     /* Read minItems */
-    Optional<Literal> minItems = Models.objectLiteral(model.filter(schemaId,
-        rdf.createIRI(JSONSchema.minItems), null));
+    Optional<Literal> minItems = index.objectLiteral(schemaId, rdf.createIRI(JSONSchema.minItems));
     if (minItems.isPresent()) {
       builder.addMinItems(minItems.get().intValue());
     }
 
     /* Read maxItems */
-    Optional<Literal> maxItems = Models.objectLiteral(model.filter(schemaId,
-        rdf.createIRI(JSONSchema.maxItems), null));
+    Optional<Literal> maxItems = index.objectLiteral(schemaId, rdf.createIRI(JSONSchema.maxItems));
     if (maxItems.isPresent()) {
       builder.addMaxItems(maxItems.get().intValue());
     }
 
     /* Read items */
-    Set<Resource> itemIds = Models.objectResources(model.filter(schemaId,
-        rdf.createIRI(JSONSchema.items), null));
+    IRI items = rdf.createIRI(JSONSchema.items);
+    Set<Resource> itemIds = index.peek().objectResources(schemaId, items);
     for (Resource itemId : itemIds) {
       Optional<DataSchema> item = readDataSchema(itemId);
       if (item.isPresent()) {
+        index.markRead(schemaId, items, itemId);
         builder.addItem(item.get());
       }
     }
@@ -133,14 +176,12 @@ class SchemaGraphReader {
 
     readDataSchemaMetadata(builder, schemaId);
 
-    Optional<Literal> maximum = Models.objectLiteral(model.filter(schemaId,
-        rdf.createIRI(JSONSchema.maximum), null));
+    Optional<Literal> maximum = index.objectLiteral(schemaId, rdf.createIRI(JSONSchema.maximum));
     if (maximum.isPresent()) {
       builder.addMaximum(maximum.get().intValue());
     }
 
-    Optional<Literal> minimum = Models.objectLiteral(model.filter(schemaId,
-        rdf.createIRI(JSONSchema.minimum), null));
+    Optional<Literal> minimum = index.objectLiteral(schemaId, rdf.createIRI(JSONSchema.minimum));
     if (minimum.isPresent()) {
       builder.addMinimum(minimum.get().intValue());
     }
@@ -153,14 +194,12 @@ class SchemaGraphReader {
 
     readDataSchemaMetadata(builder, schemaId);
 
-    Optional<Literal> maximum = Models.objectLiteral(model.filter(schemaId,
-        rdf.createIRI(JSONSchema.maximum), null));
+    Optional<Literal> maximum = index.objectLiteral(schemaId, rdf.createIRI(JSONSchema.maximum));
     if (maximum.isPresent()) {
       builder.addMaximum(maximum.get().doubleValue());
     }
 
-    Optional<Literal> minimum = Models.objectLiteral(model.filter(schemaId,
-        rdf.createIRI(JSONSchema.minimum), null));
+    Optional<Literal> minimum = index.objectLiteral(schemaId, rdf.createIRI(JSONSchema.minimum));
     if (minimum.isPresent()) {
       builder.addMinimum(minimum.get().doubleValue());
     }
@@ -171,17 +210,17 @@ class SchemaGraphReader {
   @SuppressWarnings({ "rawtypes", "unchecked" })
   private void readDataSchemaMetadata(DataSchema.Builder builder, Resource schemaId) {
     /* Read semantic types (IRIs) */
-    Set<IRI> semIRIs = Models.objectIRIs(model.filter(schemaId, RDF.TYPE, null));
+    Set<IRI> semIRIs = index.objectIRIs(schemaId, RDF.TYPE);
     builder.addSemanticTypes(semIRIs.stream().map(iri -> iri.stringValue())
         .collect(Collectors.toSet()));
 
     /* Read semantic types (strings) */
-    Set<String> semTags = Models.objectStrings(model.filter(schemaId, RDF.TYPE, null));
+    Set<String> semTags = index.objectStrings(schemaId, RDF.TYPE);
     builder.addSemanticTypes(semTags);
 
     /* Read enumeration */
-    Set<String> enumeration = Models.objectStrings(model.filter(schemaId,
-        rdf.createIRI(JSONSchema.enumeration), null));
+    Set<String> enumeration = index.objectStrings(schemaId,
+        rdf.createIRI(JSONSchema.enumeration));
     builder.addEnum(enumeration);
   }
 
@@ -7,10 +7,13 @@ import java.util.logging.Logger;
 import org.eclipse.rdf4j.model.BNode;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.util.ModelBuilder;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.helpers.StatementCollector;
 
 import ch.unisg.ics.interactions.wot.td.schemas.ArraySchema;
 import ch.unisg.ics.interactions.wot.td.schemas.DataSchema;
@@ -22,16 +25,25 @@ import ch.unisg.ics.interactions.wot.td.vocabularies.JSONSchema;
 class SchemaGraphWriter {
   private final static Logger LOGGER = Logger.getLogger(SchemaGraphWriter.class.getCanonicalName());
 
-  private final ModelBuilder graphBuilder;
+  private final RDFHandler handler;
   private final ValueFactory rdf = SimpleValueFactory.getInstance();
 
 
-  SchemaGraphWriter(ModelBuilder builder) {
-    this.graphBuilder = builder;
+  SchemaGraphWriter(RDFHandler handler) {
+    this.handler = handler;
   }
 
   static void write(ModelBuilder builder, Resource nodeId, DataSchema schema) {
-    SchemaGraphWriter writer = new SchemaGraphWriter(builder);
+    // The model returned by the builder is the one it keeps adding to
+    write(new StatementCollector(builder.build()), nodeId, schema);
+  }
+
+  /**
+   * Pushes the statements of the data schema to the given handler. The handler is neither started
+   * nor ended, such that schemas can be written as part of a larger graph.
+   */
+  static void write(RDFHandler handler, Resource nodeId, DataSchema schema) {
+    SchemaGraphWriter writer = new SchemaGraphWriter(handler);
     writer.addDataSchema(nodeId, schema);
   }
 
@@ -68,7 +80,7 @@ class SchemaGraphWriter {
   }
 
   private void addObjectSchema(Resource nodeId, ObjectSchema schema) {
-    graphBuilder.add(nodeId, RDF.TYPE, rdf.createIRI(JSONSchema.ObjectSchema));
+    add(nodeId, RDF.TYPE, rdf.createIRI(JSONSchema.ObjectSchema));
     addDataSchemaMetadata(nodeId, schema);
 
     /* Add object properties */
@@ -77,67 +89,67 @@ class SchemaGraphWriter {
     for (String propertyName : properties.keySet()) {
       Resource propertyId = rdf.createBNode();
 
-      graphBuilder.add(nodeId, rdf.createIRI(JSONSchema.properties), propertyId);
-      graphBuilder.add(propertyId, rdf.createIRI(JSONSchema.propertyName), propertyName);
+      add(nodeId, rdf.createIRI(JSONSchema.properties), propertyId);
+      add(propertyId, rdf.createIRI(JSONSchema.propertyName), propertyName);
 
       addDataSchema(propertyId, properties.get(propertyName));
     }
 
     /* Add names of required properties */
     for (String required : schema.getRequiredProperties()) {
-      graphBuilder.add(nodeId, rdf.createIRI(JSONSchema.required), required);
+      add(nodeId, rdf.createIRI(JSONSchema.required), required);
     }
   }
 
   private void addArraySchema(Resource nodeId, ArraySchema schema) {
-    graphBuilder.add(nodeId, RDF.TYPE, rdf.createIRI(JSONSchema.ArraySchema));
+    add(nodeId, RDF.TYPE, rdf.createIRI(JSONSchema.ArraySchema));
     addDataSchemaMetadata(nodeId, schema);
 
     if (schema.getMinItems().isPresent()) {
-      graphBuilder.add(nodeId, rdf.createIRI(JSONSchema.minItems),
+      add(nodeId, rdf.createIRI(JSONSchema.minItems),
           schema.getMinItems().get().intValue());
     }
 
     if (schema.getMaxItems().isPresent()) {
-      graphBuilder.add(nodeId, rdf.createIRI(JSONSchema.maxItems), schema.getMaxItems().get()
+      add(nodeId, rdf.createIRI(JSONSchema.maxItems), schema.getMaxItems().get()
           .intValue());
     }
 
     for (DataSchema item : schema.getItems()) {
       BNode itemId = rdf.createBNode();
-      graphBuilder.add(nodeId, rdf.createIRI(JSONSchema.items), itemId);
+      add(nodeId, rdf.createIRI(JSONSchema.items), itemId);
       addDataSchema(itemId, item);
     }
   }
 
   private void addSimpleSchema(Resource nodeId, DataSchema schema, IRI schemaType) {
-    graphBuilder.add(nodeId, RDF.TYPE, schemaType);
+    add(nodeId, RDF.TYPE, schemaType);
     addDataSchemaMetadata(nodeId, schema);
   }
 
   private void addNumberSchema(Resource nodeId, NumberSchema numberSchema) {
     if (numberSchema.getDatatype().equals(DataSchema.INTEGER)) {
-      graphBuilder.add(nodeId, RDF.TYPE, rdf.createIRI(JSONSchema.IntegerSchema));
+      add(nodeId, RDF.TYPE, rdf.createIRI(JSONSchema.IntegerSchema));
     } else {
-      graphBuilder.add(nodeId, RDF.TYPE, rdf.createIRI(JSONSchema.NumberSchema));
+      add(nodeId, RDF.TYPE, rdf.createIRI(JSONSchema.NumberSchema));
     }
     addDataSchemaMetadata(nodeId, numberSchema);
 
     if (numberSchema.getMinimum().isPresent()) {
       if (numberSchema.getDatatype().equals(DataSchema.INTEGER)) {
-        graphBuilder.add(nodeId, rdf.createIRI(JSONSchema.minimum),
+        add(nodeId, rdf.createIRI(JSONSchema.minimum),
             ((IntegerSchema) numberSchema).getMinimumAsInteger().get());
       } else {
-        graphBuilder.add(nodeId, rdf.createIRI(JSONSchema.minimum), numberSchema.getMinimum().get());
+        add(nodeId, rdf.createIRI(JSONSchema.minimum), numberSchema.getMinimum().get());
       }
     }
 
     if (numberSchema.getMaximum().isPresent()) {
       if (numberSchema.getDatatype().equals(DataSchema.INTEGER)) {
-        graphBuilder.add(nodeId, rdf.createIRI(JSONSchema.maximum),
+        add(nodeId, rdf.createIRI(JSONSchema.maximum),
             ((IntegerSchema) numberSchema).getMaximumAsInteger().get());
       } else {
-        graphBuilder.add(nodeId, rdf.createIRI(JSONSchema.maximum), numberSchema.getMaximum().get());
+        add(nodeId, rdf.createIRI(JSONSchema.maximum), numberSchema.getMaximum().get());
       }
     }
   }
@@ -145,11 +157,27 @@ class SchemaGraphWriter {
   private void addObjectIRIs(Resource nodeId, IRI property, Set<String> objects) {
     for (String type : objects) {
       try {
-        graphBuilder.add(nodeId, property, rdf.createIRI(type));
+        add(nodeId, property, rdf.createIRI(type));
       } catch (IllegalArgumentException e) {
         // The object is not an URI, but add it as a string
-        graphBuilder.add(nodeId, property, type);
+        add(nodeId, property, type);
       }
     }
   }
+
+  private void add(Resource subject, IRI predicate, Value object) {
+    handler.handleStatement(rdf.createStatement(subject, predicate, object));
+  }
+
+  private void add(Resource subject, IRI predicate, String object) {
+    add(subject, predicate, rdf.createLiteral(object));
+  }
+
+  private void add(Resource subject, IRI predicate, int object) {
+    add(subject, predicate, rdf.createLiteral(object));
+  }
+
+  private void add(Resource subject, IRI predicate, double object) {
+    add(subject, predicate, rdf.createLiteral(object));
+  }
 }
@@ -0,0 +1,64 @@
+package ch.unisg.ics.interactions.wot.td.io.graph;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import ch.unisg.ics.interactions.wot.td.ThingDescription;
+
+/**
+ * Computes content hashes of TDs: the SHA-256 digest of the canonical form of a TD (see
+ * <code>TDGraphWriter.writeCanonical</code>) as a lowercase hexadecimal string. TDs with equal
+ * content have the same hash, e.g. regardless of the order in which their types were added.
+ *
+ * The hash of a TD is computed on first use and cached while the TD is in use. This relies on
+ * built TDs being immutable: their collections and their graph are copied when they are built.
+ */
+public final class TDContentHash {
+  /* ThingDescription does not override equals, TDs are looked up by identity */
+  private static final Map<ThingDescription, String> HASHES =
+      Collections.synchronizedMap(new WeakHashMap<ThingDescription, String>());
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private TDContentHash() { }
+
+  /**
+   * Gets the content hash of a TD.
+   *
+   * @param td the thing description
+   * @return the content hash
+   */
+  public static String of(ThingDescription td) {
+    String hash = HASHES.get(td);
+
+    // Concurrent callers may compute the hash more than once, the hashes are equal
+    if (hash == null) {
+      hash = compute(td);
+      HASHES.put(td, hash);
+    }
+
+    return hash;
+  }
+
+  private static String compute(ThingDescription td) {
+    byte[] canonical = new TDGraphWriter(td).writeCanonical().getBytes(StandardCharsets.UTF_8);
+
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical);
+      char[] hex = new char[digest.length * 2];
+
+      for (int i = 0; i < digest.length; i++) {
+        hex[2 * i] = HEX_DIGITS[(digest[i] >> 4) & 0xF];
+        hex[2 * i + 1] = HEX_DIGITS[digest[i] & 0xF];
+      }
+
+      return new String(hex);
+    } catch (NoSuchAlgorithmException e) {
+      // Every Java platform is required to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -1,41 +1,53 @@
 package ch.unisg.ics.interactions.wot.td.io.graph;
 
 import java.io.IOException;
-import java.io.StringReader;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import ch.unisg.ics.interactions.wot.td.io.InvalidTDException;
 import org.apache.hc.client5.http.fluent.Request;
+import org.eclipse.rdf4j.common.net.ParsedIRI;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Namespace;
 import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
-import org.eclipse.rdf4j.model.util.Models;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.eclipse.rdf4j.rio.RDFHandlerException;
 import org.eclipse.rdf4j.rio.RDFParseException;
 import org.eclipse.rdf4j.rio.RDFParser;
 import org.eclipse.rdf4j.rio.Rio;
-import org.eclipse.rdf4j.rio.helpers.StatementCollector;
+import org.eclipse.rdf4j.rio.helpers.JSONLDSettings;
 
 import ch.unisg.ics.interactions.wot.td.ThingDescription;
 import ch.unisg.ics.interactions.wot.td.ThingDescription.TDFormat;
 import ch.unisg.ics.interactions.wot.td.affordances.ActionAffordance;
 import ch.unisg.ics.interactions.wot.td.affordances.Form;
 import ch.unisg.ics.interactions.wot.td.affordances.InteractionAffordance;
+import ch.unisg.ics.interactions.wot.td.affordances.LazyAffordanceList;
 import ch.unisg.ics.interactions.wot.td.affordances.PropertyAffordance;
+import ch.unisg.ics.interactions.wot.td.io.graph.ReaderOptions.GraphRetention;
 import ch.unisg.ics.interactions.wot.td.schemas.DataSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.SchemaCache;
 import ch.unisg.ics.interactions.wot.td.security.SecurityScheme;
 import ch.unisg.ics.interactions.wot.td.vocabularies.DCT;
 import ch.unisg.ics.interactions.wot.td.vocabularies.HCTL;
@@ -43,16 +55,43 @@ import ch.unisg.ics.interactions.wot.td.vocabularies.HTV;
 import ch.unisg.ics.interactions.wot.td.vocabularies.TD;
 
 /**
- * A reader for deserializing TDs from RDF representations. The created <code>ThingDescription</code>
- * maintains the full RDF graph read as input, which can be retrieved with the <code>getGraph</code>
- * method.
+ * A reader for deserializing TDs from RDF representations. By default, the created
+ * <code>ThingDescription</code> maintains the full RDF graph read as input, which can be retrieved
+ * with the <code>getGraph</code> method. <code>ReaderOptions</code> can be used to retain only the
+ * triples that are not mapped into the TD object model, or no graph at all, in which case the
+ * input graph is never materialized as a whole.
  *
  */
 public class TDGraphReader {
+  /*
+   * Placeholder base used to parse TDs in a single pass, see the constructor. Its scheme is used by
+   * no other IRI, such that any IRI resolved against the placeholder base is detected, including
+   * network-path references (e.g. "//host/x") that replace its authority. Its last segment is
+   * random, such that a reference with dot-segments that leaves the placeholder base (e.g.
+   * "../td/x") cannot re-enter it: the reference then escapes the base and is detected.
+   */
+  private static final String PLACEHOLDER_SCHEME = "x-wot-td-placeholder:";
+  private static final String PLACEHOLDER_BASE = PLACEHOLDER_SCHEME + "//base.invalid/"
+      + UUID.randomUUID() + "/";
+
   private final Resource thingId;
+  private final GraphRetention graphRetention;
+  private final boolean retainStatements;
+  private final boolean lazyAffordances;
+  private final Optional<SchemaCache> schemaCache;
   private Model model;
+  private GraphIndex index;
   private final ValueFactory rdf = SimpleValueFactory.getInstance();
 
+  /**
+   * Retrieves and reads the TD at the given URL. The TD is retrieved on every call, use a
+   * <code>CachingTDFetcher</code> to poll TDs with conditional requests.
+   *
+   * @param format the format of the thing description
+   * @param url the URL of the thing description
+   * @return the thing description
+   * @throws IOException when the TD cannot be retrieved
+   */
   public static ThingDescription readFromURL(TDFormat format, String url) throws IOException {
     String representation = Request.get(url).execute().returnContent().asString();
     return readFromString(format, representation);
@@ -68,73 +107,462 @@ public class TDGraphReader {
    * @throws IOException when the file is not read correctly
    */
   public static ThingDescription readFromFile(TDFormat format, String path) throws IOException {
-    String content = new String(Files.readAllBytes(Paths.get(path)));
-    return readFromString(format, content);
+    return readFromPath(format, Paths.get(path));
+  }
+
+  public static ThingDescription readFromPath(TDFormat format, Path path) throws IOException {
+    return readFromPath(format, path, ReaderOptions.DEFAULT);
+  }
+
+  /**
+   * Returns a ThingDescription object read from a file. The bytes of the file are passed directly
+   * to the parser, or mapped in memory if enabled in the options.
+   *
+   * @param format the format of the thing description
+   * @param path the location of the file that contains the thing description
+   * @param options the options used to build the thing description
+   * @return the thing description
+   * @throws IOException if the file is not readable or cannot be mapped in memory; errors raised
+   * while reading its content are reported as an <code>InvalidTDException</code>
+   */
+  public static ThingDescription readFromPath(TDFormat format, Path path, ReaderOptions options)
+      throws IOException {
+    if (!Files.isReadable(path)) {
+      throw new IOException("Cannot read TD from file: " + path);
+    }
+
+    TDSource source = options.isMemoryMapped() ? TDSource.ofMapped(path) : TDSource.of(path);
+    return new TDGraphReader(toRDFFormat(format), source, options).readThingDescription();
+  }
+
+  public static ThingDescription readFromStream(TDFormat format, InputStream in) {
+    return readFromStream(format, in, ReaderOptions.DEFAULT);
+  }
+
+  /**
+   * Returns a ThingDescription object read from an input stream. The stream is read until its end,
+   * but it is not closed. The representation may have to be parsed twice: streams that support
+   * mark and reset (e.g. a <code>ByteArrayInputStream</code>) are rewound, the bytes read from
+   * other streams are copied while the TD is read.
+   *
+   * Errors raised while reading the stream are reported as an <code>InvalidTDException</code>
+   * caused by the <code>IOException</code>.
+   *
+   * @param format the format of the thing description
+   * @param in the input stream that provides the thing description
+   * @param options the options used to build the thing description
+   * @return the thing description
+   */
+  public static ThingDescription readFromStream(TDFormat format, InputStream in,
+      ReaderOptions options) {
+    return new TDGraphReader(toRDFFormat(format), TDSource.of(in), options).readThingDescription();
+  }
+
+  public static ThingDescription readFromChannel(TDFormat format, ReadableByteChannel channel) {
+    return readFromChannel(format, channel, ReaderOptions.DEFAULT);
+  }
+
+  /**
+   * Returns a ThingDescription object read from a channel, see <code>readFromStream</code>.
+   *
+   * @param format the format of the thing description
+   * @param channel the channel that provides the thing description
+   * @param options the options used to build the thing description
+   * @return the thing description
+   */
+  public static ThingDescription readFromChannel(TDFormat format, ReadableByteChannel channel,
+      ReaderOptions options) {
+    return readFromStream(format, Channels.newInputStream(channel), options);
   }
 
   public static ThingDescription readFromString(TDFormat format, String representation) {
-    TDGraphReader reader;
+    return readFromString(format, representation, ReaderOptions.DEFAULT);
+  }
+
+  /**
+   * Returns a ThingDescription object based on a representation in the given format. The options
+   * control, among others, which part of the parsed RDF graph is retained by the TD.
+   *
+   * @param format the format of the representation
+   * @param representation the thing description
+   * @param options the options used to build the thing description
+   * @return the thing description
+   */
+  public static ThingDescription readFromString(TDFormat format, String representation,
+      ReaderOptions options) {
+    TDGraphReader reader = new TDGraphReader(toRDFFormat(format), TDSource.of(representation),
+        options);
+    return reader.readThingDescription();
+  }
+
+  public static Stream<TDReadResult> readAllFromFiles(TDFormat format, Stream<Path> paths) {
+    return readAllFromFiles(format, paths, ReaderOptions.DEFAULT);
+  }
+
+  /**
+   * Reads TDs from a stream of files in parallel, see <code>ReaderOptions</code> for configuring
+   * the executor, the number of TDs read concurrently, and the order of the results. Errors are
+   * reported per TD and do not interrupt the bulk read.
+   *
+   * The returned stream is lazy and should be closed to release the source stream and to cancel
+   * the reads in progress.
+   *
+   * @param format the format of the TDs
+   * @param paths the locations of the files that contain the TDs
+   * @param options the options used to read the TDs
+   * @return a stream with one result per input file
+   */
+  public static Stream<TDReadResult> readAllFromFiles(TDFormat format, Stream<Path> paths,
+      ReaderOptions options) {
+    return BulkReadIterator.readAll(paths, path -> {
+      try {
+        return readFromPath(format, path, options);
+      } catch (IOException e) {
+        throw new InvalidTDException("Unable to read TD from file: " + path, e);
+      }
+    }, options);
+  }
+
+  public static Stream<TDReadResult> readAllFromStrings(TDFormat format,
+      Stream<String> representations) {
+    return readAllFromStrings(format, representations, ReaderOptions.DEFAULT);
+  }
+
+  /**
+   * Reads TDs from a stream of representations in parallel, see <code>readAllFromFiles</code>.
+   *
+   * @param format the format of the TDs
+   * @param representations the TDs
+   * @param options the options used to read the TDs
+   * @return a stream with one result per input representation
+   */
+  public static Stream<TDReadResult> readAllFromStrings(TDFormat format,
+      Stream<String> representations, ReaderOptions options) {
+    return BulkReadIterator.readAll(representations,
+        representation -> readFromString(format, representation, options), options);
+  }
+
+  public static Stream<TDReadResult> readAllFromStreams(TDFormat format,
+      Stream<InputStream> inputs) {
+    return readAllFromStreams(format, inputs, ReaderOptions.DEFAULT);
+  }
+
+  /**
+   * Reads TDs from a stream of UTF-8 encoded input streams in parallel, see
+   * <code>readAllFromFiles</code>. Each input stream is closed once read.
+   *
+   * @param format the format of the TDs
+   * @param inputs the input streams that provide the TDs
+   * @param options the options used to read the TDs
+   * @return a stream with one result per input stream
+   */
+  public static Stream<TDReadResult> readAllFromStreams(TDFormat format,
+      Stream<InputStream> inputs, ReaderOptions options) {
+    return BulkReadIterator.readAll(inputs, input -> {
+      try (InputStream in = input) {
+        return readFromStream(format, in, options);
+      } catch (IOException e) {
+        throw new InvalidTDException("Unable to read TD from stream.", e);
+      }
+    }, options);
+  }
+
+  public static void readAllFromDataset(RDFFormat format, InputStream in,
+      Consumer<TDReadResult> consumer) {
+    readAllFromDataset(format, in, consumer, ReaderOptions.DEFAULT);
+  }
+
+  /**
+   * Reads the TDs of a dataset written with <code>TDGraphWriter.writeAll</code>, e.g. an N-Quads
+   * dump with one named graph per TD. The stream is parsed once: each TD is passed to the consumer
+   * as soon as its statements have been read, such that the dataset is never loaded as a whole.
+   * A TD that cannot be read is reported as a failed result, the next TDs are still read.
+   *
+   * The format should support named graphs and the statements of a TD should be contiguous in the
+   * stream, otherwise the dataset is rejected. The stream is read until its end, but it is not
+   * closed.
+   *
+   * @param format the RDF format of the dataset, e.g. N-Quads or TriG
+   * @param in the input stream that provides the dataset
+   * @param consumer receives the results in the order in which the TDs are read
+   * @param options the options used to build the TDs
+   * @throws IllegalArgumentException if the format does not support named graphs
+   */
+  public static void readAllFromDataset(RDFFormat format, InputStream in,
+      Consumer<TDReadResult> consumer, ReaderOptions options) {
+    if (!format.supportsContexts()) {
+      throw new IllegalArgumentException("The format does not support named graphs: " + format);
+    }
+
+    long[] index = { 0 };
+
+    RDFParser parser = Rio.createParser(format);
+    parser.setRDFHandler(new DatasetSplitter(graph -> {
+      TDReadResult result;
+
+      try {
+        result = TDReadResult.success(index[0],
+            new TDGraphReader(graph, options).readThingDescription());
+      } catch (InvalidTDException e) {
+        result = TDReadResult.failure(index[0], e);
+      } catch (RuntimeException e) {
+        result = TDReadResult.failure(index[0], new InvalidTDException("Unable to read TD.", e));
+      }
+
+      index[0]++;
+      consumer.accept(result);
+    }));
+
+    try {
+      parser.parse(in, "");
+    } catch (RDFParseException | RDFHandlerException e) {
+      throw new InvalidTDException("RDF Syntax Error", e);
+    } catch (IOException e) {
+      throw new InvalidTDException("Unable to read TDs.", e);
+    }
+  }
+
+  private static RDFFormat toRDFFormat(TDFormat format) {
+    return (format == TDFormat.RDF_TURTLE) ? RDFFormat.TURTLE : RDFFormat.JSONLD;
+  }
+
+  TDGraphReader(RDFFormat format, String representation) {
+    this(format, TDSource.of(representation), ReaderOptions.DEFAULT);
+  }
+
+  TDGraphReader(RDFFormat format, TDSource source, ReaderOptions options) {
+    this.graphRetention = options.getGraphRetention();
+    this.retainStatements = (graphRetention == GraphRetention.FULL);
+    this.lazyAffordances = options.isLazyAffordances();
+    this.schemaCache = options.getSchemaCache();
+
+    // The representation is parsed once against a placeholder base, relative IRIs are then
+    // resolved against the base declared by the TD (if any)
+    loadGraph(format, source, PLACEHOLDER_BASE);
+
+    Optional<String> declaredBase = readDeclaredBaseURI();
+
+    if (!resolveRelativeIRIs(declaredBase)) {
+      // The parser resolves the relative IRIs against the declared base. A base that is itself
+      // relative cannot be used, relative IRIs are then rejected as without any base.
+      loadGraph(format, source, declaredBase.filter(base -> !base.startsWith(PLACEHOLDER_SCHEME))
+          .orElse(""));
+    }
+
+    // The representation is not parsed again
+    source.release();
+
+    this.thingId = readThingId();
+  }
+
+  /*
+   * Reads a TD from statements that were already parsed, e.g. one of the graphs of a dataset. IRIs
+   * are expected to be absolute.
+   */
+  TDGraphReader(Model graph, ReaderOptions options) {
+    this.graphRetention = options.getGraphRetention();
+    this.retainStatements = (graphRetention == GraphRetention.FULL);
+    this.lazyAffordances = options.isLazyAffordances();
+    this.schemaCache = options.getSchemaCache();
+
+    this.model = new LinkedHashModel();
+    this.index = new GraphIndex();
 
-    if (format == TDFormat.RDF_TURTLE) {
-      reader = new TDGraphReader(RDFFormat.TURTLE, representation);
-    } else {
-      reader = new TDGraphReader(RDFFormat.JSONLD, representation);
+    GraphIndexCollector collector = new GraphIndexCollector(index, model, retainStatements);
+    graph.getNamespaces().forEach(ns -> collector.handleNamespace(ns.getPrefix(), ns.getName()));
+    graph.forEach(collector::handleStatement);
+
+    this.thingId = readThingId();
+  }
+
+  /*
+   * Gets the statements of the graph of a TD that are not represented by its object model, as
+   * retained with EXTRAS_ONLY, e.g. to compare a TD read with its full graph to other TDs.
+   */
+  static Model readExtras(Model graph) {
+    ReaderOptions options = new ReaderOptions.Builder()
+        .setGraphRetention(GraphRetention.EXTRAS_ONLY)
+        .build();
+
+    return new TDGraphReader(graph, options).readThingDescription().getGraph()
+        .orElse(new LinkedHashModel());
+  }
+
+  private Resource readThingId() {
+    Resource thingId;
+
+    try {
+      thingId = index.subjects(rdf.createIRI(TD.hasSecurityConfiguration)).iterator().next();
+    } catch (NoSuchElementException e) {
+      throw new InvalidTDException("Missing mandatory security definitions.", e);
     }
 
-    ThingDescription.Builder tdBuilder = new ThingDescription.Builder(reader.readThingTitle())
-        .addSemanticTypes(reader.readThingTypes())
-        .addSecuritySchemes(reader.readSecuritySchemes())
-        .addProperties(reader.readProperties())
-        .addActions(reader.readActions())
-        .addGraph(reader.getGraph());
+    if (graphRetention == GraphRetention.EXTRAS_ONLY) {
+      index.recordReads();
+    }
 
-    Optional<String> thingURI = reader.getThingURI();
+    return thingId;
+  }
+
+  private ThingDescription readThingDescription() {
+    ThingDescription.Builder tdBuilder = new ThingDescription.Builder(readThingTitle())
+        .addSemanticTypes(readThingTypes())
+        .addSecuritySchemes(readSecuritySchemes())
+        .addProperties(lazyAffordances ? readLazyProperties() : readProperties())
+        .addActions(lazyAffordances ? readLazyActions() : readActions());
+
+    Optional<String> thingURI = getThingURI();
     if (thingURI.isPresent()) {
       tdBuilder.addThingURI(thingURI.get());
     }
 
-    Optional<String> base = reader.readBaseURI();
+    Optional<String> base = readBaseURI();
     if (base.isPresent()) {
       tdBuilder.addBaseURI(base.get());
     }
 
+    // The graph is retrieved last: if only extra triples are retained, they are known only once
+    // all the other lookups were performed
+    if (graphRetention != GraphRetention.NONE) {
+      tdBuilder.addOwnedGraph(getGraph());
+    }
+
     return tdBuilder.build();
   }
 
-  TDGraphReader(RDFFormat format, String representation) {
-    loadModel(format, representation, "");
+  private Optional<String> readDeclaredBaseURI() {
+    IRI hasBase = rdf.createIRI(TD.hasBase);
 
-    Optional<String> baseURI = readBaseURI();
-    if (baseURI.isPresent()) {
-      loadModel(format, representation, baseURI.get());
-    }
+    for (Resource subject : index.subjects(hasBase)) {
+      Optional<IRI> baseURI = index.objectIRI(subject, hasBase);
 
-    try {
-      thingId = Models.subject(model.filter(null, rdf.createIRI(TD.hasSecurityConfiguration),
-          null)).get();
-    } catch (NoSuchElementException e) {
-      throw new InvalidTDException("Missing mandatory security definitions.", e);
+      if (baseURI.isPresent()) {
+        return Optional.of(baseURI.get().stringValue());
+      }
     }
+
+    return Optional.empty();
   }
 
-  private void loadModel(RDFFormat format, String representation, String baseURI) {
+  /*
+   * Parses the representation into the index. Statements are collected into the model only if the
+   * full graph is retained, otherwise the model holds only the namespaces.
+   */
+  private void loadGraph(RDFFormat format, TDSource source, String baseURI) {
     this.model = new LinkedHashModel();
+    this.index = new GraphIndex();
 
     RDFParser parser = Rio.createParser(format);
-    parser.setRDFHandler(new StatementCollector(model));
+    parser.setRDFHandler(new GraphIndexCollector(index, model, retainStatements));
 
-    StringReader stringReader = new StringReader(representation);
+    // Contexts bundled with the library are never retrieved remotely
+    if (format == RDFFormat.JSONLD) {
+      parser.set(JSONLDSettings.DOCUMENT_LOADER, JsonLdContexts.documentLoader());
+    }
 
     try {
-      parser.parse(stringReader, baseURI);
-    } catch (RDFParseException | RDFHandlerException | IOException e) {
+      source.parse(parser, baseURI);
+    } catch (RDFParseException | RDFHandlerException e) {
       throw new InvalidTDException("RDF Syntax Error", e);
-    } finally {
-      stringReader.close();
+    } catch (IOException e) {
+      throw new InvalidTDException("Unable to read TD.", e);
+    }
+  }
+
+  /*
+   * Rewrites the IRIs resolved against the placeholder base using the base declared by the TD.
+   * Returns false if the graph cannot be rewritten reliably (e.g., there is no base, or a relative
+   * reference escapes the placeholder base with dot-segments or an absolute path), in which case
+   * the representation has to be parsed again.
+   */
+  private boolean resolveRelativeIRIs(Optional<String> baseURI) {
+    boolean hasRelativeIRIs = model.getNamespaces().stream()
+        .anyMatch(ns -> ns.getName().startsWith(PLACEHOLDER_SCHEME));
+
+    Iterable<Statement> statements = retainStatements ? model : index.statements();
+
+    for (Statement st : statements) {
+      if (isPlaceholderIRI(st.getSubject()) || isPlaceholderIRI(st.getPredicate())
+          || isPlaceholderIRI(st.getObject()) || isPlaceholderIRI(st.getContext())) {
+        hasRelativeIRIs = true;
+
+        if (!isResolvable(st.getSubject()) || !isResolvable(st.getPredicate())
+            || !isResolvable(st.getObject()) || !isResolvable(st.getContext())) {
+          return false;
+        }
+      }
+    }
+
+    if (!hasRelativeIRIs) {
+      return true;
+    }
+
+    if (!baseURI.isPresent() || baseURI.get().startsWith(PLACEHOLDER_SCHEME)) {
+      return false;
+    }
+
+    ParsedIRI base = ParsedIRI.create(baseURI.get());
+    Model resolved = new LinkedHashModel();
+    GraphIndex resolvedIndex = new GraphIndex();
+
+    for (Namespace ns : model.getNamespaces()) {
+      if (ns.getName().startsWith(PLACEHOLDER_BASE)) {
+        resolved.setNamespace(ns.getPrefix(), resolve(base, ns.getName()));
+      } else if (ns.getName().startsWith(PLACEHOLDER_SCHEME)) {
+        return false;
+      } else {
+        resolved.setNamespace(ns);
+      }
+    }
+
+    for (Statement st : statements) {
+      Resource subject = (Resource) resolve(base, st.getSubject());
+      IRI predicate = (IRI) resolve(base, st.getPredicate());
+      Value object = resolve(base, st.getObject());
+
+      resolvedIndex.add(subject, predicate, object);
+
+      if (!retainStatements) {
+        continue;
+      }
+
+      if (st.getContext() == null) {
+        resolved.add(subject, predicate, object);
+      } else {
+        resolved.add(subject, predicate, object, (Resource) resolve(base, st.getContext()));
+      }
     }
+
+    this.model = resolved;
+    this.index = resolvedIndex;
+    return true;
+  }
+
+  private boolean isPlaceholderIRI(Value value) {
+    return value instanceof IRI && value.stringValue().startsWith(PLACEHOLDER_SCHEME);
+  }
+
+  private boolean isResolvable(Value value) {
+    return !isPlaceholderIRI(value) || value.stringValue().startsWith(PLACEHOLDER_BASE);
+  }
+
+  private Value resolve(ParsedIRI base, Value value) {
+    if (isPlaceholderIRI(value)) {
+      return rdf.createIRI(resolve(base, value.stringValue()));
+    }
+
+    return value;
+  }
+
+  private String resolve(ParsedIRI base, String placeholderIRI) {
+    return base.resolve(placeholderIRI.substring(PLACEHOLDER_BASE.length()));
   }
 
   Model getGraph() {
+    if (graphRetention == GraphRetention.EXTRAS_ONLY) {
+      index.addUnreadStatements(model);
+    }
+
     return model;
   }
 
@@ -150,7 +578,7 @@ public class TDGraphReader {
   	Literal thingTitle;
 
     try {
-      thingTitle = Models.objectLiteral(model.filter(thingId, rdf.createIRI(DCT.title), null)).get();
+      thingTitle = index.objectLiteral(thingId, rdf.createIRI(DCT.title)).get();
     } catch (NoSuchElementException e) {
       throw new InvalidTDException("Missing mandatory title.", e);
     }
@@ -159,7 +587,7 @@ public class TDGraphReader {
   }
 
   Set<String> readThingTypes() {
-    Set<IRI> thingTypes = Models.objectIRIs(model.filter(thingId, RDF.TYPE, null));
+    Set<IRI> thingTypes = index.objectIRIs(thingId, RDF.TYPE);
 
     return thingTypes.stream()
         .map(iri -> iri.stringValue())
@@ -167,7 +595,7 @@ public class TDGraphReader {
   }
 
   final Optional<String> readBaseURI() {
-    Optional<IRI> baseURI = Models.objectIRI(model.filter(thingId, rdf.createIRI(TD.hasBase), null));
+    Optional<IRI> baseURI = index.objectIRI(thingId, rdf.createIRI(TD.hasBase));
 
     if (baseURI.isPresent()) {
       return Optional.of(baseURI.get().stringValue());
@@ -176,20 +604,26 @@ public class TDGraphReader {
     return Optional.empty();
   }
 
+  /*
+   * The retained graph already holds the statements of the schemes, only the schemes of TDs read
+   * without it are copied out of the index.
+   */
   List<SecurityScheme> readSecuritySchemes() {
-    Set<Resource> nodeIds = Models.objectResources(model.filter(thingId,
-        rdf.createIRI(TD.hasSecurityConfiguration), null));
+    IRI hasSecurityConfiguration = rdf.createIRI(TD.hasSecurityConfiguration);
+    Set<Resource> nodeIds = index.peek().objectResources(thingId, hasSecurityConfiguration);
 
     List<SecurityScheme> schemes = new ArrayList<SecurityScheme>();
 
     for (Resource node : nodeIds) {
-      Optional<IRI> securityScheme = Models.objectIRI(model.filter(node, RDF.TYPE, null));
+      Optional<IRI> securityScheme = index.peek().objectIRI(node, RDF.TYPE);
 
       if (securityScheme.isPresent()) {
         Optional<SecurityScheme> scheme = SecurityScheme.fromRDF(securityScheme.get().stringValue(),
-            model, node);
+            retainStatements ? model : index.subgraph(node), node);
 
         if (scheme.isPresent()) {
+          index.markRead(thingId, hasSecurityConfiguration, node);
+          index.markRead(node);
           schemes.add(scheme.get());
         }
       }
@@ -201,51 +635,83 @@ public class TDGraphReader {
   List<PropertyAffordance> readProperties() {
     List<PropertyAffordance> properties = new ArrayList<PropertyAffordance>();
 
-    Set<Resource> propertyIds = Models.objectResources(model.filter(thingId,
-        rdf.createIRI(TD.hasPropertyAffordance), null));
+    for (Resource propertyId : readPropertyIds()) {
+      properties.add(readProperty(propertyId));
+      index.markRead(thingId, rdf.createIRI(TD.hasPropertyAffordance), propertyId);
+    }
 
-    for (Resource propertyId : propertyIds) {
-      try {
-        Optional<DataSchema> schema = SchemaGraphReader.readDataSchema(propertyId, model);
+    return properties;
+  }
 
-        if (schema.isPresent()) {
-          List<Form> forms = readForms(propertyId, InteractionAffordance.PROPERTY);
-          PropertyAffordance.Builder builder = new PropertyAffordance.Builder(schema.get(), forms);
+  List<ActionAffordance> readActions() {
+    List<ActionAffordance> actions = new ArrayList<ActionAffordance>();
 
-          readAffordanceMetadata(builder, propertyId);
+    for (Resource affordanceId : readActionIds()) {
+      actions.add(readAction(affordanceId));
+      index.markRead(thingId, rdf.createIRI(TD.hasActionAffordance), affordanceId);
+    }
 
-          Optional<Literal> observable = Models.objectLiteral(model.filter(propertyId,
-              rdf.createIRI(TD.isObservable), null));
-          if (observable.isPresent() && observable.get().booleanValue()) {
-            builder.addObserve();
-          }
+    return actions;
+  }
 
-          properties.add(builder.build());
-        }
-      } catch (InvalidTDException e) {
-        throw new InvalidTDException("Invalid property definition.", e);
-      }
-    }
+  /*
+   * Only the names of the affordances are read upfront. The index is not modified once the TD is
+   * read (reads are not recorded if the full graph is retained), so lazy lists can safely read it
+   * from any thread.
+   */
+  private List<PropertyAffordance> readLazyProperties() {
+    List<Resource> propertyIds = readPropertyIds();
+    return new LazyAffordanceList<PropertyAffordance>(readNames(propertyIds),
+        i -> readProperty(propertyIds.get(i)));
+  }
 
-    return properties;
+  private List<ActionAffordance> readLazyActions() {
+    List<Resource> affordanceIds = readActionIds();
+    return new LazyAffordanceList<ActionAffordance>(readNames(affordanceIds),
+        i -> readAction(affordanceIds.get(i)));
   }
 
-  List<ActionAffordance> readActions() {
-    List<ActionAffordance> actions = new ArrayList<ActionAffordance>();
+  private List<Optional<String>> readNames(List<Resource> affordanceIds) {
+    return affordanceIds.stream()
+        .map(id -> index.objectLiteral(id, rdf.createIRI(TD.name)).map(Literal::stringValue))
+        .collect(Collectors.toList());
+  }
 
-    Set<Resource> affordanceIds = Models.objectResources(model.filter(thingId,
-        rdf.createIRI(TD.hasActionAffordance), null));
+  /*
+   * Property affordances without a supported data schema are skipped. The links to the affordances
+   * are marked as read once the affordances are built.
+   */
+  private List<Resource> readPropertyIds() {
+    return index.peek().objectResources(thingId, rdf.createIRI(TD.hasPropertyAffordance)).stream()
+        .filter(id -> SchemaGraphReader.isDataSchema(id, index))
+        .collect(Collectors.toList());
+  }
 
-    for (Resource affordanceId : affordanceIds) {
-      if (!model.contains(affordanceId, RDF.TYPE, rdf.createIRI(TD.ActionAffordance))) {
-        continue;
+  private List<Resource> readActionIds() {
+    return index.peek().objectResources(thingId, rdf.createIRI(TD.hasActionAffordance)).stream()
+        .filter(id -> index.contains(id, RDF.TYPE, rdf.createIRI(TD.ActionAffordance)))
+        .collect(Collectors.toList());
+  }
+
+  private PropertyAffordance readProperty(Resource propertyId) {
+    try {
+      DataSchema schema = SchemaGraphReader.readDataSchema(propertyId, index, schemaCache).get();
+
+      List<Form> forms = readForms(propertyId, InteractionAffordance.PROPERTY);
+      PropertyAffordance.Builder builder = new PropertyAffordance.Builder(schema, forms);
+
+      readAffordanceMetadata(builder, propertyId);
+
+      Optional<Literal> observable = index.objectLiteral(propertyId,
+          rdf.createIRI(TD.isObservable));
+      if (observable.isPresent() && observable.get().booleanValue()) {
+        builder.addObserve();
       }
 
-      ActionAffordance action = readAction(affordanceId);
-      actions.add(action);
+      return builder.build();
+    } catch (InvalidTDException e) {
+      throw new InvalidTDException("Invalid property definition.", e);
     }
-
-    return actions;
   }
 
   private ActionAffordance readAction(Resource affordanceId) {
@@ -255,12 +721,14 @@ public class TDGraphReader {
     readAffordanceMetadata(actionBuilder, affordanceId);
 
     try {
-      Optional<Resource> inputSchemaId = Models.objectResource(model.filter(affordanceId,
-          rdf.createIRI(TD.hasInputSchema), null));
+      Optional<Resource> inputSchemaId = index.peek().objectResource(affordanceId,
+          rdf.createIRI(TD.hasInputSchema));
       if (inputSchemaId.isPresent()) {
         try {
-          Optional<DataSchema> input = SchemaGraphReader.readDataSchema(inputSchemaId.get(), model);
+          Optional<DataSchema> input = SchemaGraphReader.readDataSchema(inputSchemaId.get(), index,
+              schemaCache);
           if (input.isPresent()) {
+            index.markRead(affordanceId, rdf.createIRI(TD.hasInputSchema), inputSchemaId.get());
             actionBuilder.addInputSchema(input.get());
           }
         } catch (InvalidTDException e) {
@@ -268,11 +736,13 @@ public class TDGraphReader {
         }
       }
 
-      Optional<Resource> outSchemaId = Models.objectResource(model.filter(affordanceId,
-          rdf.createIRI(TD.hasOutputSchema), null));
+      Optional<Resource> outSchemaId = index.peek().objectResource(affordanceId,
+          rdf.createIRI(TD.hasOutputSchema));
       if (outSchemaId.isPresent()) {
-          Optional<DataSchema> output = SchemaGraphReader.readDataSchema(outSchemaId.get(), model);
+          Optional<DataSchema> output = SchemaGraphReader.readDataSchema(outSchemaId.get(), index,
+              schemaCache);
           if (output.isPresent()) {
+            index.markRead(affordanceId, rdf.createIRI(TD.hasOutputSchema), outSchemaId.get());
             actionBuilder.addOutputSchema(output.get());
           }
       }
@@ -286,20 +756,18 @@ public class TDGraphReader {
   private void readAffordanceMetadata(InteractionAffordance
       .Builder<?, ? extends InteractionAffordance.Builder<?,?>> builder, Resource affordanceId) {
     /* Read semantic types */
-    Set<IRI> types = Models.objectIRIs(model.filter(affordanceId, RDF.TYPE, null));
+    Set<IRI> types = index.objectIRIs(affordanceId, RDF.TYPE);
     builder.addSemanticTypes(types.stream().map(type -> type.stringValue())
         .collect(Collectors.toList()));
 
     /* Read name */
-    Optional<Literal> name = Models.objectLiteral(model.filter(affordanceId, rdf.createIRI(TD.name),
-        null));
+    Optional<Literal> name = index.objectLiteral(affordanceId, rdf.createIRI(TD.name));
     if (name.isPresent()) {
       builder.addName(name.get().stringValue());
     }
 
     /* Read title */
-    Optional<Literal> title = Models.objectLiteral(model.filter(affordanceId,
-        rdf.createIRI(DCT.title), null));
+    Optional<Literal> title = index.objectLiteral(affordanceId, rdf.createIRI(DCT.title));
     if (title.isPresent()) {
       builder.addTitle(title.get().stringValue());
     }
@@ -308,30 +776,28 @@ public class TDGraphReader {
   private List<Form> readForms(Resource affordanceId, String affordanceType) {
     List<Form> forms = new ArrayList<Form>();
 
-    Set<Resource> formIdSet = Models.objectResources(model.filter(affordanceId,
-        rdf.createIRI(TD.hasForm), null));
+    /* Forms without a target are skipped, the links to the forms are marked once they are built */
+    IRI hasForm = rdf.createIRI(TD.hasForm);
+    Set<Resource> formIdSet = index.peek().objectResources(affordanceId, hasForm);
 
     for (Resource formId : formIdSet) {
-      Optional<IRI> targetOpt = Models.objectIRI(model.filter(formId, rdf.createIRI(HCTL.hasTarget),
-          null));
+      Optional<IRI> targetOpt = index.objectIRI(formId, rdf.createIRI(HCTL.hasTarget));
 
       if (!targetOpt.isPresent()) {
         continue;
       }
 
-      Optional<Literal> methodNameOpt = Models.objectLiteral(model.filter(formId,
-          rdf.createIRI(HTV.methodName), null));
+      Optional<Literal> methodNameOpt = index.objectLiteral(formId, rdf.createIRI(HTV.methodName));
 
-      Optional<Literal> contentTypeOpt = Models.objectLiteral(model.filter(formId,
-          rdf.createIRI(HCTL.forContentType), null));
+      Optional<Literal> contentTypeOpt = index.objectLiteral(formId,
+          rdf.createIRI(HCTL.forContentType));
       String contentType = contentTypeOpt.isPresent() ? contentTypeOpt.get().stringValue()
           : "application/json";
 
-      Optional<Literal> subprotocolOpt = Models.objectLiteral(model.filter(formId,
-          rdf.createIRI(HCTL.forSubProtocol), null));
+      Optional<Literal> subprotocolOpt = index.objectLiteral(formId,
+          rdf.createIRI(HCTL.forSubProtocol));
 
-      Set<IRI> opsIRIs = Models.objectIRIs(model.filter(formId, rdf.createIRI(HCTL.hasOperationType),
-          null));
+      Set<IRI> opsIRIs = index.objectIRIs(formId, rdf.createIRI(HCTL.hasOperationType));
       Set<String> ops = opsIRIs.stream().map(op -> op.stringValue()).collect(Collectors.toSet());
 
       String target = targetOpt.get().stringValue();
@@ -349,11 +815,12 @@ public class TDGraphReader {
       }
 
       forms.add(builder.build());
+      index.markRead(affordanceId, hasForm, formId);
     }
 
     if (forms.isEmpty()) {
       throw new InvalidTDException("[" + affordanceType + "] All interaction affordances should have "
-          + "at least one valid.");
+          + "at least one valid form.");
     }
 
     return forms;
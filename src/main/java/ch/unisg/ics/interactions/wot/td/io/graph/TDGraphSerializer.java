@@ -0,0 +1,108 @@
+package ch.unisg.ics.interactions.wot.td.io.graph;
+
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+
+import ch.unisg.ics.interactions.wot.td.ThingDescription;
+
+/**
+ * A reusable counterpart of <code>TDGraphWriter</code>: the namespaces are configured once with a
+ * <code>TDGraphSerializer.Builder</code>, and the same instance can then write any number of TDs.
+ * Instances are immutable and can be shared across threads, e.g. by the threads of a server.
+ */
+public final class TDGraphSerializer {
+
+  public static final TDGraphSerializer DEFAULT = new TDGraphSerializer.Builder().build();
+
+  private final Map<String, String> namespaces;
+
+  private TDGraphSerializer(Map<String, String> namespaces) {
+    this.namespaces = Collections.unmodifiableMap(new LinkedHashMap<String, String>(namespaces));
+  }
+
+  /**
+   * Gets the namespaces declared in the written graphs, indexed by prefix.
+   */
+  public Map<String, String> getNamespaces() {
+    return namespaces;
+  }
+
+  /**
+   * Writes a TD as pretty-printed Turtle, see <code>TDGraphWriter.write()</code>.
+   *
+   * @param td the thing description
+   * @return the Turtle representation of the TD
+   */
+  public String write(ThingDescription td) {
+    return createWriter(td).write();
+  }
+
+  /**
+   * Writes a TD in a canonical form, see <code>TDGraphWriter.writeCanonical()</code>.
+   *
+   * @param td the thing description
+   * @return the canonical N-Triples representation of the TD
+   */
+  public String writeCanonical(ThingDescription td) {
+    return createWriter(td).writeCanonical();
+  }
+
+  /**
+   * Writes a TD to the given output stream in the given RDF format, see
+   * <code>TDGraphWriter.write(OutputStream, RDFFormat)</code>.
+   *
+   * @param td the thing description
+   * @param out the output stream
+   * @param format the RDF format
+   * @throws RDFHandlerException if the TD cannot be written
+   */
+  public void write(ThingDescription td, OutputStream out, RDFFormat format)
+      throws RDFHandlerException {
+    createWriter(td).write(out, format);
+  }
+
+  /**
+   * Pushes the namespaces and statements of a TD to the given handler, see
+   * <code>TDGraphWriter.write(RDFHandler)</code>.
+   *
+   * @param td the thing description
+   * @param handler the RDF handler
+   * @throws RDFHandlerException if the handler fails
+   */
+  public void write(ThingDescription td, RDFHandler handler) throws RDFHandlerException {
+    createWriter(td).write(handler);
+  }
+
+  /* The state of a single graph is held by a writer that is confined to the calling thread */
+  private TDGraphWriter createWriter(ThingDescription td) {
+    TDGraphWriter writer = new TDGraphWriter(td);
+    namespaces.forEach(writer::setNamespace);
+    return writer;
+  }
+
+  /**
+   * Helper class used to construct a <code>TDGraphSerializer</code>.
+   */
+  public static class Builder {
+    private final Map<String, String> namespaces;
+
+    public Builder() {
+      this.namespaces = new LinkedHashMap<String, String>();
+    }
+
+    public Builder setNamespace(String prefix, String namespace) {
+      this.namespaces.put(prefix, namespace);
+      return this;
+    }
+
+    public TDGraphSerializer build() {
+      return new TDGraphSerializer(namespaces);
+    }
+  }
+}
@@ -1,25 +1,38 @@
 package ch.unisg.ics.interactions.wot.td.io.graph;
 
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import ch.unisg.ics.interactions.wot.td.io.AbstractTDWriter;
 import org.eclipse.rdf4j.model.BNode;
 import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
-import org.eclipse.rdf4j.model.util.ModelBuilder;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.eclipse.rdf4j.rio.Rio;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+import org.eclipse.rdf4j.rio.helpers.StatementCollector;
 
 import ch.unisg.ics.interactions.wot.td.ThingDescription;
 import ch.unisg.ics.interactions.wot.td.affordances.ActionAffordance;
 import ch.unisg.ics.interactions.wot.td.affordances.Form;
 import ch.unisg.ics.interactions.wot.td.affordances.InteractionAffordance;
 import ch.unisg.ics.interactions.wot.td.affordances.PropertyAffordance;
+import ch.unisg.ics.interactions.wot.td.io.InvalidTDException;
 import ch.unisg.ics.interactions.wot.td.schemas.DataSchema;
 import ch.unisg.ics.interactions.wot.td.security.SecurityScheme;
 import ch.unisg.ics.interactions.wot.td.vocabularies.DCT;
@@ -28,44 +41,145 @@ import ch.unisg.ics.interactions.wot.td.vocabularies.HTV;
 import ch.unisg.ics.interactions.wot.td.vocabularies.TD;
 
 /**
- * A writer for serializing TDs as RDF graphs.
+ * A writer for serializing TDs as RDF graphs. Statements are pushed to an
+ * <code>RDFHandler</code> as they are generated: <code>write()</code> collects them into a model
+ * to produce pretty-printed Turtle, while <code>write(OutputStream, RDFFormat)</code> streams them
+ * to a Rio writer without materializing the graph.
  */
 public class TDGraphWriter extends AbstractTDWriter {
   private final Resource thingId;
-  private final ModelBuilder graphBuilder;
+  private final Map<String, String> namespaces;
   private final ValueFactory rdf = SimpleValueFactory.getInstance();
 
+  private RDFHandler handler;
+  /* The statements written in addition to the object model */
+  private Optional<Model> graph;
+  /* Statements about the thing, used to avoid writing them twice if they are also in the graph */
+  private Set<Statement> thingStatements;
+
   public TDGraphWriter(ThingDescription td) {
     super(td);
     this.thingId = td.getThingURI().isPresent() ? rdf.createIRI(td.getThingURI().get())
         : rdf.createBNode();
-    this.graphBuilder = new ModelBuilder();
+    this.namespaces = new LinkedHashMap<String, String>();
   }
 
   @Override
   public String write() {
-    return this.addTypes()
+    Model model = new LinkedHashModel();
+    StatementCollector collector = new StatementCollector(model);
+
+    write(collector);
+    collector.getNamespaces().forEach(model::setNamespace);
+
+    return ReadWriteUtils.writeToString(RDFFormat.TURTLE, model);
+  }
+
+  /**
+   * Writes the TD to the given output stream in the given RDF format, e.g. Turtle, N-Triples,
+   * N-Quads or Binary RDF. Statements are written as they are generated, blank nodes are not
+   * inlined. The stream is not closed.
+   *
+   * @param out the output stream
+   * @param format the RDF format
+   * @throws RDFHandlerException if the TD cannot be written
+   */
+  public void write(OutputStream out, RDFFormat format) throws RDFHandlerException {
+    write(Rio.createWriter(format, out));
+  }
+
+  /**
+   * Pushes the namespaces and statements of the TD to the given handler, between a call to
+   * <code>startRDF</code> and a call to <code>endRDF</code>.
+   *
+   * @param handler the RDF handler
+   * @throws RDFHandlerException if the handler fails
+   */
+  public void write(RDFHandler handler) throws RDFHandlerException {
+    write(handler, td.getGraph());
+  }
+
+  private void write(RDFHandler handler, Optional<Model> graph) throws RDFHandlerException {
+    this.handler = handler;
+    this.graph = graph;
+    this.thingStatements = new HashSet<Statement>();
+
+    handler.startRDF();
+    addNamespaces();
+
+    this.addTypes()
       .addTitle()
       .addSecurity()
       .addBaseURI()
       .addProperties()
       .addActions()
-      .addGraph()
-      .write(RDFFormat.TURTLE);
+      .addGraph();
+
+    handler.endRDF();
+  }
+
+  /**
+   * Writes the TD in a canonical form, e.g. to compute content hashes. The canonical form is
+   * N-Triples with sorted statements and deterministic blank node labels, such that TDs with equal
+   * content are written identically. Namespaces are not written.
+   *
+   * The canonical form holds the object model of the TD and only the statements of its graph that
+   * the object model does not represent. A TD is thus written identically whether it was built,
+   * or read with any graph retention.
+   *
+   * @return the canonical N-Triples representation of the TD
+   */
+  public String writeCanonical() {
+    StatementCollector collector = new StatementCollector();
+    write(collector, td.getGraph().map(this::getExtras));
+
+    return new GraphCanonicalizer(collector.getStatements()).write();
+  }
+
+  /**
+   * Writes several TDs to a single dataset, e.g. to dump a directory of TDs as N-Quads. The
+   * statements of each TD are written contiguously, in a named graph identified by the URI of the
+   * thing (or a blank node if the TD has no URI). Namespaces are not written. The stream is not
+   * closed.
+   *
+   * The dataset can be read back incrementally with <code>TDGraphReader.readAllFromDataset</code>.
+   *
+   * @param tds the thing descriptions
+   * @param out the output stream
+   * @param format the RDF format, e.g. N-Quads or TriG
+   * @throws RDFHandlerException if the TDs cannot be written
+   * @throws IllegalArgumentException if the format does not support named graphs
+   */
+  public static void writeAll(Iterable<ThingDescription> tds, OutputStream out, RDFFormat format)
+      throws RDFHandlerException {
+    // The named graphs delimit the TDs, a TD may describe other things
+    if (!format.supportsContexts()) {
+      throw new IllegalArgumentException("The format does not support named graphs: " + format);
+    }
+
+    RDFHandler writer = Rio.createWriter(format, out);
+    writer.startRDF();
+
+    for (ThingDescription td : tds) {
+      TDGraphWriter tdWriter = new TDGraphWriter(td);
+      tdWriter.write(new NamedGraphHandler(writer, tdWriter.thingId));
+    }
+
+    writer.endRDF();
   }
 
   @Override
   public TDGraphWriter setNamespace(String prefix, String namespace) {
-    this.graphBuilder.setNamespace(prefix, namespace);
+    this.namespaces.put(prefix, namespace);
     return this;
   }
 
   @Override
   protected TDGraphWriter addTypes() {
-    graphBuilder.add(thingId, RDF.TYPE, rdf.createIRI(TD.Thing));
+    add(thingId, RDF.TYPE, rdf.createIRI(TD.Thing));
 
     for (String type : td.getSemanticTypes()) {
-      graphBuilder.add(thingId, RDF.TYPE, rdf.createIRI(type));
+      add(thingId, RDF.TYPE, rdf.createIRI(type));
     }
 
     return this;
@@ -73,7 +187,7 @@ public class TDGraphWriter extends AbstractTDWriter {
 
   @Override
   protected TDGraphWriter addTitle() {
-    graphBuilder.add(thingId, rdf.createIRI(DCT.title), td.getTitle());
+    add(thingId, rdf.createIRI(DCT.title), td.getTitle());
     return this;
   }
 
@@ -83,11 +197,11 @@ public class TDGraphWriter extends AbstractTDWriter {
 
     for (SecurityScheme scheme : securitySchemes) {
       BNode schemeId = rdf.createBNode();
-      graphBuilder.add(thingId, rdf.createIRI(TD.hasSecurityConfiguration), schemeId);
+      add(thingId, rdf.createIRI(TD.hasSecurityConfiguration), schemeId);
 
       Model schemeGraph = scheme.toRDF(schemeId);
       for (Statement s : schemeGraph) {
-        graphBuilder.add(s.getSubject(), s.getPredicate(), s.getObject());
+        handler.handleStatement(s);
       }
     }
 
@@ -97,7 +211,7 @@ public class TDGraphWriter extends AbstractTDWriter {
   @Override
   protected TDGraphWriter addBaseURI() {
     if (td.getBaseURI().isPresent()) {
-      graphBuilder.add(thingId, rdf.createIRI(TD.hasBase),
+      add(thingId, rdf.createIRI(TD.hasBase),
           rdf.createIRI(td.getBaseURI().get()));
     }
 
@@ -108,9 +222,9 @@ public class TDGraphWriter extends AbstractTDWriter {
   protected TDGraphWriter addProperties() {
     for (PropertyAffordance property : td.getProperties()) {
       Resource propertyId = addAffordance(property, TD.hasPropertyAffordance, TD.PropertyAffordance);
-      graphBuilder.add(propertyId, rdf.createIRI(TD.isObservable), property.isObservable());
+      add(propertyId, rdf.createIRI(TD.isObservable), property.isObservable());
 
-      SchemaGraphWriter.write(graphBuilder, propertyId, property.getDataSchema());
+      SchemaGraphWriter.write(handler, propertyId, property.getDataSchema());
     }
 
     return this;
@@ -125,18 +239,18 @@ public class TDGraphWriter extends AbstractTDWriter {
         DataSchema schema = action.getInputSchema().get();
 
         Resource inputId = rdf.createBNode();
-        graphBuilder.add(actionId, rdf.createIRI(TD.hasInputSchema), inputId);
+        add(actionId, rdf.createIRI(TD.hasInputSchema), inputId);
 
-        SchemaGraphWriter.write(graphBuilder, inputId, schema);
+        SchemaGraphWriter.write(handler, inputId, schema);
       }
 
       if (action.getOutputSchema().isPresent()) {
         DataSchema schema = action.getOutputSchema().get();
 
         Resource outputId = rdf.createBNode();
-        graphBuilder.add(actionId, rdf.createIRI(TD.hasOutputSchema), outputId);
+        add(actionId, rdf.createIRI(TD.hasOutputSchema), outputId);
 
-        SchemaGraphWriter.write(graphBuilder, outputId, schema);
+        SchemaGraphWriter.write(handler, outputId, schema);
       }
     }
 
@@ -145,34 +259,69 @@ public class TDGraphWriter extends AbstractTDWriter {
 
   @Override
   protected TDGraphWriter addGraph() {
-  	if(td.getGraph().isPresent()) {
-  		getModel().addAll(td.getGraph().get());
+    if (graph.isPresent()) {
+      for (Statement statement : graph.get()) {
+        if (!thingStatements.contains(statement)) {
+          handler.handleStatement(statement);
+        }
+      }
+    }
+
+    return this;
+  }
+
+  /*
+   * The graph of a TD read with FULL retention also describes the object model of the TD: it holds
+   * the title of the TD for a thing with security definitions. The graph is then read again to
+   * drop the statements the object model represents. Other graphs hold only extra statements.
+   */
+  private Model getExtras(Model graph) {
+    Literal title = rdf.createLiteral(td.getTitle());
+    IRI hasSecurity = rdf.createIRI(TD.hasSecurityConfiguration);
+
+    boolean describesTD = graph.filter(null, rdf.createIRI(DCT.title), title).subjects().stream()
+        .anyMatch(thing -> graph.contains(thing, hasSecurity, null));
 
-  		td.getGraph().get().getNamespaces().stream()
-  		    .filter(ns -> !getModel().getNamespace(ns.getPrefix()).isPresent())
-          .forEach(graphBuilder::setNamespace);
-  	}
-  	return this;
+    if (!describesTD) {
+      return graph;
+    }
+
+    try {
+      return TDGraphReader.readExtras(graph);
+    } catch (InvalidTDException e) {
+      return graph;
+    }
+  }
+
+  /* Namespaces of the graph are written unless their prefix is already bound */
+  private void addNamespaces() {
+    namespaces.forEach(handler::handleNamespace);
+
+    if (td.getGraph().isPresent()) {
+      td.getGraph().get().getNamespaces().stream()
+          .filter(ns -> !namespaces.containsKey(ns.getPrefix()))
+          .forEach(ns -> handler.handleNamespace(ns.getPrefix(), ns.getName()));
+    }
   }
 
   private Resource addAffordance(InteractionAffordance affordance, String affordanceProp,
       String affordanceClass) {
     BNode affordanceId = rdf.createBNode();
 
-    graphBuilder.add(thingId, rdf.createIRI(affordanceProp), affordanceId);
-    graphBuilder.add(affordanceId, RDF.TYPE, rdf.createIRI(affordanceClass));
+    add(thingId, rdf.createIRI(affordanceProp), affordanceId);
+    add(affordanceId, RDF.TYPE, rdf.createIRI(affordanceClass));
 
     for (String type : affordance.getSemanticTypes()) {
-      graphBuilder.add(affordanceId, RDF.TYPE, rdf.createIRI(type));
+      add(affordanceId, RDF.TYPE, rdf.createIRI(type));
     }
 
     if (affordance.getName().isPresent()) {
-      graphBuilder.add(affordanceId, rdf.createIRI(TD.name),
+      add(affordanceId, rdf.createIRI(TD.name),
           rdf.createLiteral(affordance.getName().get()));
     }
 
     if (affordance.getTitle().isPresent()) {
-      graphBuilder.add(affordanceId, rdf.createIRI(DCT.title), affordance.getTitle().get());
+      add(affordanceId, rdf.createIRI(DCT.title), affordance.getTitle().get());
     }
 
     addFormsForInteraction(affordanceId, affordance);
@@ -184,36 +333,66 @@ public class TDGraphWriter extends AbstractTDWriter {
     for (Form form : interaction.getForms()) {
       BNode formId = rdf.createBNode();
 
-      graphBuilder.add(interactionId, rdf.createIRI(TD.hasForm), formId);
+      add(interactionId, rdf.createIRI(TD.hasForm), formId);
 
       // Only writes the method name for forms with one operation type (to avoid ambiguity)
       if (form.getMethodName().isPresent() && form.getOperationTypes().size() == 1) {
-        graphBuilder.add(formId, rdf.createIRI(HTV.methodName), form.getMethodName().get());
+        add(formId, rdf.createIRI(HTV.methodName), form.getMethodName().get());
       }
-      graphBuilder.add(formId, rdf.createIRI(HCTL.hasTarget), rdf.createIRI(form.getTarget()));
-      graphBuilder.add(formId, rdf.createIRI(HCTL.forContentType), form.getContentType());
+      add(formId, rdf.createIRI(HCTL.hasTarget), rdf.createIRI(form.getTarget()));
+      add(formId, rdf.createIRI(HCTL.forContentType), form.getContentType());
 
       for (String opType : form.getOperationTypes()) {
         try {
           IRI opTypeIri = rdf.createIRI(opType);
-          graphBuilder.add(formId, rdf.createIRI(HCTL.hasOperationType), opTypeIri);
+          add(formId, rdf.createIRI(HCTL.hasOperationType), opTypeIri);
         } catch (IllegalArgumentException e) {
-          graphBuilder.add(formId, rdf.createIRI(HCTL.hasOperationType), opType);
+          add(formId, rdf.createIRI(HCTL.hasOperationType), opType);
         }
       }
 
       Optional<String> subprotocol = form.getSubProtocol();
       if (subprotocol.isPresent()) {
-        graphBuilder.add(formId, rdf.createIRI(HCTL.forSubProtocol), subprotocol.get());
+        add(formId, rdf.createIRI(HCTL.forSubProtocol), subprotocol.get());
       }
     }
   }
 
-  private Model getModel() {
-    return graphBuilder.build();
+  private void add(Resource subject, IRI predicate, Value object) {
+    Statement statement = rdf.createStatement(subject, predicate, object);
+
+    if (subject.equals(thingId)) {
+      thingStatements.add(statement);
+    }
+
+    handler.handleStatement(statement);
+  }
+
+  private void add(Resource subject, IRI predicate, String object) {
+    add(subject, predicate, rdf.createLiteral(object));
   }
 
-  private String write(RDFFormat format) {
-    return ReadWriteUtils.writeToString(format, getModel());
+  private void add(Resource subject, IRI predicate, boolean object) {
+    add(subject, predicate, rdf.createLiteral(object));
+  }
+
+  /*
+   * Forwards the statements of a single TD to a shared writer, in the named graph of the TD.
+   */
+  private static final class NamedGraphHandler extends AbstractRDFHandler {
+    private final RDFHandler writer;
+    private final Resource graphId;
+    private final ValueFactory rdf = SimpleValueFactory.getInstance();
+
+    NamedGraphHandler(RDFHandler writer, Resource graphId) {
+      this.writer = writer;
+      this.graphId = graphId;
+    }
+
+    @Override
+    public void handleStatement(Statement st) throws RDFHandlerException {
+      writer.handleStatement(rdf.createStatement(st.getSubject(), st.getPredicate(),
+          st.getObject(), graphId));
+    }
   }
 }
@@ -0,0 +1,49 @@
+package ch.unisg.ics.interactions.wot.td.io.graph;
+
+import java.util.Optional;
+
+import ch.unisg.ics.interactions.wot.td.ThingDescription;
+import ch.unisg.ics.interactions.wot.td.io.InvalidTDException;
+
+/**
+ * The outcome of reading one TD in a bulk read (see <code>TDGraphReader.readAllFromFiles</code>,
+ * <code>TDGraphReader.readAllFromDataset</code> and related methods): either the read
+ * <code>ThingDescription</code> or the error that prevented reading it. The index identifies the
+ * position of the TD in the input stream.
+ */
+public class TDReadResult {
+  private final long index;
+  private final Optional<ThingDescription> td;
+  private final Optional<InvalidTDException> error;
+
+  private TDReadResult(long index, Optional<ThingDescription> td,
+      Optional<InvalidTDException> error) {
+    this.index = index;
+    this.td = td;
+    this.error = error;
+  }
+
+  static TDReadResult success(long index, ThingDescription td) {
+    return new TDReadResult(index, Optional.of(td), Optional.empty());
+  }
+
+  static TDReadResult failure(long index, InvalidTDException error) {
+    return new TDReadResult(index, Optional.empty(), Optional.of(error));
+  }
+
+  public long getIndex() {
+    return index;
+  }
+
+  public boolean isValid() {
+    return td.isPresent();
+  }
+
+  public Optional<ThingDescription> getThingDescription() {
+    return td;
+  }
+
+  public Optional<InvalidTDException> getError() {
+    return error;
+  }
+}
@@ -0,0 +1,209 @@
+package ch.unisg.ics.interactions.wot.td.io.graph;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.eclipse.rdf4j.rio.RDFParser;
+
+/**
+ * A TD representation handed to an RDF parser. A representation may have to be parsed more than
+ * once (see the <code>TDGraphReader</code> constructor), so all sources can be parsed repeatedly:
+ * files are read again, memory-mapped files and streams that support mark and reset are rewound,
+ * and other input streams keep a copy of the bytes read during the first pass until they are
+ * released.
+ *
+ * Byte sources are passed to the parser as they are, such that the parser decodes them (RDF 1.1
+ * Turtle is always UTF-8).
+ */
+abstract class TDSource {
+
+  abstract void parse(RDFParser parser, String baseURI) throws IOException;
+
+  /**
+   * Releases the resources held to parse the representation again, once it is no longer parsed.
+   */
+  void release() {
+  }
+
+  static TDSource of(String representation) {
+    return new TDSource() {
+      @Override
+      void parse(RDFParser parser, String baseURI) throws IOException {
+        try (StringReader reader = new StringReader(representation)) {
+          parser.parse(reader, baseURI);
+        }
+      }
+    };
+  }
+
+  static TDSource of(Path path) {
+    return new TDSource() {
+      @Override
+      void parse(RDFParser parser, String baseURI) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+          parser.parse(in, baseURI);
+        }
+      }
+    };
+  }
+
+  /*
+   * Maps the file in memory once, the mapped buffer is then read without intermediate copies.
+   * Files larger than 2GB cannot be mapped in a single buffer and are read as regular files.
+   */
+  static TDSource ofMapped(Path path) throws IOException {
+    ByteBuffer buffer;
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        return of(path);
+      }
+
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    return new TDSource() {
+      @Override
+      void parse(RDFParser parser, String baseURI) throws IOException {
+        parser.parse(new ByteBufferInputStream(buffer.duplicate()), baseURI);
+      }
+    };
+  }
+
+  /*
+   * Streams that support mark and reset, e.g. ByteArrayInputStream, are rewound if the
+   * representation is parsed again, without copying their content. Other streams are read once:
+   * the bytes read are recorded during the first parse, and the recording is dropped once the
+   * reader released the source.
+   */
+  static TDSource of(InputStream in) {
+    if (in.markSupported()) {
+      return ofResettable(in);
+    }
+
+    return new TDSource() {
+      private ByteArrayOutputStream recorded = new ByteArrayOutputStream();
+      private boolean consumed = false;
+
+      @Override
+      void parse(RDFParser parser, String baseURI) throws IOException {
+        if (consumed) {
+          parser.parse(new ByteArrayInputStream(recorded().toByteArray()), baseURI);
+        } else {
+          consumed = true;
+          parser.parse(new RecordingInputStream(in, recorded), baseURI);
+        }
+      }
+
+      @Override
+      void release() {
+        recorded = null;
+      }
+
+      private ByteArrayOutputStream recorded() {
+        if (recorded == null) {
+          throw new IllegalStateException("The source was released.");
+        }
+
+        return recorded;
+      }
+    };
+  }
+
+  private static TDSource ofResettable(InputStream in) {
+    in.mark(Integer.MAX_VALUE);
+
+    return new TDSource() {
+      @Override
+      void parse(RDFParser parser, String baseURI) throws IOException {
+        in.reset();
+        parser.parse(in, baseURI);
+      }
+    };
+  }
+
+  private static final class RecordingInputStream extends FilterInputStream {
+    private final ByteArrayOutputStream recorded;
+
+    RecordingInputStream(InputStream in, ByteArrayOutputStream recorded) {
+      super(in);
+      this.recorded = recorded;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+
+      if (b != -1) {
+        recorded.write(b);
+      }
+
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int read = super.read(b, off, len);
+
+      if (read > 0) {
+        recorded.write(b, off, read);
+      }
+
+      return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      // Skipped bytes have to be recorded as well
+      int read = read(new byte[(int) Math.min(n, 8192)]);
+      return Math.max(read, 0);
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+  }
+
+  private static final class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (len == 0) {
+        return 0;
+      }
+
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+
+      int read = Math.min(len, buffer.remaining());
+      buffer.get(b, off, read);
+      return read;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package ch.unisg.ics.interactions.wot.td.io.json;
+
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Brings JSON documents written by <code>TDJsonWriter</code> into a canonical form: the keys of
+ * all objects are sorted, and so are the arrays that represent unordered sets (e.g. semantic
+ * types or operation types). Arrays whose order is meaningful are kept as is.
+ */
+final class CanonicalJson {
+  private static final Set<String> ORDERED_ARRAYS = new HashSet<>(Arrays.asList(JWot.CONTEXT,
+    JWot.FORMS, "items"));
+
+  private CanonicalJson() {
+    throw new AssertionError();
+  }
+
+  static JsonValue canonicalize(JsonValue value) {
+    return canonicalize(value, false);
+  }
+
+  private static JsonValue canonicalize(JsonValue value, boolean ordered) {
+    switch (value.getValueType()) {
+      case OBJECT:
+        JsonObjectBuilder object = JsonFactories.BUILDERS.createObjectBuilder();
+        new TreeMap<>((JsonObject) value).forEach((key, member) ->
+          object.add(key, canonicalize(member, ORDERED_ARRAYS.contains(key))));
+        return object.build();
+      case ARRAY:
+        List<JsonValue> items = new ArrayList<>();
+        ((JsonArray) value).forEach(item -> items.add(canonicalize(item, false)));
+
+        if (!ordered) {
+          items.sort(Comparator.comparing(JsonValue::toString));
+        }
+
+        JsonArrayBuilder array = JsonFactories.BUILDERS.createArrayBuilder();
+        items.forEach(array::add);
+        return array.build();
+      default:
+        return value;
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package ch.unisg.ics.interactions.wot.td.io.json;
+
+import java.util.Collections;
+
+import javax.json.JsonBuilderFactory;
+import javax.json.spi.JsonProvider;
+import javax.json.stream.JsonGeneratorFactory;
+
+/**
+ * The JSON provider and factories used to write TDs. The static methods of <code>Json</code> look
+ * up the provider with a service loader on every call, the provider and factories are looked up
+ * once per JVM and shared by all writers and serializers.
+ */
+final class JsonFactories {
+  static final JsonProvider PROVIDER = JsonProvider.provider();
+  static final JsonBuilderFactory BUILDERS =
+      PROVIDER.createBuilderFactory(Collections.<String, Object>emptyMap());
+  static final JsonGeneratorFactory GENERATORS =
+      PROVIDER.createGeneratorFactory(Collections.<String, Object>emptyMap());
+
+  private JsonFactories() {
+    throw new AssertionError();
+  }
+}
@@ -0,0 +1,84 @@
+package ch.unisg.ics.interactions.wot.td.io.json;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+
+/**
+ * The namespaces used by a <code>TDJsonWriter</code>: the prefixes used to compact IRIs and the
+ * <code>@context</code> that declares them. The context is built once and rebuilt only after a
+ * namespace is added.
+ *
+ * Instances are not thread-safe while namespaces are added. A <code>TDJsonSerializer</code> shares
+ * an instance across threads only once it is fully configured, writers copy it before adding the
+ * namespaces of a TD graph.
+ */
+final class JsonNamespaces {
+  /* Prefixes indexed by namespace */
+  private final Map<String, String> prefixes;
+  /* Namespaces indexed by prefix, in the order in which they were declared */
+  private final Map<String, String> context;
+  private final PrefixMatcher matcher;
+  private JsonValue contextValue;
+
+  JsonNamespaces() {
+    this.prefixes = new HashMap<String, String>();
+    this.context = new LinkedHashMap<String, String>();
+    this.matcher = new PrefixMatcher();
+  }
+
+  JsonNamespaces(Map<String, String> namespacesByPrefix) {
+    this();
+    namespacesByPrefix.forEach(this::add);
+  }
+
+  JsonNamespaces copy() {
+    return new JsonNamespaces(context);
+  }
+
+  void add(String prefix, String namespace) {
+    prefixes.put(namespace, prefix);
+    context.put(prefix, namespace);
+    matcher.add(namespace, prefix);
+    contextValue = null;
+  }
+
+  boolean containsNamespace(String namespace) {
+    return prefixes.containsKey(namespace);
+  }
+
+  String compact(String iri) {
+    return matcher.compact(iri);
+  }
+
+  /**
+   * Gets the value of the <code>@context</code> key: the TD context, followed by an object that
+   * declares the namespaces, if any.
+   */
+  JsonValue getContext() {
+    if (contextValue == null) {
+      contextValue = buildContext();
+    }
+
+    return contextValue;
+  }
+
+  private JsonValue buildContext() {
+    if (context.isEmpty()) {
+      return JsonFactories.PROVIDER.createValue(JWot.WOT_CONTEXT);
+    }
+
+    JsonObjectBuilder declarations = JsonFactories.BUILDERS.createObjectBuilder();
+    context.forEach(declarations::add);
+
+    JsonArrayBuilder value = JsonFactories.BUILDERS.createArrayBuilder()
+      .add(JWot.WOT_CONTEXT)
+      .add(declarations);
+
+    return value.build();
+  }
+}
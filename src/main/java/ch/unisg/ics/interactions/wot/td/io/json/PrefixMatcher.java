@@ -0,0 +1,61 @@
+package ch.unisg.ics.interactions.wot.td.io.json;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compacts IRIs using the longest matching namespace. Namespaces are kept in a character trie, such
+ * that an IRI is compacted in a single pass over its characters regardless of the number of
+ * namespaces.
+ */
+final class PrefixMatcher {
+  private final Node root;
+
+  PrefixMatcher() {
+    this.root = new Node();
+  }
+
+  /**
+   * Adds a namespace. If the namespace was already added, its prefix is replaced.
+   */
+  void add(String namespace, String prefix) {
+    Node node = root;
+
+    for (int i = 0; i < namespace.length(); i++) {
+      node = node.children.computeIfAbsent(namespace.charAt(i), c -> new Node());
+    }
+
+    node.prefix = prefix;
+  }
+
+  /**
+   * Compacts the given IRI using the longest matching namespace, e.g.
+   * <code>http://example.org/ns#Type</code> becomes <code>ex:Type</code>. The IRI is returned as is
+   * if no namespace matches.
+   */
+  String compact(String iri) {
+    Node node = root;
+    String prefix = root.prefix;
+    int length = 0;
+
+    for (int i = 0; i < iri.length(); i++) {
+      node = node.children.get(iri.charAt(i));
+
+      if (node == null) {
+        break;
+      }
+
+      if (node.prefix != null) {
+        prefix = node.prefix;
+        length = i + 1;
+      }
+    }
+
+    return (prefix == null) ? iri : prefix + ":" + iri.substring(length);
+  }
+
+  private static final class Node {
+    private final Map<Character, Node> children = new HashMap<Character, Node>(4);
+    private String prefix;
+  }
+}
@@ -0,0 +1,226 @@
+package ch.unisg.ics.interactions.wot.td.io.json;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+import ch.unisg.ics.interactions.wot.td.io.InvalidTDException;
+import ch.unisg.ics.interactions.wot.td.schemas.ArraySchema;
+import ch.unisg.ics.interactions.wot.td.schemas.BooleanSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.DataSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.IntegerSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.NullSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.NumberSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.ObjectSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.StringSchema;
+
+/**
+ * A reader for data schemas in the JSON representation produced by <code>SchemaJsonWriter</code>.
+ */
+public final class SchemaJsonReader {
+  private final Map<String, String> prefixes;
+
+  SchemaJsonReader(Map<String, String> prefixes) {
+    this.prefixes = prefixes;
+  }
+
+  /**
+   * Reads a data schema from its JSON representation. Schemas without a known <code>type</code>
+   * are ignored, as done when reading TDs from RDF graphs.
+   *
+   * @param schema the JSON object describing the schema
+   * @return the data schema, or an empty optional if the schema type is missing or unknown
+   */
+  public static Optional<DataSchema> readDataSchema(JsonObject schema) {
+    return new SchemaJsonReader(Collections.emptyMap()).read(schema);
+  }
+
+  Optional<DataSchema> read(JsonObject schema) {
+    if (!schema.containsKey(JWot.TYPE)) {
+      return Optional.empty();
+    }
+
+    switch (getString(schema, JWot.TYPE)) {
+      case DataSchema.OBJECT:
+        return Optional.of(readObjectSchema(schema));
+      case DataSchema.ARRAY:
+        return Optional.of(readArraySchema(schema));
+      case DataSchema.BOOLEAN:
+        return Optional.of(readDataSchemaMetadata(new BooleanSchema.Builder(), schema).build());
+      case DataSchema.INTEGER:
+        return Optional.of(readIntegerSchema(schema));
+      case DataSchema.NUMBER:
+        return Optional.of(readNumberSchema(schema));
+      case DataSchema.STRING:
+        return Optional.of(readDataSchemaMetadata(new StringSchema.Builder(), schema).build());
+      case DataSchema.NULL:
+        return Optional.of(readDataSchemaMetadata(new NullSchema.Builder(), schema).build());
+      default:
+        return Optional.empty();
+    }
+  }
+
+  private DataSchema readObjectSchema(JsonObject schema) {
+    ObjectSchema.Builder builder = readDataSchemaMetadata(new ObjectSchema.Builder(), schema);
+
+    if (schema.containsKey("properties")) {
+      for (Map.Entry<String, JsonValue> property : getObject(schema, "properties").entrySet()) {
+        Optional<DataSchema> propertySchema = read(asObject(property.getValue(), "properties"));
+        if (propertySchema.isPresent()) {
+          builder.addProperty(property.getKey(), propertySchema.get());
+        }
+      }
+    }
+
+    if (schema.containsKey("required")) {
+      for (JsonValue required : getArray(schema, "required")) {
+        builder.addRequiredProperties(asString(required, "required"));
+      }
+    }
+
+    return builder.build();
+  }
+
+  private DataSchema readArraySchema(JsonObject schema) {
+    ArraySchema.Builder builder = readDataSchemaMetadata(new ArraySchema.Builder(), schema);
+
+    if (schema.containsKey("minItems")) {
+      builder.addMinItems(getNumber(schema, "minItems").intValue());
+    }
+
+    if (schema.containsKey("maxItems")) {
+      builder.addMaxItems(getNumber(schema, "maxItems").intValue());
+    }
+
+    JsonValue items = schema.get("items");
+    if (items instanceof JsonArray) {
+      for (JsonValue item : (JsonArray) items) {
+        read(asObject(item, "items")).ifPresent(builder::addItem);
+      }
+    } else if (items != null) {
+      read(asObject(items, "items")).ifPresent(builder::addItem);
+    }
+
+    return builder.build();
+  }
+
+  private DataSchema readIntegerSchema(JsonObject schema) {
+    IntegerSchema.Builder builder = readDataSchemaMetadata(new IntegerSchema.Builder(), schema);
+
+    if (schema.containsKey("maximum")) {
+      builder.addMaximum(getNumber(schema, "maximum").intValue());
+    }
+
+    if (schema.containsKey("minimum")) {
+      builder.addMinimum(getNumber(schema, "minimum").intValue());
+    }
+
+    return builder.build();
+  }
+
+  private DataSchema readNumberSchema(JsonObject schema) {
+    NumberSchema.Builder builder = readDataSchemaMetadata(new NumberSchema.Builder(), schema);
+
+    if (schema.containsKey("maximum")) {
+      builder.addMaximum(getNumber(schema, "maximum").doubleValue());
+    }
+
+    if (schema.containsKey("minimum")) {
+      builder.addMinimum(getNumber(schema, "minimum").doubleValue());
+    }
+
+    return builder.build();
+  }
+
+  private <T extends DataSchema.Builder<?, T>> T readDataSchemaMetadata(T builder,
+      JsonObject schema) {
+    builder.addSemanticTypes(readSemanticTypes(schema));
+
+    if (schema.containsKey("enum")) {
+      Set<String> enumeration = new HashSet<String>();
+
+      for (JsonValue value : getArray(schema, "enum")) {
+        enumeration.add((value instanceof JsonString) ? ((JsonString) value).getString()
+            : value.toString());
+      }
+
+      builder.addEnum(enumeration);
+    }
+
+    return builder;
+  }
+
+  /*
+   * Reads the values of the @type key, which can be either a string or an array of strings.
+   * Compact IRIs are expanded using the prefixes declared in the TD context.
+   */
+  Set<String> readSemanticTypes(JsonObject object) {
+    return readSemanticTypes(object.get(JWot.SEMANTIC_TYPE));
+  }
+
+  Set<String> readSemanticTypes(JsonValue value) {
+    Set<String> types = new HashSet<String>();
+
+    if (value instanceof JsonArray) {
+      for (JsonValue type : (JsonArray) value) {
+        types.add(TDJsonReader.expandType(asString(type, JWot.SEMANTIC_TYPE), prefixes));
+      }
+    } else if (value != null) {
+      types.add(TDJsonReader.expandType(asString(value, JWot.SEMANTIC_TYPE), prefixes));
+    }
+
+    return types;
+  }
+
+  static String getString(JsonObject object, String key) {
+    return asString(object.get(key), key);
+  }
+
+  static String asString(JsonValue value, String key) {
+    if (!(value instanceof JsonString)) {
+      throw new InvalidTDException("Expected a string value for key: " + key);
+    }
+
+    return ((JsonString) value).getString();
+  }
+
+  static JsonObject getObject(JsonObject object, String key) {
+    return asObject(object.get(key), key);
+  }
+
+  static JsonObject asObject(JsonValue value, String key) {
+    if (!(value instanceof JsonObject)) {
+      throw new InvalidTDException("Expected an object value for key: " + key);
+    }
+
+    return (JsonObject) value;
+  }
+
+  static JsonArray getArray(JsonObject object, String key) {
+    JsonValue value = object.get(key);
+
+    if (!(value instanceof JsonArray)) {
+      throw new InvalidTDException("Expected an array value for key: " + key);
+    }
+
+    return (JsonArray) value;
+  }
+
+  private static JsonNumber getNumber(JsonObject object, String key) {
+    JsonValue value = object.get(key);
+
+    if (!(value instanceof JsonNumber)) {
+      throw new InvalidTDException("Expected a number value for key: " + key);
+    }
+
+    return (JsonNumber) value;
+  }
+}
@@ -2,12 +2,20 @@ package ch.unisg.ics.interactions.wot.td.io.json;
 
 import ch.unisg.ics.interactions.wot.td.schemas.*;
 
-import javax.json.Json;
 import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
 import javax.json.JsonObjectBuilder;
 
 public final class SchemaJsonWriter {
 
+  /*
+   * JSON representations of the schemas written so far. Schemas are looked up by identity, such
+   * that a lookup does not hash the whole schema, and held weakly. The representations do not
+   * reference the schemas.
+   */
+  private static final WeakIdentityMap<DataSchema, JsonObject> SCHEMAS =
+    new WeakIdentityMap<DataSchema, JsonObject>();
+
   private SchemaJsonWriter(){
     throw new AssertionError();
   }
@@ -18,6 +26,29 @@ public final class SchemaJsonWriter {
    * @return The JsonObjectBuilder that when built will result in a JsonObject representation of the schema.
    */
   public static JsonObjectBuilder getDataSchema(DataSchema schema) {
+    return JsonFactories.BUILDERS.createObjectBuilder(getDataSchemaObject(schema));
+  }
+
+  /**
+   * Returns the JSON representation of a schema. The representation is built the first time a
+   * schema is written and reused afterwards, also by the representations of enclosing schemas.
+   *
+   * @param schema a DataSchema object to convert.
+   * @return the immutable JsonObject representation of the schema.
+   */
+  public static JsonObject getDataSchemaObject(DataSchema schema) {
+    JsonObject schemaObj = SCHEMAS.get(schema);
+
+    // Concurrent writers may build the representation more than once, the representations are equal
+    if (schemaObj == null) {
+      schemaObj = buildDataSchema(schema).build();
+      SCHEMAS.put(schema, schemaObj);
+    }
+
+    return schemaObj;
+  }
+
+  private static JsonObjectBuilder buildDataSchema(DataSchema schema) {
     switch (schema.getDatatype()) {
       case DataSchema.OBJECT:
         return getObjectSchema((ObjectSchema) schema);
@@ -34,14 +65,14 @@ public final class SchemaJsonWriter {
       case DataSchema.NULL:
         return getSimpleSchema(schema, DataSchema.NULL);
       default:
-        return Json.createObjectBuilder();
+        return JsonFactories.BUILDERS.createObjectBuilder();
     }
   }
 
   private static JsonObjectBuilder getSimpleSchema(DataSchema schema, String schemaType) {
-    JsonObjectBuilder obj = Json.createObjectBuilder();
+    JsonObjectBuilder obj = JsonFactories.BUILDERS.createObjectBuilder();
     if(schema.getSemanticTypes().size() > 1){
-      JsonArrayBuilder typeArray = Json.createArrayBuilder();
+      JsonArrayBuilder typeArray = JsonFactories.BUILDERS.createArrayBuilder();
       schema.getSemanticTypes().forEach(typeArray::add);
       obj.add(JWot.SEMANTIC_TYPE, typeArray);
     } else if (schema.getSemanticTypes().size() > 0){
@@ -70,10 +101,10 @@ public final class SchemaJsonWriter {
     schema.getMaxItems().ifPresent(max -> schemaObj.add("maxItems", max));
 
     if(schema.getItems().size() > 1){
-      JsonArrayBuilder itemsArray = Json.createArrayBuilder();
-      schema.getItems().forEach(d -> itemsArray.add(getDataSchema(d)));
+      JsonArrayBuilder itemsArray = JsonFactories.BUILDERS.createArrayBuilder();
+      schema.getItems().forEach(d -> itemsArray.add(getDataSchemaObject(d)));
     } else if(schema.getItems().size() > 0){
-      schemaObj.add("items", getDataSchema(schema.getItems().get(0)));
+      schemaObj.add("items", getDataSchemaObject(schema.getItems().get(0)));
     }
 
     return schemaObj;
@@ -82,12 +113,12 @@ public final class SchemaJsonWriter {
   private static JsonObjectBuilder getObjectSchema(ObjectSchema schema) {
     JsonObjectBuilder schemaObj = getSimpleSchema(schema, DataSchema.OBJECT);
 
-    JsonObjectBuilder propObj = Json.createObjectBuilder();
-    schema.getProperties().forEach((k,v) -> propObj.add(k, getDataSchema(v)));
+    JsonObjectBuilder propObj = JsonFactories.BUILDERS.createObjectBuilder();
+    schema.getProperties().forEach((k,v) -> propObj.add(k, getDataSchemaObject(v)));
     schemaObj.add("properties", propObj);
 
     if(schema.getRequiredProperties().size()>0) {
-      JsonArrayBuilder requiredArray = Json.createArrayBuilder();
+      JsonArrayBuilder requiredArray = JsonFactories.BUILDERS.createArrayBuilder();
       schema.getRequiredProperties().forEach(requiredArray::add);
       schemaObj.add("required", requiredArray);
     }
@@ -0,0 +1,637 @@
+package ch.unisg.ics.interactions.wot.td.io.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonException;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+
+import org.apache.hc.client5.http.fluent.Request;
+import org.eclipse.rdf4j.common.net.ParsedIRI;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+
+import ch.unisg.ics.interactions.wot.td.ThingDescription;
+import ch.unisg.ics.interactions.wot.td.affordances.ActionAffordance;
+import ch.unisg.ics.interactions.wot.td.affordances.Form;
+import ch.unisg.ics.interactions.wot.td.affordances.InteractionAffordance;
+import ch.unisg.ics.interactions.wot.td.affordances.PropertyAffordance;
+import ch.unisg.ics.interactions.wot.td.io.InvalidTDException;
+import ch.unisg.ics.interactions.wot.td.schemas.DataSchema;
+import ch.unisg.ics.interactions.wot.td.security.APIKeySecurityScheme;
+import ch.unisg.ics.interactions.wot.td.security.APIKeySecurityScheme.TokenLocation;
+import ch.unisg.ics.interactions.wot.td.security.NoSecurityScheme;
+import ch.unisg.ics.interactions.wot.td.security.SecurityScheme;
+import ch.unisg.ics.interactions.wot.td.vocabularies.TD;
+
+/**
+ * A reader for deserializing TDs from their plain JSON representation, i.e. the representation
+ * produced by <code>TDJsonWriter</code>. Unlike reading a JSON-LD representation with
+ * <code>TDGraphReader</code>, the document is not expanded into an RDF graph: the document is read
+ * with a streaming parser and mapped directly into the TD builders. Affordances and forms are read
+ * one at a time from the parser events, such that the interaction model is never held as a tree.
+ *
+ * Members with compact IRIs as keys (using the prefixes declared in the <code>@context</code>) are
+ * kept as additional triples about the Thing, which can be retrieved with <code>getGraph</code>.
+ * Such members require the TD to have an <code>id</code>.
+ */
+public class TDJsonReader {
+  private static final String DEFAULT_CONTENT_TYPE = "application/json";
+  private static final Set<String> FORM_MEMBERS = new HashSet<String>(Arrays.asList(JWot.TARGET,
+      JWot.CONTENT_TYPE, JWot.METHOD, JWot.SUBPROTOCOL, JWot.OPERATIONS));
+  private static final Map<String, String> OPERATION_TYPES = new HashMap<String, String>();
+
+  static {
+    for (Object entry : JWot.JSON_OPERATION_TYPES.entrySet()) {
+      Map.Entry<?, ?> op = (Map.Entry<?, ?>) entry;
+      OPERATION_TYPES.put((String) op.getValue(), (String) op.getKey());
+    }
+  }
+
+  private final ValueFactory rdf = SimpleValueFactory.getInstance();
+  private final Map<String, String> prefixes;
+  private final SchemaJsonReader schemaReader;
+
+  private Optional<String> title;
+  private Optional<String> thingURI;
+  private Optional<String> baseURI;
+  private Optional<JsonValue> semanticTypes;
+  private Optional<JsonObject> securityDefinitions;
+  private Optional<JsonValue> security;
+  private Optional<List<AffordanceMembers>> properties;
+  private Optional<List<AffordanceMembers>> actions;
+  private final Map<String, JsonValue> annotations;
+
+  public static ThingDescription readFromURL(String url) throws IOException {
+    String representation = Request.get(url).execute().returnContent().asString();
+    return readFromString(representation);
+  }
+
+  /**
+   * Returns a ThingDescription object based on the path parameter that points to a file. Should the
+   * path be invalid or if the file does not exist, an IOException is thrown.
+   *
+   * @param path the location of the file that contains the thing description
+   * @return the thing description
+   * @throws IOException when the file is not read correctly
+   */
+  public static ThingDescription readFromFile(String path) throws IOException {
+    try (Reader reader = Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8)) {
+      return new TDJsonReader().read(reader);
+    } catch (InvalidTDException e) {
+      // The parser wraps errors of the underlying reader in a JsonException
+      if (e.getCause() instanceof JsonException
+          && e.getCause().getCause() instanceof IOException) {
+        throw (IOException) e.getCause().getCause();
+      }
+      throw e;
+    }
+  }
+
+  public static ThingDescription readFromString(String representation) {
+    return new TDJsonReader().read(new StringReader(representation));
+  }
+
+  TDJsonReader() {
+    this.prefixes = new HashMap<String, String>();
+    this.schemaReader = new SchemaJsonReader(prefixes);
+    this.title = Optional.empty();
+    this.thingURI = Optional.empty();
+    this.baseURI = Optional.empty();
+    this.semanticTypes = Optional.empty();
+    this.securityDefinitions = Optional.empty();
+    this.security = Optional.empty();
+    this.properties = Optional.empty();
+    this.actions = Optional.empty();
+    this.annotations = new LinkedHashMap<String, JsonValue>();
+  }
+
+  ThingDescription read(Reader reader) {
+    try (JsonParser parser = Json.createParser(reader)) {
+      if (!parser.hasNext() || parser.next() != Event.START_OBJECT) {
+        throw new InvalidTDException("A TD should be a JSON object.");
+      }
+
+      while (parser.next() == Event.KEY_NAME) {
+        String key = parser.getString();
+        Event event = parser.next();
+
+        if (key.equals(JWot.PROPERTIES)) {
+          properties = Optional.of(readAffordances(key, event, parser));
+        } else if (key.equals(JWot.ACTIONS)) {
+          actions = Optional.of(readAffordances(key, event, parser));
+        } else {
+          readMember(key, parser.getValue());
+        }
+      }
+    } catch (JsonException | IllegalStateException | NoSuchElementException e) {
+      throw new InvalidTDException("JSON Syntax Error", e);
+    }
+
+    // Affordances are built once the whole document is read: they depend on the context and
+    // the base, which can appear anywhere in the document
+    return buildThingDescription();
+  }
+
+  private void readMember(String key, JsonValue value) {
+    switch (key) {
+      case JWot.CONTEXT:
+        readContext(value);
+        break;
+      case JWot.TITLE:
+        title = Optional.of(SchemaJsonReader.asString(value, key));
+        break;
+      case "id":
+      case "@id":
+        thingURI = Optional.of(SchemaJsonReader.asString(value, key));
+        break;
+      case JWot.BASE:
+        baseURI = Optional.of(SchemaJsonReader.asString(value, key));
+        break;
+      case JWot.SEMANTIC_TYPE:
+        semanticTypes = Optional.of(value);
+        break;
+      case JWot.SECURITY_DEF:
+        securityDefinitions = Optional.of(SchemaJsonReader.asObject(value, key));
+        break;
+      case JWot.SECURITY:
+        security = Optional.of(value);
+        break;
+      default:
+        annotations.put(key, value);
+    }
+  }
+
+  /*
+   * Reads the affordances of an interaction map. The members of each affordance are materialized,
+   * except for its forms.
+   */
+  private List<AffordanceMembers> readAffordances(String key, Event event, JsonParser parser) {
+    if (event != Event.START_OBJECT) {
+      throw new InvalidTDException("Expected an object value for key: " + key);
+    }
+
+    List<AffordanceMembers> affordances = new ArrayList<AffordanceMembers>();
+
+    while (parser.next() == Event.KEY_NAME) {
+      String name = parser.getString();
+
+      if (parser.next() != Event.START_OBJECT) {
+        throw new InvalidTDException("Expected an object value for key: " + key);
+      }
+
+      JsonObjectBuilder members = Json.createObjectBuilder();
+      Optional<List<JsonObject>> forms = Optional.empty();
+
+      while (parser.next() == Event.KEY_NAME) {
+        String member = parser.getString();
+        Event value = parser.next();
+
+        if (member.equals(JWot.FORMS)) {
+          forms = Optional.of(readForms(value, parser));
+        } else {
+          members.add(member, parser.getValue());
+        }
+      }
+
+      affordances.add(new AffordanceMembers(name, members.build(), forms));
+    }
+
+    return affordances;
+  }
+
+  /*
+   * Reads the members of the forms that are mapped into the TD, other members are skipped.
+   */
+  private List<JsonObject> readForms(Event event, JsonParser parser) {
+    if (event != Event.START_ARRAY) {
+      throw new InvalidTDException("Expected an array value for key: " + JWot.FORMS);
+    }
+
+    List<JsonObject> forms = new ArrayList<JsonObject>();
+
+    while ((event = parser.next()) != Event.END_ARRAY) {
+      if (event != Event.START_OBJECT) {
+        throw new InvalidTDException("Expected an object value for key: " + JWot.FORMS);
+      }
+
+      JsonObjectBuilder form = Json.createObjectBuilder();
+
+      while (parser.next() == Event.KEY_NAME) {
+        String key = parser.getString();
+        Event value = parser.next();
+
+        if (FORM_MEMBERS.contains(key)) {
+          form.add(key, parser.getValue());
+        } else if (value == Event.START_OBJECT) {
+          parser.skipObject();
+        } else if (value == Event.START_ARRAY) {
+          parser.skipArray();
+        }
+      }
+
+      forms.add(form.build());
+    }
+
+    return forms;
+  }
+
+  /*
+   * Reads the prefixes declared in the context. Remote contexts are not retrieved.
+   */
+  private void readContext(JsonValue context) {
+    if (context instanceof JsonArray) {
+      for (JsonValue entry : (JsonArray) context) {
+        readContext(entry);
+      }
+    } else if (context instanceof JsonObject) {
+      for (Map.Entry<String, JsonValue> term : ((JsonObject) context).entrySet()) {
+        if (!term.getKey().startsWith("@") && term.getValue() instanceof JsonString) {
+          prefixes.put(term.getKey(), ((JsonString) term.getValue()).getString());
+        }
+      }
+    }
+  }
+
+  private ThingDescription buildThingDescription() {
+    if (!title.isPresent()) {
+      throw new InvalidTDException("Missing mandatory title.");
+    }
+
+    ThingDescription.Builder tdBuilder = new ThingDescription.Builder(title.get())
+        .addSecuritySchemes(readSecuritySchemes());
+
+    if (semanticTypes.isPresent()) {
+      tdBuilder.addSemanticTypes(schemaReader.readSemanticTypes(semanticTypes.get()));
+    }
+
+    if (properties.isPresent()) {
+      tdBuilder.addProperties(readProperties(properties.get()));
+    }
+
+    if (actions.isPresent()) {
+      tdBuilder.addActions(readActions(actions.get()));
+    }
+
+    thingURI.ifPresent(tdBuilder::addThingURI);
+    baseURI.ifPresent(tdBuilder::addBaseURI);
+
+    Optional<Model> graph = readGraph();
+    if (graph.isPresent()) {
+      tdBuilder.addOwnedGraph(graph.get());
+    }
+
+    return tdBuilder.build();
+  }
+
+  private List<SecurityScheme> readSecuritySchemes() {
+    List<String> names = new ArrayList<String>();
+
+    if (security.isPresent() && security.get() instanceof JsonArray) {
+      for (JsonValue name : (JsonArray) security.get()) {
+        names.add(SchemaJsonReader.asString(name, JWot.SECURITY));
+      }
+    } else if (security.isPresent()) {
+      names.add(SchemaJsonReader.asString(security.get(), JWot.SECURITY));
+    }
+
+    if (names.isEmpty() || !securityDefinitions.isPresent()) {
+      throw new InvalidTDException("Missing mandatory security definitions.");
+    }
+
+    List<SecurityScheme> schemes = new ArrayList<SecurityScheme>();
+
+    for (String name : names) {
+      if (!securityDefinitions.get().containsKey(name)) {
+        throw new InvalidTDException("Undefined security scheme: " + name);
+      }
+
+      JsonObject definition = SchemaJsonReader.getObject(securityDefinitions.get(), name);
+      readSecurityScheme(definition).ifPresent(schemes::add);
+    }
+
+    return schemes;
+  }
+
+  private Optional<SecurityScheme> readSecurityScheme(JsonObject definition) {
+    switch (SchemaJsonReader.getString(definition, "scheme")) {
+      case "nosec":
+        return Optional.of(new NoSecurityScheme());
+      case "apikey":
+        TokenLocation in = TokenLocation.QUERY;
+
+        if (definition.containsKey("in")) {
+          try {
+            in = TokenLocation.valueOf(SchemaJsonReader.getString(definition, "in")
+                .toUpperCase(Locale.ENGLISH));
+          } catch (IllegalArgumentException e) {
+            throw new InvalidTDException("Invalid token location", e);
+          }
+        }
+
+        String name = definition.containsKey("name")
+            ? SchemaJsonReader.getString(definition, "name") : null;
+
+        return Optional.of(new APIKeySecurityScheme(in, name));
+      default:
+        return Optional.empty();
+    }
+  }
+
+  private List<PropertyAffordance> readProperties(List<AffordanceMembers> affordances) {
+    List<PropertyAffordance> properties = new ArrayList<PropertyAffordance>();
+
+    for (AffordanceMembers entry : affordances) {
+      JsonObject affordance = entry.members;
+
+      try {
+        Optional<DataSchema> schema = schemaReader.read(affordance);
+
+        if (schema.isPresent()) {
+          List<Form> forms = readForms(entry.forms, InteractionAffordance.PROPERTY);
+          PropertyAffordance.Builder builder = new PropertyAffordance.Builder(schema.get(), forms);
+
+          readAffordanceMetadata(builder, entry.name, affordance);
+
+          if (affordance.getBoolean(JWot.OBSERVABLE, false)) {
+            builder.addObserve();
+          }
+
+          properties.add(builder.build());
+        }
+      } catch (InvalidTDException e) {
+        throw new InvalidTDException("Invalid property definition.", e);
+      }
+    }
+
+    return properties;
+  }
+
+  private List<ActionAffordance> readActions(List<AffordanceMembers> affordances) {
+    List<ActionAffordance> actions = new ArrayList<ActionAffordance>();
+
+    for (AffordanceMembers entry : affordances) {
+      JsonObject affordance = entry.members;
+
+      try {
+        List<Form> forms = readForms(entry.forms, InteractionAffordance.ACTION);
+        ActionAffordance.Builder builder = new ActionAffordance.Builder(forms);
+
+        readAffordanceMetadata(builder, entry.name, affordance);
+
+        if (affordance.containsKey(JWot.INPUT)) {
+          schemaReader.read(SchemaJsonReader.getObject(affordance, JWot.INPUT))
+              .ifPresent(builder::addInputSchema);
+        }
+
+        if (affordance.containsKey(JWot.OUTPUT)) {
+          schemaReader.read(SchemaJsonReader.getObject(affordance, JWot.OUTPUT))
+              .ifPresent(builder::addOutputSchema);
+        }
+
+        actions.add(builder.build());
+      } catch (InvalidTDException e) {
+        throw new InvalidTDException("Invalid action definition.", e);
+      }
+    }
+
+    return actions;
+  }
+
+  private void readAffordanceMetadata(InteractionAffordance
+      .Builder<?, ? extends InteractionAffordance.Builder<?,?>> builder, String name,
+      JsonObject affordance) {
+    builder.addName(name);
+    builder.addSemanticTypes(new ArrayList<String>(schemaReader.readSemanticTypes(affordance)));
+
+    if (affordance.containsKey(JWot.TITLE)) {
+      builder.addTitle(SchemaJsonReader.getString(affordance, JWot.TITLE));
+    }
+  }
+
+  private List<Form> readForms(Optional<List<JsonObject>> formMembers, String affordanceType) {
+    List<Form> forms = new ArrayList<Form>();
+
+    if (formMembers.isPresent()) {
+      for (JsonObject form : formMembers.get()) {
+        if (!form.containsKey(JWot.TARGET)) {
+          continue;
+        }
+
+        Form.Builder builder = new Form.Builder(resolve(SchemaJsonReader.getString(form,
+            JWot.TARGET)))
+            .setContentType(form.getString(JWot.CONTENT_TYPE, DEFAULT_CONTENT_TYPE))
+            .addOperationTypes(readOperationTypes(form));
+
+        if (form.containsKey(JWot.METHOD)) {
+          builder.setMethodName(SchemaJsonReader.getString(form, JWot.METHOD));
+        }
+
+        if (form.containsKey(JWot.SUBPROTOCOL)) {
+          builder.addSubProtocol(SchemaJsonReader.getString(form, JWot.SUBPROTOCOL));
+        }
+
+        forms.add(builder.build());
+      }
+    }
+
+    if (forms.isEmpty()) {
+      throw new InvalidTDException("[" + affordanceType + "] All interaction affordances should have "
+          + "at least one valid form.");
+    }
+
+    return forms;
+  }
+
+  private Set<String> readOperationTypes(JsonObject form) {
+    Set<String> ops = new HashSet<String>();
+    JsonValue value = form.get(JWot.OPERATIONS);
+
+    if (value instanceof JsonArray) {
+      for (JsonValue op : (JsonArray) value) {
+        ops.add(expandOperationType(SchemaJsonReader.asString(op, JWot.OPERATIONS)));
+      }
+    } else if (value != null) {
+      ops.add(expandOperationType(SchemaJsonReader.asString(value, JWot.OPERATIONS)));
+    }
+
+    return ops;
+  }
+
+  private String expandOperationType(String op) {
+    if (OPERATION_TYPES.containsKey(op)) {
+      return OPERATION_TYPES.get(op);
+    }
+
+    return expandCompactIRI(op, prefixes).orElse(op);
+  }
+
+  private String resolve(String href) {
+    if (!baseURI.isPresent()) {
+      return href;
+    }
+
+    try {
+      return ParsedIRI.create(baseURI.get()).resolve(href);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidTDException("Invalid base URI: " + baseURI.get(), e);
+    }
+  }
+
+  /*
+   * Maps the remaining members with compact or absolute IRIs as keys into triples about the Thing,
+   * as emitted by TDJsonWriter for the TD graph.
+   */
+  private Optional<Model> readGraph() {
+    Model graph = new LinkedHashModel();
+    prefixes.forEach(graph::setNamespace);
+
+    if (thingURI.isPresent()) {
+      readAnnotations(graph, rdf.createIRI(thingURI.get()), annotations);
+    } else if (annotations.keySet().stream().anyMatch(key -> expandIRI(key).isPresent())) {
+      // The annotations could only be kept about a blank node disconnected from the TD
+      throw new InvalidTDException("Annotations require the TD to have an id.");
+    }
+
+    if (graph.isEmpty() && prefixes.isEmpty()) {
+      return Optional.empty();
+    }
+
+    return Optional.of(graph);
+  }
+
+  private void readAnnotations(Model graph, Resource subject, Map<String, JsonValue> members) {
+    for (Map.Entry<String, JsonValue> member : members.entrySet()) {
+      if (member.getKey().equals(JWot.SEMANTIC_TYPE)) {
+        for (String type : schemaReader.readSemanticTypes(member.getValue())) {
+          graph.add(subject, RDF.TYPE, rdf.createIRI(type));
+        }
+        continue;
+      }
+
+      Optional<String> predicate = expandIRI(member.getKey());
+
+      if (predicate.isPresent()) {
+        readAnnotation(graph, subject, rdf.createIRI(predicate.get()), member.getValue());
+      }
+    }
+  }
+
+  private void readAnnotation(Model graph, Resource subject, IRI predicate, JsonValue value) {
+    switch (value.getValueType()) {
+      case ARRAY:
+        for (JsonValue element : (JsonArray) value) {
+          readAnnotation(graph, subject, predicate, element);
+        }
+        break;
+      case OBJECT:
+        JsonObject node = (JsonObject) value;
+        Resource nodeId = node.containsKey("@id")
+            ? rdf.createIRI(SchemaJsonReader.getString(node, "@id")) : rdf.createBNode();
+        graph.add(subject, predicate, nodeId);
+        readAnnotations(graph, nodeId, node);
+        break;
+      case STRING:
+        String string = ((JsonString) value).getString();
+        Optional<String> iri = expandIRI(string);
+        Value object = iri.isPresent() ? rdf.createIRI(iri.get()) : rdf.createLiteral(string);
+        graph.add(subject, predicate, object);
+        break;
+      case NUMBER:
+        JsonNumber number = (JsonNumber) value;
+        graph.add(subject, predicate, number.isIntegral() ? rdf.createLiteral(number.longValue())
+            : rdf.createLiteral(number.doubleValue()));
+        break;
+      case TRUE:
+      case FALSE:
+        graph.add(subject, predicate, rdf.createLiteral(value == JsonValue.TRUE));
+        break;
+      default:
+        break;
+    }
+  }
+
+  private Optional<String> expandIRI(String value) {
+    Optional<String> expanded = expandCompactIRI(value, prefixes);
+
+    if (expanded.isPresent()) {
+      return expanded;
+    }
+
+    if (value.startsWith("http://") || value.startsWith("https://") || value.startsWith("urn:")) {
+      return Optional.of(value);
+    }
+
+    return Optional.empty();
+  }
+
+  /*
+   * Expands a value of @type. Terms that are neither compact nor absolute IRIs are terms of the
+   * TD vocabulary, as the TD context declares it as the default vocabulary.
+   */
+  static String expandType(String type, Map<String, String> prefixes) {
+    Optional<String> expanded = expandCompactIRI(type, prefixes);
+
+    if (expanded.isPresent()) {
+      return expanded.get();
+    }
+
+    return type.contains(":") ? type : TD.PREFIX + type;
+  }
+
+  private static Optional<String> expandCompactIRI(String value, Map<String, String> prefixes) {
+    int separator = value.indexOf(':');
+
+    if (separator > 0 && !value.startsWith("//", separator + 1)) {
+      String namespace = prefixes.get(value.substring(0, separator));
+
+      if (namespace != null) {
+        return Optional.of(namespace + value.substring(separator + 1));
+      }
+    }
+
+    return Optional.empty();
+  }
+
+  /* The members of an affordance, read before the context and the base may be known */
+  private static final class AffordanceMembers {
+    private final String name;
+    private final JsonObject members;
+    private final Optional<List<JsonObject>> forms;
+
+    private AffordanceMembers(String name, JsonObject members, Optional<List<JsonObject>> forms) {
+      this.name = name;
+      this.members = members;
+      this.forms = forms;
+    }
+  }
+}
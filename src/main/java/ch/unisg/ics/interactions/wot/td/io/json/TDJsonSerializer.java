@@ -0,0 +1,106 @@
+package ch.unisg.ics.interactions.wot.td.io.json;
+
+import ch.unisg.ics.interactions.wot.td.ThingDescription;
+
+import javax.json.JsonObject;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A reusable counterpart of <code>TDJsonWriter</code>: the namespaces are configured once with a
+ * <code>TDJsonSerializer.Builder</code>, and the same instance can then write any number of TDs.
+ * Instances are immutable and can be shared across threads, e.g. by the threads of a server.
+ * Documents are written with JSON builder and generator factories created once, rather than
+ * looking up the JSON provider on every write.
+ */
+public final class TDJsonSerializer {
+
+  public static final TDJsonSerializer DEFAULT = new TDJsonSerializer.Builder().build();
+
+  private final Map<String, String> namespaces;
+  /* Built once, including the trie used to compact IRIs and the @context of the documents */
+  private final JsonNamespaces jsonNamespaces;
+
+  private TDJsonSerializer(Map<String, String> namespaces) {
+    this.namespaces = Collections.unmodifiableMap(new LinkedHashMap<>(namespaces));
+    this.jsonNamespaces = new JsonNamespaces(namespaces);
+    this.jsonNamespaces.getContext();
+  }
+
+  /**
+   * Gets the namespaces used to compact IRIs, indexed by prefix.
+   */
+  public Map<String, String> getNamespaces() {
+    return namespaces;
+  }
+
+  public JsonObject getJson(ThingDescription td) {
+    return createWriter(td).getJson();
+  }
+
+  public String write(ThingDescription td) {
+    return createWriter(td).write();
+  }
+
+  /**
+   * Writes a TD in a canonical form, see <code>TDJsonWriter.writeCanonical()</code>.
+   *
+   * @param td the thing description
+   * @return the canonical JSON representation of the TD
+   */
+  public String writeCanonical(ThingDescription td) {
+    return createWriter(td).writeCanonical();
+  }
+
+  /**
+   * Writes a TD as UTF-8 encoded JSON to the given output stream, see
+   * <code>TDJsonWriter.write(OutputStream)</code>.
+   *
+   * @param td the thing description
+   * @param out the output stream
+   */
+  public void write(ThingDescription td, OutputStream out) {
+    createWriter(td).write(out);
+  }
+
+  /**
+   * Writes a TD as JSON to the given writer, see <code>TDJsonWriter.write(Writer)</code>.
+   *
+   * @param td the thing description
+   * @param out the writer
+   */
+  public void write(ThingDescription td, Writer out) {
+    createWriter(td).write(out);
+  }
+
+  /*
+   * The state of a single document is held by a writer that is confined to the calling thread. The
+   * writer shares the namespaces of the serializer, unless the TD graph declares other namespaces.
+   */
+  private TDJsonWriter createWriter(ThingDescription td) {
+    return new TDJsonWriter(td, jsonNamespaces);
+  }
+
+  /**
+   * Helper class used to construct a <code>TDJsonSerializer</code>.
+   */
+  public static class Builder {
+    private final Map<String, String> namespaces;
+
+    public Builder() {
+      this.namespaces = new LinkedHashMap<>();
+    }
+
+    public Builder setNamespace(String prefix, String namespace) {
+      this.namespaces.put(prefix, namespace);
+      return this;
+    }
+
+    public TDJsonSerializer build() {
+      return new TDJsonSerializer(namespaces);
+    }
+  }
+}
@@ -12,13 +12,13 @@ import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 
 import javax.json.*;
-import java.io.ByteArrayOutputStream;
+import javax.json.stream.JsonGenerator;
 import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
-import java.util.stream.Collectors;
-
-import static java.util.Comparator.comparing;
 
 /**
  * A writer to serialize TDs in the JSON-LD 1.1 format.
@@ -26,30 +26,35 @@ import static java.util.Comparator.comparing;
 public class TDJsonWriter extends AbstractTDWriter {
 
   private JsonObjectBuilder document;
-  private final Map<String, String> prefixMap;
-  private Optional<JsonObjectBuilder> semanticContext;
+  private JsonNamespaces namespaces;
+  /* True while the namespaces are shared with a serializer, they are copied before changes */
+  private boolean namespacesShared;
 
   public TDJsonWriter(ThingDescription td) {
+    this(td, new JsonNamespaces(), false);
+  }
+
+  /* Used by TDJsonSerializer, the namespaces of the serializer are not modified */
+  TDJsonWriter(ThingDescription td, JsonNamespaces namespaces) {
+    this(td, namespaces, true);
+  }
+
+  private TDJsonWriter(ThingDescription td, JsonNamespaces namespaces, boolean namespacesShared) {
     super(td);
-    document = Json.createObjectBuilder();
-    semanticContext = Optional.empty();
-    prefixMap = new HashMap<>();
+    this.document = JsonFactories.BUILDERS.createObjectBuilder();
+    this.namespaces = namespaces;
+    this.namespacesShared = namespacesShared;
   }
 
+  /**
+   * Builds the JSON document of the TD. The document is built anew on every call.
+   *
+   * @return the JSON document
+   */
   public JsonObject getJson() {
-
-    if (td.getGraph().isPresent()) {
-      td.getGraph().get().getNamespaces().stream()
-        .filter(ns -> !prefixMap.containsKey(ns.getName()))
-        .forEach(ns -> setNamespace(ns.getPrefix(), ns.getName()));
-    }
-    if (semanticContext.isPresent()) {
-      document.add(JWot.CONTEXT, Json.createArrayBuilder()
-        .add(JWot.WOT_CONTEXT)
-        .add(semanticContext.get()));
-    } else {
-      document.add(JWot.CONTEXT, JWot.WOT_CONTEXT);
-    }
+    document = JsonFactories.BUILDERS.createObjectBuilder();
+    addGraphNamespaces();
+    document.add(JWot.CONTEXT, getContext());
 
     this.addTitle()
       .addTypes()
@@ -63,46 +68,62 @@ public class TDJsonWriter extends AbstractTDWriter {
 
   @Override
   public String write() {
-    OutputStream out = new ByteArrayOutputStream();
-    JsonWriter writer = Json.createWriter(out);
-    writer.write(this.getJson());
+    StringWriter out = new StringWriter();
+    write(out);
     return out.toString();
   }
 
+  /**
+   * Writes the TD in a canonical form, e.g. to compute content hashes. The canonical form is
+   * compact JSON with sorted keys, in which unordered sets such as semantic types and operation
+   * types are sorted, such that TDs with equal content are written identically.
+   *
+   * @return the canonical JSON representation of the TD
+   */
+  public String writeCanonical() {
+    return CanonicalJson.canonicalize(getJson()).toString();
+  }
+
+  /**
+   * Writes the TD as UTF-8 encoded JSON to the given output stream. The TD is emitted in a single
+   * forward pass: affordances and forms are written directly to the stream, only the cached
+   * representations of data schemas and the annotations from the TD graph are built in memory. The
+   * stream is flushed, but not closed.
+   *
+   * @param out the output stream
+   */
+  public void write(OutputStream out) {
+    JsonGenerator generator = JsonFactories.GENERATORS.createGenerator(out);
+    writeDocument(generator);
+    generator.flush();
+  }
+
+  /**
+   * Writes the TD as JSON to the given writer, see <code>write(OutputStream)</code>. The writer is
+   * flushed, but not closed.
+   *
+   * @param out the writer
+   */
+  public void write(Writer out) {
+    JsonGenerator generator = JsonFactories.GENERATORS.createGenerator(out);
+    writeDocument(generator);
+    generator.flush();
+  }
+
   @Override
   public TDJsonWriter setNamespace(String prefix, String namespace) {
-    this.prefixMap.put(namespace, prefix);
-    if (semanticContext.isPresent()) {
-      semanticContext.get().add(prefix, namespace);
-    } else {
-      JsonObjectBuilder semContextObj = Json.createObjectBuilder()
-        .add(prefix, namespace);
-      semanticContext = Optional.of(semContextObj);
+    if (namespacesShared) {
+      namespaces = namespaces.copy();
+      namespacesShared = false;
     }
 
+    namespaces.add(prefix, namespace);
     return this;
   }
 
   @Override
   protected TDJsonWriter addTypes() {
-    //TODO This is ugly why is the types sometimes a set and sometimes a list?
-
-    Set<String> semanticTypes = td.getSemanticTypes();
-
-    if (td.getThingURI().isPresent()) {
-      Resource thingURI = SimpleValueFactory.getInstance().createIRI(td.getThingURI().get());
-      td.getGraph().ifPresent(g -> g.getStatements(thingURI, RDF.TYPE, null)
-        .forEach(statement -> {
-          semanticTypes.add(statement.getObject().stringValue());
-        }));
-    }
-
-    if (semanticTypes.size() > 1) {
-      document.add(JWot.SEMANTIC_TYPE, this.getSemanticTypes(new ArrayList<>(semanticTypes)));
-    } else if (!semanticTypes.isEmpty()) {
-      document.add(JWot.SEMANTIC_TYPE,
-        this.getPrefixedAnnotation(semanticTypes.stream().findFirst().orElse("")));
-    }
+    getThingTypes().ifPresent(types -> document.add(JWot.SEMANTIC_TYPE, types));
     return this;
   }
 
@@ -118,12 +139,9 @@ public class TDJsonWriter extends AbstractTDWriter {
     //TODO implement: for the time being ignores security schemes and puts NoSecurityScheme
     // because I don't know ho to serialize them from the model
     //Add security def
-    document.add(JWot.SECURITY_DEF,
-      Json.createObjectBuilder().add("nosec_sc",
-        Json.createObjectBuilder().add("scheme", "nosec"))
-    );
+    document.add(JWot.SECURITY_DEF, getSecurityDefinitions());
     //Add actual security field
-    document.add(JWot.SECURITY, Json.createArrayBuilder().add("nosec_sc"));
+    document.add(JWot.SECURITY, getSecurity());
     return this;
   }
 
@@ -151,52 +169,236 @@ public class TDJsonWriter extends AbstractTDWriter {
 
   @Override
   protected TDJsonWriter addGraph() {
-    // TODO the getStatementObject can be expanded so that addGraph() calls directly :
-    // document.addAll(getStatementObject(thingURI);
+    Map<String, List<JsonValue>> values = getThingStatementValues();
+
+    if (!values.isEmpty()) {
+      // The document is built once to merge the graph with keys that were already written
+      JsonObject written = document.build();
+      document = JsonFactories.BUILDERS.createObjectBuilder(written);
+
+      values.forEach((key, keyValues) -> {
+        if (written.containsKey(key)) {
+          keyValues.add(0, written.get(key));
+        }
+        document.add(key, toJsonValue(keyValues));
+      });
+    }
+
+    return this;
+  }
+
+  /*
+   * Emits the same document as getJson. Graph values are grouped upfront, such that values for keys
+   * that are also written by other sections can be merged when the section is written.
+   */
+  private void writeDocument(JsonGenerator generator) {
+    addGraphNamespaces();
+    Map<String, List<JsonValue>> graphValues = getThingStatementValues();
+
+    generator.writeStartObject();
+
+    writeMember(generator, JWot.CONTEXT, getContext(), graphValues);
+    writeMember(generator, JWot.TITLE, JsonFactories.PROVIDER.createValue(td.getTitle()),
+      graphValues);
+    td.getThingURI().ifPresent(iri -> writeMember(generator, "id",
+      JsonFactories.PROVIDER.createValue(iri), graphValues));
+    getThingTypes().ifPresent(types -> writeMember(generator, JWot.SEMANTIC_TYPE, types,
+      graphValues));
+    writeMember(generator, JWot.SECURITY_DEF, getSecurityDefinitions(), graphValues);
+    writeMember(generator, JWot.SECURITY, getSecurity(), graphValues);
+    td.getBaseURI().ifPresent(uri -> writeMember(generator, JWot.BASE,
+      JsonFactories.PROVIDER.createValue(uri), graphValues));
+
+    writeAffordances(generator, JWot.PROPERTIES, td.getProperties(), this::getProperty,
+      this::writeProperty, graphValues);
+    writeAffordances(generator, JWot.ACTIONS, td.getActions(), this::getAction, this::writeAction,
+      graphValues);
+
+    // Graph values that were not merged with other sections
+    graphValues.forEach((key, values) -> generator.write(key, toJsonValue(values)));
+
+    generator.writeEnd();
+  }
+
+  private void writeMember(JsonGenerator generator, String key, JsonValue value,
+      Map<String, List<JsonValue>> graphValues) {
+    List<JsonValue> values = graphValues.remove(key);
+
+    if (values == null) {
+      generator.write(key, value);
+    } else {
+      values.add(0, value);
+      generator.write(key, toJsonValue(values));
+    }
+  }
+
+  /*
+   * Affordances are streamed to the generator, unless the graph has values for the same key: the
+   * affordances are then built, to be merged with the values of the graph.
+   */
+  private <T extends InteractionAffordance> void writeAffordances(JsonGenerator generator,
+      String key, List<T> affordances, Function<T, JsonObjectBuilder> mapper,
+      BiConsumer<JsonGenerator, T> writer, Map<String, List<JsonValue>> graphValues) {
+    if (affordances.isEmpty()) {
+      return;
+    }
+
+    if (graphValues.containsKey(key)) {
+      writeMember(generator, key, getAffordancesObject(affordances, mapper).build(), graphValues);
+      return;
+    }
+
+    generator.writeStartObject(key);
+    for (T affordance : affordances) {
+      writer.accept(generator, affordance);
+    }
+    generator.writeEnd();
+  }
+
+  /*
+   * Writes the members in the order of getProperty, where the semantic types of the schema replace
+   * the ones of the affordance.
+   */
+  private void writeProperty(JsonGenerator generator, PropertyAffordance prop) {
+    JsonObject schema = SchemaJsonWriter.getDataSchemaObject(prop.getDataSchema());
+    Optional<JsonValue> types = getAffordanceTypes(prop);
+
+    generator.writeStartObject(prop.getName().get());
+
+    if (types.isPresent()) {
+      generator.write(JWot.SEMANTIC_TYPE, schema.getOrDefault(JWot.SEMANTIC_TYPE, types.get()));
+    }
+
+    writeAffordanceMembers(generator, prop);
+    generator.write(JWot.OBSERVABLE, prop.isObservable());
+
+    schema.forEach((key, value) -> {
+      if (!types.isPresent() || !key.equals(JWot.SEMANTIC_TYPE)) {
+        generator.write(key, value);
+      }
+    });
+
+    generator.writeEnd();
+  }
+
+  private void writeAction(JsonGenerator generator, ActionAffordance action) {
+    generator.writeStartObject(action.getName().get());
+
+    getAffordanceTypes(action).ifPresent(types -> generator.write(JWot.SEMANTIC_TYPE, types));
+    writeAffordanceMembers(generator, action);
+
+    action.getInputSchema().ifPresent(d ->
+      generator.write(JWot.INPUT, SchemaJsonWriter.getDataSchemaObject(d))
+    );
+    action.getOutputSchema().ifPresent(d ->
+      generator.write(JWot.OUTPUT, SchemaJsonWriter.getDataSchemaObject(d))
+    );
+
+    generator.writeEnd();
+  }
+
+  /* Writes the members that follow the semantic types in getAffordance */
+  private void writeAffordanceMembers(JsonGenerator generator, InteractionAffordance affordance) {
+    affordance.getTitle().ifPresent(n -> generator.write(JWot.TITLE, n));
+
+    generator.writeStartArray(JWot.FORMS);
+    for (Form form : affordance.getForms()) {
+      generator.writeStartObject()
+        .write(JWot.TARGET, form.getTarget())
+        .write(JWot.CONTENT_TYPE, form.getContentType());
+
+      form.getSubProtocol().ifPresent(sub -> generator.write(JWot.SUBPROTOCOL, sub));
+      generator.write(JWot.OPERATIONS, getOperationTypes(form));
+      getMethodName(form).ifPresent(m -> generator.write(JWot.METHOD, m));
+
+      generator.writeEnd();
+    }
+    generator.writeEnd();
+  }
+
+  private void addGraphNamespaces() {
+    if (td.getGraph().isPresent()) {
+      td.getGraph().get().getNamespaces().stream()
+        .filter(ns -> !namespaces.containsNamespace(ns.getName()))
+        .forEach(ns -> setNamespace(ns.getPrefix(), ns.getName()));
+    }
+  }
+
+  private JsonValue getContext() {
+    return namespaces.getContext();
+  }
+
+  private Optional<JsonValue> getThingTypes() {
+    //TODO This is ugly why is the types sometimes a set and sometimes a list?
+
+    // The types of the TD are copied, such that TDs are not modified when they are written
+    Set<String> semanticTypes = new LinkedHashSet<>(td.getSemanticTypes());
+
     if (td.getThingURI().isPresent()) {
       Resource thingURI = SimpleValueFactory.getInstance().createIRI(td.getThingURI().get());
-      td.getGraph().ifPresent(g -> g.getStatements(thingURI, null, null)
+      td.getGraph().ifPresent(g -> g.getStatements(thingURI, RDF.TYPE, null)
         .forEach(statement -> {
-          if (!statement.getPredicate().equals(RDF.TYPE)) {
-            IRI predicate = statement.getPredicate();
-            Value object = statement.getObject();
-            String key = getPrefixedAnnotation(predicate.stringValue());
-            JsonValue currentValue;
-            if (!object.isBNode()) {
-              currentValue = Json.createValue(getPrefixedAnnotation(object.stringValue()));
-            }
-            else {
-              currentValue = getStatementObject((Resource) object).build();
-            }
-            //TODO Consider changing library for JsonBuilder because this is VERY ugly,
-            // it's impossible to check if keys exists without building but that erase the content of the builder itself.
-            JsonObject obj = document.build();
-            if (obj.containsKey(key)) {
-              JsonValue previousValue = obj.get(key);
-              document = Json.createObjectBuilder(obj);
-              document.add(key, Json.createArrayBuilder().add(previousValue).add(currentValue));
-            } else {
-              document = Json.createObjectBuilder(obj);
-              document.add(key, currentValue);
-            }
-          }
+          semanticTypes.add(statement.getObject().stringValue());
         }));
     }
 
-    return this;
+    if (semanticTypes.size() > 1) {
+      return Optional.of(this.getSemanticTypes(new ArrayList<>(semanticTypes)).build());
+    } else if (!semanticTypes.isEmpty()) {
+      return Optional.of(JsonFactories.PROVIDER.createValue(
+        this.getPrefixedAnnotation(semanticTypes.stream().findFirst().orElse(""))));
+    }
+
+    return Optional.empty();
+  }
+
+  private JsonObject getSecurityDefinitions() {
+    return JsonFactories.BUILDERS.createObjectBuilder().add("nosec_sc",
+        JsonFactories.BUILDERS.createObjectBuilder().add("scheme", "nosec"))
+      .build();
+  }
+
+  private JsonArray getSecurity() {
+    return JsonFactories.BUILDERS.createArrayBuilder().add("nosec_sc").build();
+  }
+
+  private Map<String, List<JsonValue>> getThingStatementValues() {
+    if (!td.getThingURI().isPresent()) {
+      return new LinkedHashMap<>();
+    }
+
+    Resource thingURI = SimpleValueFactory.getInstance().createIRI(td.getThingURI().get());
+    return getStatementValues(thingURI, true);
   }
 
   protected JsonObjectBuilder getStatementObject(Resource subject) {
-    //TODO Convert to JsonArry when sub and pred are the same.
-    JsonObjectBuilder subjectObjBuilder = Json.createObjectBuilder();
-    Iterable<Statement> statements = new ArrayList<>();
-    if(td.getGraph().isPresent()){
-      statements = td.getGraph().get().getStatements(subject, null, null);
+    JsonObjectBuilder subjectObjBuilder = JsonFactories.BUILDERS.createObjectBuilder();
+
+    getStatementValues(subject, false).forEach((key, values) ->
+      subjectObjBuilder.add(key, toJsonValue(values)));
+
+    return subjectObjBuilder;
+  }
+
+  /*
+   * Groups the objects of the statements about a subject by key, in statement order. Each key is
+   * then written once, such that the graph is emitted in linear time.
+   */
+  private Map<String, List<JsonValue>> getStatementValues(Resource subject, boolean skipTypes) {
+    Map<String, List<JsonValue>> values = new LinkedHashMap<>();
+
+    if (!td.getGraph().isPresent()) {
+      return values;
     }
-    for(Statement statement: statements)
-    {
+
+    for (Statement statement : td.getGraph().get().getStatements(subject, null, null)) {
       IRI predicate = statement.getPredicate();
       Value object = statement.getObject();
+
+      if (skipTypes && predicate.equals(RDF.TYPE)) {
+        continue;
+      }
+
       String key;
       JsonValue currentValue;
       if (!object.isBNode()) {
@@ -205,25 +407,27 @@ public class TDJsonWriter extends AbstractTDWriter {
         } else {
           key = getPrefixedAnnotation(predicate.stringValue());
         }
-        currentValue = Json.createValue(getPrefixedAnnotation(object.stringValue()));
-      }
-      else {
+        currentValue = JsonFactories.PROVIDER.createValue(
+          getPrefixedAnnotation(object.stringValue()));
+      } else {
         key = getPrefixedAnnotation(predicate.stringValue());
         currentValue = getStatementObject((Resource) object).build();
       }
-      //TODO is this necessary or on the top level is enough? I think this could be useful but not sure
-      JsonObject obj = subjectObjBuilder.build();
-      if (obj.containsKey(key)) {
-        JsonValue previousValue = obj.get(key);
-        subjectObjBuilder = Json.createObjectBuilder(obj);
-        subjectObjBuilder.add(key, Json.createArrayBuilder().add(previousValue).add(currentValue));
-      } else {
-        subjectObjBuilder = Json.createObjectBuilder(obj);
-        subjectObjBuilder.add(key, currentValue);
-      }
+
+      values.computeIfAbsent(key, k -> new ArrayList<>()).add(currentValue);
     }
 
-    return subjectObjBuilder;
+    return values;
+  }
+
+  private JsonValue toJsonValue(List<JsonValue> values) {
+    if (values.size() == 1) {
+      return values.get(0);
+    }
+
+    JsonArrayBuilder array = JsonFactories.BUILDERS.createArrayBuilder();
+    values.forEach(array::add);
+    return array.build();
   }
 
   private String getPrefixedAnnotation(String annotation) {
@@ -232,40 +436,24 @@ public class TDJsonWriter extends AbstractTDWriter {
       return annotation.replace(TD.PREFIX,"");
     }
 
-    Map<String, String> matchedPref = prefixMap.entrySet()
-      .stream()
-      .filter(map -> annotation.startsWith(map.getKey()))
-      .collect(Collectors.toMap(map -> map.getKey(), map -> map.getValue()));
-
-    if (matchedPref.isEmpty()) {
-      return annotation;
-    }
-    if (matchedPref.size() == 1) {
-      String namespace = (String) matchedPref.keySet().toArray()[0];
-      return annotation.replace(namespace, matchedPref.get(namespace) + ":");
-    } else {
-      Map.Entry<String, String> bestMatch = Collections.max(matchedPref.entrySet(),
-        comparing(Map.Entry::getKey));
-      return annotation.replace(bestMatch.getKey(), bestMatch.getValue() + ":");
-    }
+    return namespaces.compact(annotation);
   }
 
   private <T extends InteractionAffordance> JsonObjectBuilder getAffordancesObject(List<T> affordances, Function<T, JsonObjectBuilder> mapper) {
     if (!affordances.isEmpty()) {
-      JsonObjectBuilder rootObj = Json.createObjectBuilder();
+      JsonObjectBuilder rootObj = JsonFactories.BUILDERS.createObjectBuilder();
       affordances.forEach(aff ->
         rootObj.add(aff.getName().get(), mapper.apply(aff))
       );
       return rootObj;
     }
-    return Json.createObjectBuilder(); //empty
+    return JsonFactories.BUILDERS.createObjectBuilder(); //empty
   }
 
   private JsonObjectBuilder getProperty(PropertyAffordance prop) {
     JsonObjectBuilder propertyObj = getAffordance(prop)
       .add(JWot.OBSERVABLE, prop.isObservable());
-    JsonObjectBuilder dataSchema = SchemaJsonWriter.getDataSchema(prop.getDataSchema());
-    propertyObj.addAll(dataSchema);
+    SchemaJsonWriter.getDataSchemaObject(prop.getDataSchema()).forEach(propertyObj::add);
     return propertyObj;
   }
 
@@ -275,10 +463,10 @@ public class TDJsonWriter extends AbstractTDWriter {
     //TODO safe and idempotent are missing in the model
 
     action.getInputSchema().ifPresent(d ->
-      actionObj.add(JWot.INPUT, SchemaJsonWriter.getDataSchema(d))
+      actionObj.add(JWot.INPUT, SchemaJsonWriter.getDataSchemaObject(d))
     );
     action.getOutputSchema().ifPresent(d ->
-      actionObj.add(JWot.OUTPUT, SchemaJsonWriter.getDataSchema(d))
+      actionObj.add(JWot.OUTPUT, SchemaJsonWriter.getDataSchemaObject(d))
     );
 
     return actionObj;
@@ -286,22 +474,16 @@ public class TDJsonWriter extends AbstractTDWriter {
 
 
   private JsonArrayBuilder getSemanticTypes(List<String> semanticTypes) {
-    JsonArrayBuilder types = Json.createArrayBuilder();
+    JsonArrayBuilder types = JsonFactories.BUILDERS.createArrayBuilder();
     semanticTypes.forEach(t -> types.add(getPrefixedAnnotation(t)));
     return types;
   }
 
   private JsonObjectBuilder getAffordance(InteractionAffordance affordance) {
-    JsonObjectBuilder affordanceObj = Json.createObjectBuilder();
+    JsonObjectBuilder affordanceObj = JsonFactories.BUILDERS.createObjectBuilder();
 
     //add semantic type(s)
-    if (affordance.getSemanticTypes().size() > 1) {
-      affordanceObj.add(JWot.SEMANTIC_TYPE,
-        this.getSemanticTypes(new ArrayList<>(affordance.getSemanticTypes())));
-    } else if (!affordance.getSemanticTypes().isEmpty()) {
-      affordanceObj.add(JWot.SEMANTIC_TYPE,
-        this.getPrefixedAnnotation(affordance.getSemanticTypes().stream().findFirst().orElse("")));
-    }
+    getAffordanceTypes(affordance).ifPresent(types -> affordanceObj.add(JWot.SEMANTIC_TYPE, types));
 
     //add readable name
     affordance.getTitle().ifPresent(n -> affordanceObj.add(JWot.TITLE, n));
@@ -315,32 +497,50 @@ public class TDJsonWriter extends AbstractTDWriter {
   }
 
   private JsonArrayBuilder getFormsArray(List<Form> forms) {
-    JsonArrayBuilder formArray = Json.createArrayBuilder();
+    JsonArrayBuilder formArray = JsonFactories.BUILDERS.createArrayBuilder();
     forms.forEach(form -> {
-      JsonObjectBuilder formObj = Json.createObjectBuilder()
+      JsonObjectBuilder formObj = JsonFactories.BUILDERS.createObjectBuilder()
         .add(JWot.TARGET, form.getTarget())
         .add(JWot.CONTENT_TYPE, form.getContentType());
 
       form.getSubProtocol().ifPresent(sub -> formObj.add(JWot.SUBPROTOCOL, sub));
-
-      //Add operations
-      JsonArrayBuilder opArray = Json.createArrayBuilder();
-      form.getOperationTypes().forEach(op -> {
-        if (JWot.JSON_OPERATION_TYPES.containsKey(op)) {
-          opArray.add((String) JWot.JSON_OPERATION_TYPES.get(op));
-        } else {
-          opArray.add(op);
-        }
-      });
-      formObj.add(JWot.OPERATIONS, opArray);
-
-      //Add methodName only if there is one operation type to avoid ambiguity
-      form.getMethodName().ifPresent(m -> {
-        if (form.getOperationTypes().size() == 1)
-          formObj.add(JWot.METHOD, m);
-      });
+      formObj.add(JWot.OPERATIONS, getOperationTypes(form));
+      getMethodName(form).ifPresent(m -> formObj.add(JWot.METHOD, m));
       formArray.add(formObj);
     });
     return formArray;
   }
+
+  private Optional<JsonValue> getAffordanceTypes(InteractionAffordance affordance) {
+    if (affordance.getSemanticTypes().size() > 1) {
+      return Optional.of(
+        this.getSemanticTypes(new ArrayList<>(affordance.getSemanticTypes())).build());
+    } else if (!affordance.getSemanticTypes().isEmpty()) {
+      return Optional.of(JsonFactories.PROVIDER.createValue(
+        this.getPrefixedAnnotation(affordance.getSemanticTypes().stream().findFirst().orElse(""))));
+    }
+
+    return Optional.empty();
+  }
+
+  private JsonArray getOperationTypes(Form form) {
+    JsonArrayBuilder opArray = JsonFactories.BUILDERS.createArrayBuilder();
+    form.getOperationTypes().forEach(op -> {
+      if (JWot.JSON_OPERATION_TYPES.containsKey(op)) {
+        opArray.add((String) JWot.JSON_OPERATION_TYPES.get(op));
+      } else {
+        opArray.add(op);
+      }
+    });
+    return opArray.build();
+  }
+
+  /* The method name is written only if there is one operation type, to avoid ambiguity */
+  private Optional<String> getMethodName(Form form) {
+    if (form.getOperationTypes().size() == 1) {
+      return form.getMethodName();
+    }
+
+    return Optional.empty();
+  }
 }
@@ -0,0 +1,75 @@
+package ch.unisg.ics.interactions.wot.td.io.json;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A thread-safe map that compares its keys by identity and holds them weakly: an entry is dropped
+ * once its key is no longer used elsewhere. Values should not reference their keys, otherwise the
+ * keys are never dropped.
+ *
+ * Lookups do not lock the map, such that writers on several threads can share it.
+ */
+final class WeakIdentityMap<K, V> {
+  private final Map<IdentityKey<K>, V> entries;
+  private final ReferenceQueue<K> dropped;
+
+  WeakIdentityMap() {
+    this.entries = new ConcurrentHashMap<IdentityKey<K>, V>();
+    this.dropped = new ReferenceQueue<K>();
+  }
+
+  V get(K key) {
+    expunge();
+    return entries.get(new IdentityKey<K>(key, null));
+  }
+
+  void put(K key, V value) {
+    expunge();
+    entries.put(new IdentityKey<K>(key, dropped), value);
+  }
+
+  int size() {
+    expunge();
+    return entries.size();
+  }
+
+  private void expunge() {
+    Object key;
+
+    while ((key = dropped.poll()) != null) {
+      entries.remove(key);
+    }
+  }
+
+  private static final class IdentityKey<K> extends WeakReference<K> {
+    private final int hash;
+
+    IdentityKey(K key, ReferenceQueue<K> queue) {
+      super(key, queue);
+      this.hash = System.identityHashCode(key);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+
+      if (!(obj instanceof IdentityKey)) {
+        return false;
+      }
+
+      // Dropped keys are only equal to themselves
+      Object key = get();
+      return key != null && key == ((IdentityKey<?>) obj).get();
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
@@ -2,6 +2,7 @@ package ch.unisg.ics.interactions.wot.td.schemas;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
@@ -9,18 +10,22 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonPrimitive;
 
+import ch.unisg.ics.interactions.wot.td.ImmutableCollections;
+
 public class ArraySchema extends DataSchema {
   final private List<DataSchema> items;
   final private Optional<Integer> minItems;
   final private Optional<Integer> maxItems;
+  final private int hash;
   
   protected ArraySchema(Set<String> semanticTypes, Set<String> enumeration, List<DataSchema> items, 
       Optional<Integer> minItems, Optional<Integer> maxItems) {
     super(DataSchema.ARRAY, semanticTypes, enumeration);
     
-    this.items = items;
+    this.items = ImmutableCollections.copyOfList(items);
     this.minItems = minItems;
     this.maxItems = maxItems;
+    this.hash = Objects.hash(super.hashCode(), this.items, minItems, maxItems);
   }
   
   public boolean validate(List<Object> values) {
@@ -54,6 +59,26 @@ public class ArraySchema extends DataSchema {
     return getFirstItemSchema(datatype).isPresent();
   }
   
+  /**
+   * Array schemas are equal if they are equal data schemas (see <code>DataSchema.equals</code>)
+   * with equal item schemas, in the same order, and the same bounds on the number of items.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (!super.equals(obj)) {
+      return false;
+    }
+    
+    ArraySchema other = (ArraySchema) obj;
+    return items.equals(other.items) && minItems.equals(other.minItems)
+        && maxItems.equals(other.maxItems);
+  }
+  
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+  
   @Override
   public List<Object> parseJson(JsonElement element) {
     if (!element.isJsonArray()) {
@@ -1,10 +1,23 @@
 package ch.unisg.ics.interactions.wot.td.schemas;
 
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 
 import com.google.gson.JsonElement;
 
+import ch.unisg.ics.interactions.wot.td.ImmutableCollections;
+import ch.unisg.ics.interactions.wot.td.Interner;
+
+/**
+ * A data schema of a TD, e.g. the schema of a property or of the input of an action.
+ *
+ * Data schemas are compared by value: two schemas are equal if they are structurally equal (see
+ * <code>equals</code>), regardless of whether they are the same instance. Earlier versions
+ * compared schemas by identity; code that needs to tell schema instances apart, e.g. to key a map
+ * by the schemas of a TD, should use an <code>IdentityHashMap</code>. Schemas are immutable, such
+ * that their hash codes are stable.
+ */
 public abstract class DataSchema {
   public static final String OBJECT = "object";
   public static final String ARRAY = "array";
@@ -18,11 +31,14 @@ public abstract class DataSchema {
   final private String datatype;
   final private Set<String> semanticTypes;
   final private Set<String> enumeration;
+  final private int hash;
   
   protected DataSchema(String datatype, Set<String> semanticTypes, Set<String> enumeration) {
     this.datatype = datatype;
-    this.semanticTypes = semanticTypes;
-    this.enumeration = enumeration;
+    this.semanticTypes = ImmutableCollections.copyOfSet(Interner.shared().internAll(
+        semanticTypes));
+    this.enumeration = ImmutableCollections.copyOfSet(enumeration);
+    this.hash = Objects.hash(datatype, this.semanticTypes, this.enumeration);
   }
   
   public abstract Object parseJson(JsonElement element);
@@ -43,6 +59,37 @@ public abstract class DataSchema {
     return semanticTypes.contains(type);
   }
   
+  /**
+   * Data schemas are equal if they are structurally equal: they have the same class, datatype,
+   * semantic types, enumeration, and the same constraints and nested schemas. Comparing equal
+   * schemas visits all their nested schemas, but each schema computes its hash code once, when it is
+   * constructed, from the cached hash codes of its nested schemas.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    
+    // Schemas with different hash codes cannot be equal, which spares walking the nested schemas
+    if (hashCode() != obj.hashCode()) {
+      return false;
+    }
+    
+    DataSchema other = (DataSchema) obj;
+    return datatype.equals(other.datatype) && semanticTypes.equals(other.semanticTypes)
+        && enumeration.equals(other.enumeration);
+  }
+  
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+  
   public static abstract class Builder<T extends DataSchema, S extends Builder<T,S>> {
     protected Set<String> semanticTypes;
     protected Set<String> enumeration;
@@ -1,5 +1,6 @@
 package ch.unisg.ics.interactions.wot.td.schemas;
 
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
@@ -8,6 +9,7 @@ import com.google.gson.JsonElement;
 public class NumberSchema extends DataSchema {
   final protected Optional<Double> minimum;
   final protected Optional<Double> maximum;
+  final private int hash;
   
   protected NumberSchema(Set<String> semanticTypes, Set<String> enumeration, Optional<Double> minimum, 
       Optional<Double> maximum) {
@@ -19,6 +21,7 @@ public class NumberSchema extends DataSchema {
     super(numberType, semanticTypes, enumeration);
     this.minimum = minimum;
     this.maximum = maximum;
+    this.hash = Objects.hash(super.hashCode(), minimum, maximum);
   }
   
   public Optional<Double> getMinimum() {
@@ -29,6 +32,25 @@ public class NumberSchema extends DataSchema {
     return maximum;
   }
   
+  /**
+   * Number schemas are equal if they are equal data schemas (see <code>DataSchema.equals</code>)
+   * with the same minimum and maximum.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (!super.equals(obj)) {
+      return false;
+    }
+    
+    NumberSchema other = (NumberSchema) obj;
+    return minimum.equals(other.minimum) && maximum.equals(other.maximum);
+  }
+  
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+  
   @Override
   public Object parseJson(JsonElement element) {
     if (element == null || !element.isJsonPrimitive()) {
@@ -5,6 +5,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -12,19 +13,22 @@ import java.util.stream.Collectors;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
+import ch.unisg.ics.interactions.wot.td.ImmutableCollections;
 import ch.unisg.ics.interactions.wot.td.io.InvalidTDException;
 import ch.unisg.ics.interactions.wot.td.vocabularies.JSONSchema;
 
 public class ObjectSchema extends DataSchema {
   final private Map<String, DataSchema> properties;
   final private List<String> required;
+  final private int hash;
 
   protected ObjectSchema(Set<String> semanticTypes, Set<String> enumeration,
       Map<String, DataSchema> properties, List<String> required) {
     super(DataSchema.OBJECT, semanticTypes, enumeration);
 
-    this.properties = properties;
-    this.required = required;
+    this.properties = ImmutableCollections.copyOfMap(properties);
+    this.required = ImmutableCollections.copyOfList(required);
+    this.hash = Objects.hash(super.hashCode(), this.properties, this.required);
   }
 
   public boolean validate(Map<String, Object> values) {
@@ -32,6 +36,25 @@ public class ObjectSchema extends DataSchema {
     return true;
   }
 
+  /**
+   * Object schemas are equal if they are equal data schemas (see <code>DataSchema.equals</code>)
+   * with equal property schemas and the same required properties.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (!super.equals(obj)) {
+      return false;
+    }
+
+    ObjectSchema other = (ObjectSchema) obj;
+    return properties.equals(other.properties) && required.equals(other.required);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
   @Override
   public Object parseJson(JsonElement element) {
     if (!element.isJsonObject()) {
@@ -0,0 +1,62 @@
+package ch.unisg.ics.interactions.wot.td.schemas;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A cache that maps structurally equal data schemas to a single shared instance (see
+ * <code>DataSchema.equals</code>). A cache can be used for a single reader session, or the cache
+ * returned by <code>SchemaCache.shared()</code> can be used across the JVM.
+ *
+ * Schemas are held weakly: a cached schema is dropped once it is no longer used by any TD. Shared
+ * schemas should not be modified, as changes would be visible to all the TDs that use them.
+ */
+public final class SchemaCache {
+  private static final SchemaCache SHARED = new SchemaCache();
+
+  private final Map<DataSchema, WeakReference<DataSchema>> schemas;
+
+  public SchemaCache() {
+    this.schemas = new WeakHashMap<DataSchema, WeakReference<DataSchema>>();
+  }
+
+  /**
+   * Gets the cache shared across the JVM.
+   *
+   * @return the shared <code>SchemaCache</code>
+   */
+  public static SchemaCache shared() {
+    return SHARED;
+  }
+
+  /**
+   * Gets the cached schema that is structurally equal to the given schema. If there is no such
+   * schema, the given schema is cached and returned. Nested schemas should be canonicalized first,
+   * such that equal schemas also share their nested schemas.
+   *
+   * @param schema the schema to be canonicalized
+   * @return the canonical instance of the schema
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized <T extends DataSchema> T canonicalize(T schema) {
+    WeakReference<DataSchema> cached = schemas.get(schema);
+    DataSchema canonical = (cached == null) ? null : cached.get();
+
+    if (canonical == null) {
+      schemas.put(schema, new WeakReference<DataSchema>(schema));
+      return schema;
+    }
+
+    // Equal schemas have the same class
+    return (T) canonical;
+  }
+
+  public synchronized int size() {
+    return schemas.size();
+  }
+
+  public synchronized void clear() {
+    schemas.clear();
+  }
+}
@@ -0,0 +1,107 @@
+package ch.unisg.ics.interactions.wot.td;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class ImmutableCollectionsTest {
+
+  @Test
+  public void testCopyOfList() {
+    List<String> source = new ArrayList<String>(Arrays.asList("a", "b", "c"));
+    List<String> copy = ImmutableCollections.copyOfList(source);
+
+    source.add("d");
+
+    assertEquals(Arrays.asList("a", "b", "c"), copy);
+    assertSame(copy, ImmutableCollections.copyOfList(copy));
+  }
+
+  @Test
+  public void testCopyOfSetKeepsOrder() {
+    Set<String> source = new LinkedHashSet<String>(Arrays.asList("c", "a", "b"));
+    Set<String> copy = ImmutableCollections.copyOfSet(source);
+
+    assertEquals(source, copy);
+    assertEquals(Arrays.asList("c", "a", "b"), new ArrayList<String>(copy));
+    assertEquals(source.hashCode(), copy.hashCode());
+    assertTrue(copy.contains("a"));
+    assertFalse(copy.contains("d"));
+  }
+
+  @Test
+  public void testCopyOfSetRemovesDuplicates() {
+    Set<String> copy = ImmutableCollections.copyOfSet(Arrays.asList("a", "b", "a"));
+    assertEquals(new HashSet<String>(Arrays.asList("a", "b")), copy);
+  }
+
+  @Test
+  public void testCopyOfLargeSet() {
+    Set<Integer> source = new HashSet<Integer>();
+    for (int i = 0; i < 100; i++) {
+      source.add(i);
+    }
+
+    Set<Integer> copy = ImmutableCollections.copyOfSet(source);
+
+    assertEquals(source, copy);
+    assertTrue(copy.contains(42));
+    assertSame(copy, ImmutableCollections.copyOfSet(copy));
+  }
+
+  @Test
+  public void testCopyOfMap() {
+    Map<String, Integer> source = new LinkedHashMap<String, Integer>();
+    source.put("b", 2);
+    source.put("a", 1);
+
+    Map<String, Integer> copy = ImmutableCollections.copyOfMap(source);
+    source.put("c", 3);
+
+    assertEquals(2, copy.size());
+    assertEquals(Integer.valueOf(1), copy.get("a"));
+    assertFalse(copy.containsKey("c"));
+    assertEquals(Arrays.asList("b", "a"), new ArrayList<String>(copy.keySet()));
+  }
+
+  @Test
+  public void testCopyOfLargeMap() {
+    Map<Integer, Integer> source = new HashMap<Integer, Integer>();
+    for (int i = 0; i < 100; i++) {
+      source.put(i, i * i);
+    }
+
+    Map<Integer, Integer> copy = ImmutableCollections.copyOfMap(source);
+
+    assertEquals(source, copy);
+    assertEquals(Integer.valueOf(49), copy.get(7));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testListIsUnmodifiable() {
+    ImmutableCollections.copyOfList(Arrays.asList("a")).set(0, "b");
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testSetIsUnmodifiable() {
+    ImmutableCollections.copyOfSet(Arrays.asList("a", "b")).iterator().remove();
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testMapIsUnmodifiable() {
+    ImmutableCollections.copyOfMap(new HashMap<String, String>()).put("a", "b");
+  }
+}
@@ -0,0 +1,101 @@
+package ch.unisg.ics.interactions.wot.td;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import ch.unisg.ics.interactions.wot.td.affordances.Form;
+import ch.unisg.ics.interactions.wot.td.affordances.PropertyAffordance;
+import ch.unisg.ics.interactions.wot.td.schemas.BooleanSchema;
+import ch.unisg.ics.interactions.wot.td.vocabularies.TD;
+
+public class InternerTest {
+  private static final String IOT_LIGHT = "http://iot-schema.org/eve#Light";
+
+  @After
+  public void restoreSharedInterner() {
+    Interner.setShared(new Interner());
+  }
+
+  @Test
+  public void testIntern() {
+    Interner interner = new Interner();
+
+    String first = interner.intern(copy(IOT_LIGHT));
+    String second = interner.intern(copy(IOT_LIGHT));
+
+    assertEquals(IOT_LIGHT, second);
+    assertSame(first, second);
+  }
+
+  @Test
+  public void testInternLibraryConstants() {
+    Interner interner = new Interner();
+
+    assertSame(TD.readProperty, interner.intern(copy(TD.readProperty)));
+    assertSame(TD.invokeAction, interner.intern(copy(TD.invokeAction)));
+    assertSame("application/json", interner.intern(copy("application/json")));
+  }
+
+  @Test
+  public void testInternAll() {
+    Interner interner = new Interner();
+    List<String> interned = interner.internAll(Arrays.asList(copy(TD.writeProperty), IOT_LIGHT));
+
+    assertEquals(Arrays.asList(TD.writeProperty, IOT_LIGHT), interned);
+    assertSame(TD.writeProperty, interned.get(0));
+  }
+
+  @Test
+  public void testNone() {
+    String value = copy(TD.readProperty);
+    assertSame(value, Interner.none().intern(value));
+  }
+
+  @Test
+  public void testModelValuesAreInterned() {
+    PropertyAffordance first = createProperty();
+    PropertyAffordance second = createProperty();
+
+    Form firstForm = first.getForms().get(0);
+    Form secondForm = second.getForms().get(0);
+
+    assertSame(firstForm.getContentType(), secondForm.getContentType());
+    assertSame(TD.readProperty, firstForm.getOperationTypes().iterator().next());
+    assertSame(first.getSemanticTypes().iterator().next(),
+        second.getSemanticTypes().iterator().next());
+  }
+
+  @Test
+  public void testSharedInternerIsConfigurable() {
+    Interner.setShared(Interner.none());
+
+    PropertyAffordance first = createProperty();
+    PropertyAffordance second = createProperty();
+
+    assertNotSame(first.getSemanticTypes().iterator().next(),
+        second.getSemanticTypes().iterator().next());
+  }
+
+  /* Builds a property from strings that are equal across calls, but not the same instances */
+  private PropertyAffordance createProperty() {
+    Form form = new Form.Builder("http://example.org/status")
+        .setContentType(copy("application/json"))
+        .addOperationType(copy(TD.readProperty))
+        .build();
+
+    return new PropertyAffordance.Builder(new BooleanSchema.Builder().build(), form)
+        .addSemanticType(copy(IOT_LIGHT))
+        .build();
+  }
+
+  private static String copy(String value) {
+    return new String(value.toCharArray());
+  }
+}
@@ -1,12 +1,28 @@
 package ch.unisg.ics.interactions.wot.td;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Optional;
 
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.junit.Test;
 
+import ch.unisg.ics.interactions.wot.td.affordances.ActionAffordance;
+import ch.unisg.ics.interactions.wot.td.affordances.Form;
+import ch.unisg.ics.interactions.wot.td.affordances.PropertyAffordance;
+import ch.unisg.ics.interactions.wot.td.io.SampleTDs;
+import ch.unisg.ics.interactions.wot.td.io.graph.TDContentHash;
+import ch.unisg.ics.interactions.wot.td.schemas.BooleanSchema;
 import ch.unisg.ics.interactions.wot.td.security.APIKeySecurityScheme;
 import ch.unisg.ics.interactions.wot.td.security.NoSecurityScheme;
 import ch.unisg.ics.interactions.wot.td.security.SecurityScheme;
@@ -14,6 +30,8 @@ import ch.unisg.ics.interactions.wot.td.vocabularies.TD;
 import ch.unisg.ics.interactions.wot.td.vocabularies.WoTSec;
 
 public class ThingDescriptionTest {
+  private static final String EVE_ARTIFACT = "http://w3id.org/eve#Artifact";
+  private static final String IOT_LIGHT = "http://iot-schema.org/eve#Light";
   
   @Test
   public void testTitle() {
@@ -75,4 +93,132 @@ public class ThingDescriptionTest {
     assertTrue(scheme.isPresent());
     assertEquals(WoTSec.APIKeySecurityScheme, scheme.get().getSchemeType());
   }
+  
+  @Test
+  public void testIndexedAffordanceLookups() {
+    PropertyAffordance status = new PropertyAffordance.Builder(new BooleanSchema.Builder().build(),
+        new Form.Builder("http://example.org/status").addOperationType(TD.readProperty).build())
+        .addName("status")
+        .addSemanticType("http://w3id.org/eve#Status")
+        .build();
+    PropertyAffordance brightness = new PropertyAffordance.Builder(
+        new BooleanSchema.Builder().build(),
+        new Form.Builder("http://example.org/brightness").build())
+        .addName("brightness")
+        .addSemanticType("http://w3id.org/eve#Status")
+        .build();
+    ActionAffordance toggle = new ActionAffordance.Builder(
+        new Form.Builder("http://example.org/toggle").build())
+        .addName("toggle")
+        .addSemanticType("http://w3id.org/eve#Toggle")
+        .build();
+    
+    ThingDescription td = new ThingDescription.Builder("My Lamp")
+        .addProperty(status)
+        .addProperty(brightness)
+        .addAction(toggle)
+        .build();
+    
+    assertSame(brightness, td.getPropertyByName("brightness").get());
+    assertFalse(td.getPropertyByName("color").isPresent());
+    assertSame(status, td.getFirstPropertyBySemanticType("http://w3id.org/eve#Status").get());
+    assertEquals(Arrays.asList(status, brightness),
+        td.getPropertiesByOperationType(TD.readProperty));
+    assertEquals(Collections.singletonList(brightness),
+        td.getPropertiesByOperationType(TD.writeProperty));
+    assertTrue(td.getPropertiesByOperationType(TD.invokeAction).isEmpty());
+    
+    assertSame(toggle, td.getActionByName("toggle").get());
+    assertSame(toggle, td.getFirstActionBySemanticType("http://w3id.org/eve#Toggle").get());
+    assertEquals(Collections.singletonList(toggle), td.getActionsByOperationType(TD.invokeAction));
+    assertEquals(Collections.singleton("http://w3id.org/eve#Toggle"), td.getSupportedActionTypes());
+    
+    // Results are precomputed
+    assertSame(td.getPropertiesByOperationType(TD.readProperty),
+        td.getPropertiesByOperationType(TD.readProperty));
+  }
+  
+  @Test(expected = UnsupportedOperationException.class)
+  public void testIndexedResultsAreUnmodifiable() {
+    ThingDescription td = SampleTDs.createLamp(EVE_ARTIFACT, IOT_LIGHT);
+    td.getPropertiesByOperationType(TD.readProperty).clear();
+  }
+  
+  @Test
+  public void testBuiltCollectionsAreNotShared() {
+    ThingDescription.Builder builder = new ThingDescription.Builder("My Thing")
+        .addSemanticType(EVE_ARTIFACT);
+    ThingDescription td = builder.build();
+
+    builder.addSemanticType(IOT_LIGHT)
+        .addSecurityScheme(new APIKeySecurityScheme())
+        .addAction(new ActionAffordance.Builder(new Form.Builder("http://example.org/toggle")
+            .build()).build());
+
+    assertEquals(Collections.singleton(EVE_ARTIFACT), td.getSemanticTypes());
+    assertEquals(1, td.getSecuritySchemes().size());
+    assertTrue(td.getActions().isEmpty());
+  }
+
+  @Test
+  public void testBuiltGraphIsNotShared() {
+    ValueFactory rdf = SimpleValueFactory.getInstance();
+    IRI thing = rdf.createIRI("http://example.org/#thing");
+    IRI hasPart = rdf.createIRI("http://w3id.org/eve#hasPart");
+
+    Model graph = new LinkedHashModel();
+    graph.add(thing, hasPart, rdf.createIRI("http://example.org/#part1"));
+
+    ThingDescription.Builder builder = new ThingDescription.Builder("My Thing")
+        .addThingURI(thing.stringValue())
+        .addGraph(graph);
+    ThingDescription td = builder.build();
+    String hash = TDContentHash.of(td);
+
+    builder.addTriple(thing, hasPart, rdf.createIRI("http://example.org/#part2"));
+    graph.add(thing, hasPart, rdf.createIRI("http://example.org/#part3"));
+
+    assertEquals(1, td.getGraph().get().size());
+    assertEquals(hash, TDContentHash.of(td));
+    assertEquals(2, builder.build().getGraph().get().size());
+  }
+
+  @Test
+  public void testOwnedGraphIsNotCopied() {
+    ValueFactory rdf = SimpleValueFactory.getInstance();
+    IRI thing = rdf.createIRI("http://example.org/#thing");
+    IRI hasPart = rdf.createIRI("http://w3id.org/eve#hasPart");
+
+    Model graph = new LinkedHashModel();
+    graph.add(thing, hasPart, rdf.createIRI("http://example.org/#part1"));
+
+    ThingDescription.Builder builder = new ThingDescription.Builder("My Thing")
+        .addThingURI(thing.stringValue())
+        .addOwnedGraph(graph);
+    ThingDescription td = builder.build();
+
+    // The TD wraps the handed over graph, the builder copies it before it is changed
+    graph.add(thing, hasPart, rdf.createIRI("http://example.org/#part2"));
+    builder.addTriple(thing, hasPart, rdf.createIRI("http://example.org/#part3"));
+
+    assertEquals(2, td.getGraph().get().size());
+    assertEquals(3, builder.build().getGraph().get().size());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testGraphIsUnmodifiable() {
+    ValueFactory rdf = SimpleValueFactory.getInstance();
+    ThingDescription td = new ThingDescription.Builder("My Thing")
+        .addTriple(rdf.createIRI("http://example.org/#thing"), RDF.TYPE, rdf.createIRI(TD.Thing))
+        .build();
+
+    td.getGraph().get().add(rdf.createIRI("http://example.org/#thing"), RDF.TYPE,
+        rdf.createIRI(IOT_LIGHT));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testSemanticTypesAreUnmodifiable() {
+    ThingDescription td = SampleTDs.createLamp(EVE_ARTIFACT, IOT_LIGHT);
+    td.getSemanticTypes().add(TD.Thing);
+  }
 }
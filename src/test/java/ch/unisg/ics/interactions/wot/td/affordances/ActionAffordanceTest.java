@@ -1,6 +1,7 @@
 package ch.unisg.ics.interactions.wot.td.affordances;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -27,7 +28,25 @@ public class ActionAffordanceTest {
   public void testOneForm() {
     List<Form> forms = testAction.getForms();
     assertEquals(1, forms.size());
-    assertEquals(form, forms.get(0));
+    assertEquals(new Form.Builder("http://example.org/action")
+        .addOperationType(TD.invokeAction)
+        .setMethodName("POST")
+        .build(), forms.get(0));
+  }
+
+  @Test
+  public void testDefaultValuesDoNotModifyForm() {
+    assertTrue(form.getOperationTypes().isEmpty());
+    assertFalse(form.getMethodName().isPresent());
+
+    Form actionForm = testAction.getForms().get(0);
+    assertTrue(actionForm.hasOperationType(TD.invokeAction));
+    assertEquals("POST", actionForm.getMethodName().get());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testFormsAreImmutable() {
+    testAction.getForms().add(form);
   }
 
   @Test
@@ -35,16 +54,19 @@ public class ActionAffordanceTest {
     Form form1 = new Form.Builder("http://example.org")
         .setMethodName("GET")
         .setContentType("application/json")
+        .addOperationType(TD.invokeAction)
         .build();
 
     Form form2 = new Form.Builder("http://example.org")
         .setMethodName("POST")
         .setContentType("application/json")
+        .addOperationType(TD.invokeAction)
         .build();
 
     Form form3 = new Form.Builder("http://example.org")
         .setMethodName("PUT")
         .setContentType("application/json")
+        .addOperationType(TD.invokeAction)
         .build();
 
     List<Form> formList = new ArrayList<Form>(Arrays.asList(form1, form2, form3));
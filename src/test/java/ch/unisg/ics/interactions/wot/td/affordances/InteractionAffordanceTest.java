@@ -1,6 +1,8 @@
 package ch.unisg.ics.interactions.wot.td.affordances;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
@@ -88,4 +90,29 @@ public class InteractionAffordanceTest {
     assertFalse(test_affordance.getFirstFormForOperationType(TD.invokeAction)
         .isPresent());
   }
+
+  @Test
+  public void testGetFormsForOperationType() {
+    Form form1 = new Form.Builder("http://example.org/action1")
+        .addOperationType(TD.invokeAction)
+        .build();
+
+    Form form2 = new Form.Builder("http://example.org/action2")
+        .addOperationType(TD.invokeAction)
+        .addOperationType(TD.readProperty)
+        .build();
+
+    InteractionAffordance affordance = new InteractionAffordance(Optional.of("my_affordance"),
+        Optional.empty(), new HashSet<>(), Arrays.asList(form1, form2));
+
+    assertEquals(Arrays.asList(form1, form2),
+        affordance.getFormsForOperationType(TD.invokeAction));
+    assertSame(form1, affordance.getFirstFormForOperationType(TD.invokeAction).get());
+    assertSame(form2, affordance.getFirstFormForOperationType(TD.readProperty).get());
+    assertTrue(affordance.getFormsForOperationType(TD.writeProperty).isEmpty());
+
+    // Form selection returns precomputed results
+    assertSame(affordance.getFirstFormForOperationType(TD.invokeAction),
+        affordance.getFirstFormForOperationType(TD.invokeAction));
+  }
 }
@@ -0,0 +1,87 @@
+package ch.unisg.ics.interactions.wot.td.affordances;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.unisg.ics.interactions.wot.td.schemas.NumberSchema;
+
+public class LazyAffordanceListTest {
+
+  private List<Integer> loaded;
+  private LazyAffordanceList<PropertyAffordance> properties;
+
+  @Before
+  public void init() {
+    loaded = new ArrayList<Integer>();
+
+    List<Optional<String>> names = Arrays.asList(Optional.of("temperature"), Optional.empty(),
+        Optional.of("humidity"));
+
+    properties = new LazyAffordanceList<PropertyAffordance>(names, i -> {
+      loaded.add(i);
+
+      PropertyAffordance.Builder builder = new PropertyAffordance.Builder(
+          new NumberSchema.Builder().build(), new Form.Builder("http://example.org/" + i).build());
+      names.get(i).ifPresent(builder::addName);
+
+      return builder.build();
+    });
+  }
+
+  @Test
+  public void testGetByNameBuildsOnlyMatchingAffordance() {
+    assertEquals(3, properties.size());
+    assertEquals(0, loaded.size());
+
+    PropertyAffordance humidity = properties.getByName("humidity").get();
+    assertEquals("humidity", humidity.getName().get());
+    assertEquals(Arrays.asList(2), loaded);
+
+    assertFalse(properties.getByName("pressure").isPresent());
+    assertEquals(Arrays.asList(2), loaded);
+  }
+
+  @Test
+  public void testAffordancesAreBuiltOnce() {
+    PropertyAffordance first = properties.get(0);
+
+    assertSame(first, properties.get(0));
+    assertSame(first, properties.getByName("temperature").get());
+    assertEquals(Arrays.asList(0), loaded);
+  }
+
+  @Test
+  public void testIterate() {
+    List<String> targets = new ArrayList<String>();
+
+    for (PropertyAffordance property : properties) {
+      targets.add(property.getForms().get(0).getTarget());
+    }
+
+    assertEquals(Arrays.asList("http://example.org/0", "http://example.org/1",
+        "http://example.org/2"), targets);
+    assertEquals(Arrays.asList(0, 1, 2), loaded);
+  }
+
+  @Test
+  public void testLoaderIsReleasedOnceAllAffordancesAreBuilt() {
+    properties.get(2);
+    properties.get(0);
+    assertTrue(properties.holdsLoader());
+
+    properties.get(1);
+    assertFalse(properties.holdsLoader());
+    assertEquals("http://example.org/1", properties.get(1).getForms().get(0).getTarget());
+    assertEquals(Arrays.asList(2, 0, 1), loaded);
+  }
+}
@@ -0,0 +1,72 @@
+package ch.unisg.ics.interactions.wot.td.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import ch.unisg.ics.interactions.wot.td.ThingDescription;
+import ch.unisg.ics.interactions.wot.td.ThingDescription.TDFormat;
+import ch.unisg.ics.interactions.wot.td.affordances.Form;
+import ch.unisg.ics.interactions.wot.td.affordances.PropertyAffordance;
+import ch.unisg.ics.interactions.wot.td.io.graph.ReaderOptions;
+import ch.unisg.ics.interactions.wot.td.io.graph.ReaderOptions.GraphRetention;
+import ch.unisg.ics.interactions.wot.td.io.graph.TDGraphReader;
+import ch.unisg.ics.interactions.wot.td.schemas.BooleanSchema;
+
+/**
+ * Reads the sample TDs in <code>samples/</code>, and builds a small lamp TD, for the tests that
+ * need a TD but do not test how it is constructed.
+ */
+public final class SampleTDs {
+  public static final String SIMPLE_TD = "samples/simple_td.ttl";
+  public static final String FORKLIFT_ROBOT = "samples/forkliftRobot.ttl";
+  /* A TD with metadata that is not mapped onto the object model, e.g. a second title */
+  public static final String EXTRAS_TD = "samples/extras_td.ttl";
+
+  private SampleTDs() { }
+
+  public static ThingDescription read(String path, GraphRetention retention) {
+    return parse(readString(path), retention);
+  }
+
+  /**
+   * Reads a sample TD with its title replaced, e.g. to get TDs that differ only by title.
+   */
+  public static ThingDescription read(String path, String title, GraphRetention retention) {
+    String turtle = readString(path);
+    String sampleTitle = parse(turtle, GraphRetention.NONE).getTitle();
+
+    return parse(turtle.replace("\"" + sampleTitle + "\"", "\"" + title + "\""), retention);
+  }
+
+  /**
+   * Builds a lamp with a status property, e.g. to compare TDs that differ only by the order of
+   * their semantic types.
+   */
+  public static ThingDescription createLamp(String firstType, String secondType) {
+    return new ThingDescription.Builder("My Lamp")
+        .addThingURI("http://example.org/#lamp")
+        .addSemanticType(firstType)
+        .addSemanticType(secondType)
+        .addProperty(new PropertyAffordance.Builder(new BooleanSchema.Builder().build(),
+            new Form.Builder("http://example.org/status").build())
+            .addName("status")
+            .build())
+        .build();
+  }
+
+  private static String readString(String path) {
+    try {
+      return new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static ThingDescription parse(String turtle, GraphRetention retention) {
+    return TDGraphReader.readFromString(TDFormat.RDF_TURTLE, turtle,
+        new ReaderOptions.Builder().setGraphRetention(retention).build());
+  }
+}
@@ -0,0 +1,126 @@
+package ch.unisg.ics.interactions.wot.td.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.junit.Test;
+
+import ch.unisg.ics.interactions.wot.td.ThingDescription;
+import ch.unisg.ics.interactions.wot.td.io.graph.ReaderOptions.GraphRetention;
+
+public class SerializationCacheTest {
+
+  @Test
+  public void testCacheSerialization() throws IOException {
+    SerializationCache cache = new SerializationCache(1024 * 1024);
+    ThingDescription td = SampleTDs.read(SampleTDs.SIMPLE_TD, GraphRetention.NONE);
+
+    SerializedTD json = cache.get(td, RDFFormat.JSONLD);
+    assertSame(json, cache.get(td, RDFFormat.JSONLD));
+    assertEquals(TDWriter.write(td, RDFFormat.JSONLD), json.getString());
+
+    SerializedTD turtle = cache.get(td, RDFFormat.TURTLE);
+    assertNotEquals(json.getETag(), turtle.getETag());
+    assertEquals(json.size() + turtle.size(), cache.size());
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    json.writeTo(out);
+    assertArrayEquals(json.getBytes(), out.toByteArray());
+  }
+
+  @Test
+  public void testStrongETag() {
+    SerializationCache cache = new SerializationCache(1024 * 1024);
+
+    SerializedTD first = cache.get(SampleTDs.read(SampleTDs.SIMPLE_TD, GraphRetention.NONE),
+        RDFFormat.JSONLD);
+    SerializedTD second = cache.get(SampleTDs.read(SampleTDs.SIMPLE_TD, GraphRetention.NONE),
+        RDFFormat.JSONLD);
+    SerializedTD other = cache.get(
+        SampleTDs.read(SampleTDs.SIMPLE_TD, "My Other Thing", GraphRetention.NONE),
+        RDFFormat.JSONLD);
+
+    // Equal serializations have the same entity tag
+    assertNotSame(first, second);
+    assertEquals(first.getETag(), second.getETag());
+    assertNotEquals(first.getETag(), other.getETag());
+    assertTrue(first.getETag().startsWith("\"") && first.getETag().endsWith("\""));
+  }
+
+  @Test
+  public void testInvalidate() {
+    SerializationCache cache = new SerializationCache(1024 * 1024);
+    ThingDescription td = SampleTDs.read(SampleTDs.SIMPLE_TD, GraphRetention.NONE);
+
+    SerializedTD json = cache.get(td, RDFFormat.JSONLD);
+    cache.get(td, RDFFormat.TURTLE);
+
+    cache.invalidate(td);
+
+    assertEquals(0, cache.size());
+    assertNotSame(json, cache.get(td, RDFFormat.JSONLD));
+  }
+
+  @Test
+  public void testEvictLeastRecentlyUsed() {
+    ThingDescription first = SampleTDs.read(SampleTDs.SIMPLE_TD, GraphRetention.NONE);
+    ThingDescription second = SampleTDs.read(SampleTDs.SIMPLE_TD, "My Other Thing",
+        GraphRetention.NONE);
+
+    int firstSize = new SerializationCache(1024).get(first, RDFFormat.JSONLD).size();
+    int secondSize = new SerializationCache(1024).get(second, RDFFormat.JSONLD).size();
+
+    // The cache can hold one of the two serializations at most
+    SerializationCache cache = new SerializationCache(Math.max(firstSize, secondSize));
+
+    SerializedTD cached = cache.get(first, RDFFormat.JSONLD);
+    cache.get(second, RDFFormat.JSONLD);
+
+    assertEquals(secondSize, cache.size());
+    assertNotSame(cached, cache.get(first, RDFFormat.JSONLD));
+  }
+
+  @Test
+  public void testConcurrentMissesShareSerialization() throws Exception {
+    SerializationCache cache = new SerializationCache(1024 * 1024);
+    ThingDescription td = SampleTDs.read(SampleTDs.SIMPLE_TD, GraphRetention.NONE);
+
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+
+    try {
+      List<Future<SerializedTD>> results = new ArrayList<Future<SerializedTD>>();
+      for (int i = 0; i < threads; i++) {
+        results.add(executor.submit(() -> {
+          start.await();
+          return cache.get(td, RDFFormat.JSONLD);
+        }));
+      }
+
+      start.countDown();
+
+      SerializedTD first = results.get(0).get();
+      for (Future<SerializedTD> result : results) {
+        assertSame(first, result.get());
+      }
+      assertEquals(first.size(), cache.size());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,223 @@
+package ch.unisg.ics.interactions.wot.td.io.binary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+import org.junit.Test;
+
+import ch.unisg.ics.interactions.wot.td.ThingDescription;
+import ch.unisg.ics.interactions.wot.td.affordances.ActionAffordance;
+import ch.unisg.ics.interactions.wot.td.affordances.Form;
+import ch.unisg.ics.interactions.wot.td.affordances.PropertyAffordance;
+import ch.unisg.ics.interactions.wot.td.io.InvalidTDException;
+import ch.unisg.ics.interactions.wot.td.io.SampleTDs;
+import ch.unisg.ics.interactions.wot.td.io.graph.ReaderOptions.GraphRetention;
+import ch.unisg.ics.interactions.wot.td.io.graph.TDGraphWriter;
+import ch.unisg.ics.interactions.wot.td.schemas.ArraySchema;
+import ch.unisg.ics.interactions.wot.td.schemas.BooleanSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.DataSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.IntegerSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.NumberSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.ObjectSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.StringSchema;
+import ch.unisg.ics.interactions.wot.td.security.APIKeySecurityScheme;
+import ch.unisg.ics.interactions.wot.td.security.APIKeySecurityScheme.TokenLocation;
+import ch.unisg.ics.interactions.wot.td.security.SecurityScheme;
+import ch.unisg.ics.interactions.wot.td.vocabularies.TD;
+import ch.unisg.ics.interactions.wot.td.vocabularies.WoTSec;
+
+public class TDBinaryReaderTest {
+  private static final String THING_IRI = "http://example.org/lamp123";
+  private static final String BASE_IRI = "http://example.org/";
+  private static final String EVE_NS = "http://w3id.org/eve#";
+
+  /* Shares a schema between affordances, which TDs read from RDF do not */
+  private ThingDescription createLamp() {
+    ValueFactory rdf = SimpleValueFactory.getInstance();
+
+    DataSchema status = new StringSchema.Builder()
+        .addSemanticType("https://saref.etsi.org/core/OnOffState")
+        .addEnum(new HashSet<String>(Arrays.asList("on", "off")))
+        .build();
+
+    PropertyAffordance statusProperty = new PropertyAffordance.Builder(status,
+        new Form.Builder(BASE_IRI + "status")
+          .setMethodName("GET")
+          .addOperationType(TD.readProperty)
+          .build())
+        .addName("status")
+        .addTitle("Status")
+        .addObserve()
+        .build();
+
+    PropertyAffordance colorProperty = new PropertyAffordance.Builder(new ArraySchema.Builder()
+        .addMinItems(3)
+        .addMaxItems(3)
+        .addItem(new IntegerSchema.Builder().addMinimum(0).addMaximum(255).build())
+        .build(),
+        new Form.Builder(BASE_IRI + "color")
+          .setContentType("application/cbor")
+          .addSubProtocol("longpoll")
+          .build())
+        .addName("color")
+        .build();
+
+    ActionAffordance toggle = new ActionAffordance.Builder(
+        new Form.Builder(BASE_IRI + "toggle").setMethodName("PUT").build())
+        .addName("toggle")
+        .addSemanticType("https://saref.etsi.org/core/ToggleCommand")
+        .addInputSchema(new ObjectSchema.Builder()
+            .addProperty("status", status)
+            .addProperty("transition", new NumberSchema.Builder().addMinimum(0.5).build())
+            .addProperty("confirm", new BooleanSchema.Builder().build())
+            .addRequiredProperties("status")
+            .build())
+        .addOutputSchema(status)
+        .build();
+
+    BNode manualId = rdf.createBNode();
+
+    return new ThingDescription.Builder("My Lamp Thing")
+        .addThingURI(THING_IRI)
+        .addBaseURI(BASE_IRI)
+        .addSemanticType("https://saref.etsi.org/core/LightSwitch")
+        .addSecurityScheme(new APIKeySecurityScheme(TokenLocation.HEADER, "X-API-Key"))
+        .addProperty(statusProperty)
+        .addProperty(colorProperty)
+        .addAction(toggle)
+        .addTriple(rdf.createIRI(THING_IRI), rdf.createIRI(EVE_NS, "hasManual"), manualId)
+        .addTriple(manualId, RDF.TYPE, rdf.createIRI(EVE_NS, "Manual"))
+        .addTriple(manualId, DCTERMS.TITLE, rdf.createLiteral("Lampen-Handbuch", "de"))
+        .build();
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    ThingDescription td = createLamp();
+    ThingDescription decoded = TDBinaryReader.readFromBytes(new TDBinaryWriter(td).write());
+
+    assertEquals("My Lamp Thing", decoded.getTitle());
+    assertEquals(THING_IRI, decoded.getThingURI().get());
+    assertEquals(BASE_IRI, decoded.getBaseURI().get());
+    assertEquals(td.getSemanticTypes(), decoded.getSemanticTypes());
+
+    SecurityScheme scheme = decoded.getFirstSecuritySchemeByType(WoTSec.APIKeySecurityScheme).get();
+    assertEquals(TokenLocation.HEADER, ((APIKeySecurityScheme) scheme).getIn());
+    assertEquals("X-API-Key", ((APIKeySecurityScheme) scheme).getName().get());
+
+    PropertyAffordance status = decoded.getPropertyByName("status").get();
+    assertTrue(status.isObservable());
+    assertEquals("Status", status.getTitle().get());
+    assertEquals(td.getProperties().get(0).getDataSchema(), status.getDataSchema());
+
+    Form colorForm = decoded.getPropertyByName("color").get().getForms().get(0);
+    assertEquals("application/cbor", colorForm.getContentType());
+    assertEquals("longpoll", colorForm.getSubProtocol().get());
+    assertFalse(colorForm.getMethodName().isPresent());
+
+    ActionAffordance toggle = decoded.getActionByName("toggle").get();
+    assertEquals(td.getActions().get(0).getInputSchema(), toggle.getInputSchema());
+    assertEquals("PUT", toggle.getFirstForm().get().getMethodName().get());
+
+    assertTrue(Models.isomorphic(readGraph(td), readGraph(decoded)));
+  }
+
+  @Test
+  public void testSharedSchemasStayShared() {
+    ThingDescription decoded = TDBinaryReader.readFromBytes(
+        new TDBinaryWriter(createLamp()).write());
+
+    DataSchema status = decoded.getPropertyByName("status").get().getDataSchema();
+    ActionAffordance toggle = decoded.getActionByName("toggle").get();
+
+    assertSame(status, toggle.getOutputSchema().get());
+    assertSame(status, ((ObjectSchema) toggle.getInputSchema().get()).getProperty("status").get());
+  }
+
+  @Test
+  public void testRoundTripSamples() throws IOException {
+    for (String sample : Arrays.asList(SampleTDs.SIMPLE_TD, SampleTDs.FORKLIFT_ROBOT)) {
+      ThingDescription td = SampleTDs.read(sample, GraphRetention.FULL);
+      ThingDescription decoded = TDBinaryReader.readFromBytes(new TDBinaryWriter(td).write());
+
+      assertEquals(td.getTitle(), decoded.getTitle());
+      assertTrue(Models.isomorphic(readGraph(td), readGraph(decoded)));
+    }
+  }
+
+  @Test
+  public void testReadConsecutiveTDs() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new TDBinaryWriter(SampleTDs.read(SampleTDs.FORKLIFT_ROBOT, GraphRetention.FULL)).write(out);
+    new TDBinaryWriter(new ThingDescription.Builder("My Other Thing").build()).write(out);
+
+    ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+
+    assertEquals("forkliftRobot", TDBinaryReader.readFromStream(in).getTitle());
+    assertEquals("My Other Thing", TDBinaryReader.readFromStream(in).getTitle());
+    assertEquals(0, in.available());
+  }
+
+  @Test(expected = InvalidTDException.class)
+  public void testRejectTruncatedTD() {
+    byte[] bytes = new TDBinaryWriter(SampleTDs.read(SampleTDs.FORKLIFT_ROBOT, GraphRetention.FULL))
+        .write();
+    TDBinaryReader.readFromBytes(Arrays.copyOf(bytes, bytes.length / 2));
+  }
+
+  @Test(expected = InvalidTDException.class)
+  public void testRejectCorruptedStringLength() {
+    // The title is a new string of 2^31 - 1 bytes
+    byte[] bytes = { 'W', 'T', 'D', 'B', 1, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+        0x07 };
+
+    TDBinaryReader.readFromBytes(bytes);
+  }
+
+  @Test(expected = InvalidTDException.class)
+  public void testRejectCorruptedCountFromStream() throws IOException {
+    // The title is "a", followed by 2^31 - 1 semantic types
+    byte[] bytes = { 'W', 'T', 'D', 'B', 1, 0, 1, 'a', 0, 0, (byte) 0xFF, (byte) 0xFF,
+        (byte) 0xFF, (byte) 0xFF, 0x07 };
+
+    TDBinaryReader.readFromStream(new ByteArrayInputStream(bytes));
+  }
+
+  @Test
+  public void testWriterIsReusable() {
+    TDBinaryWriter writer = new TDBinaryWriter(SampleTDs.read(SampleTDs.FORKLIFT_ROBOT,
+        GraphRetention.FULL));
+    byte[] first = writer.write();
+    byte[] second = writer.write();
+
+    assertTrue(Arrays.equals(first, second));
+    assertEquals("forkliftRobot", TDBinaryReader.readFromBytes(second).getTitle());
+  }
+
+  @Test(expected = InvalidTDException.class)
+  public void testRejectUnknownFormat() {
+    TDBinaryReader.readFromBytes("{\"title\": \"My Thing\"}".getBytes());
+  }
+
+  private Model readGraph(ThingDescription td) throws IOException {
+    return Rio.parse(new StringReader(new TDGraphWriter(td).write()), BASE_IRI, RDFFormat.TURTLE);
+  }
+}
@@ -0,0 +1,130 @@
+package ch.unisg.ics.interactions.wot.td.io.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import ch.unisg.ics.interactions.wot.td.ThingDescription;
+
+public class BulkReadIteratorTest {
+
+  @Test(timeout = 10000)
+  public void testErrorsAreReportedUnordered() {
+    assertErrorsAreReported(false);
+  }
+
+  @Test(timeout = 10000)
+  public void testErrorsAreReportedOrdered() {
+    assertErrorsAreReported(true);
+  }
+
+  @Test(timeout = 10000)
+  public void testCloseCancelsRunningReads() throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    CountDownLatch started = new CountDownLatch(2);
+    CountDownLatch interrupted = new CountDownLatch(2);
+
+    Function<String, ThingDescription> reader = title -> {
+      started.countDown();
+
+      try {
+        new CountDownLatch(1).await();
+      } catch (InterruptedException e) {
+        interrupted.countDown();
+      }
+
+      return new ThingDescription.Builder(title).build();
+    };
+
+    ReaderOptions options = new ReaderOptions.Builder()
+      .setExecutor(executor)
+      .setMaxInFlight(2)
+      .build();
+
+    try {
+      Stream<TDReadResult> results = BulkReadIterator.readAll(Stream.of("a", "b", "c"), reader,
+          options);
+
+      Thread consumer = new Thread(() -> results.findFirst());
+      consumer.start();
+
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      results.close();
+
+      assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+      consumer.join();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test(timeout = 10000)
+  public void testRejectedReadsAreReported() {
+    ReaderOptions options = new ReaderOptions.Builder()
+      .setExecutor(command -> {
+        throw new RejectedExecutionException();
+      })
+      .setMaxInFlight(1)
+      .build();
+
+    List<TDReadResult> results;
+    try (Stream<TDReadResult> stream = BulkReadIterator.readAll(Stream.of("a", "b"),
+        title -> new ThingDescription.Builder(title).build(), options)) {
+      results = stream.collect(Collectors.toList());
+    }
+
+    assertEquals(2, results.size());
+    assertEquals(1, results.get(1).getIndex());
+    assertTrue(results.stream().allMatch(result -> !result.isValid()
+        && result.getError().get().getCause() instanceof RejectedExecutionException));
+  }
+
+  @Test
+  public void testDefaultExecutorIsDedicated() {
+    ReaderOptions options = ReaderOptions.DEFAULT;
+
+    assertFalse(options.getExecutor() instanceof ForkJoinPool);
+    assertEquals(ReaderOptions.DEFAULT_PARALLELISM, options.getMaxInFlight());
+  }
+
+  private void assertErrorsAreReported(boolean ordered) {
+    Function<String, ThingDescription> reader = title -> {
+      if (title.isEmpty()) {
+        throw new AssertionError("Not a TD");
+      }
+
+      return new ThingDescription.Builder(title).build();
+    };
+
+    ReaderOptions options = new ReaderOptions.Builder()
+      .setMaxInFlight(1)
+      .setOrdered(ordered)
+      .build();
+
+    List<TDReadResult> results;
+    try (Stream<TDReadResult> stream = BulkReadIterator.readAll(Stream.of("a", "", "b"), reader,
+        options)) {
+      results = stream.collect(Collectors.toList());
+    }
+
+    assertEquals(3, results.size());
+    assertEquals(1, results.stream().filter(result -> !result.isValid()).count());
+
+    TDReadResult failure = results.stream().filter(result -> !result.isValid()).findFirst().get();
+    assertEquals(1, failure.getIndex());
+    assertTrue(failure.getError().get().getCause() instanceof AssertionError);
+  }
+}
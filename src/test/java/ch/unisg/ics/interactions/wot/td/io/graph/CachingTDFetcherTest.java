@@ -0,0 +1,124 @@
+package ch.unisg.ics.interactions.wot.td.io.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import ch.unisg.ics.interactions.wot.td.ThingDescription;
+import ch.unisg.ics.interactions.wot.td.ThingDescription.TDFormat;
+
+public class CachingTDFetcherTest {
+
+  private static final String TEST_TD = "@prefix td: <https://www.w3.org/2019/wot/td#> .\n" +
+      "@prefix dct: <http://purl.org/dc/terms/> .\n" +
+      "@prefix wotsec: <https://www.w3.org/2019/wot/security#> .\n" +
+      "\n" +
+      "<http://example.org/#thing> a td:Thing ;\n" +
+      "    dct:title \"%s\" ;\n" +
+      "    td:hasSecurityConfiguration [ a wotsec:NoSecurityScheme ] .";
+
+  private HttpServer server;
+  private String url;
+
+  private volatile String title;
+  private volatile String etag;
+  private final List<Optional<String>> conditions = new ArrayList<>();
+
+  @Before
+  public void startServer() throws IOException {
+    title = "My Thing";
+    etag = "\"v1\"";
+
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/td", exchange -> {
+      String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+
+      synchronized (conditions) {
+        conditions.add(Optional.ofNullable(ifNoneMatch));
+      }
+
+      if (etag.equals(ifNoneMatch)) {
+        exchange.sendResponseHeaders(304, -1);
+        exchange.close();
+        return;
+      }
+
+      byte[] body = String.format(TEST_TD, title).getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("ETag", etag);
+      exchange.getResponseHeaders().add("Content-Type", "text/turtle");
+      exchange.sendResponseHeaders(200, body.length);
+
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    });
+    server.start();
+
+    url = "http://localhost:" + server.getAddress().getPort() + "/td";
+  }
+
+  @After
+  public void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  public void testReturnCachedTDIfNotModified() throws IOException {
+    CachingTDFetcher fetcher = new CachingTDFetcher(TDFormat.RDF_TURTLE, 10);
+
+    ThingDescription first = fetcher.fetch(url);
+    ThingDescription second = fetcher.fetch(url);
+
+    assertEquals("My Thing", first.getTitle());
+    assertSame(first, second);
+
+    assertEquals(2, conditions.size());
+    assertFalse(conditions.get(0).isPresent());
+    assertEquals("\"v1\"", conditions.get(1).get());
+  }
+
+  @Test
+  public void testFetchModifiedTD() throws IOException {
+    CachingTDFetcher fetcher = new CachingTDFetcher(TDFormat.RDF_TURTLE, 10);
+
+    ThingDescription first = fetcher.fetch(url);
+
+    title = "My Updated Thing";
+    etag = "\"v2\"";
+
+    ThingDescription second = fetcher.fetch(url);
+
+    assertNotSame(first, second);
+    assertEquals("My Updated Thing", second.getTitle());
+    assertSame(second, fetcher.fetch(url));
+  }
+
+  @Test
+  public void testEvictLeastRecentlyFetchedTD() throws IOException {
+    CachingTDFetcher fetcher = new CachingTDFetcher(TDFormat.RDF_TURTLE, 1);
+
+    fetcher.fetch(url);
+    fetcher.fetch(url + "?other");
+
+    assertEquals(1, fetcher.size());
+
+    // The first TD was evicted, so it is fetched again unconditionally
+    fetcher.fetch(url);
+    assertFalse(conditions.get(2).isPresent());
+  }
+}
@@ -0,0 +1,35 @@
+package ch.unisg.ics.interactions.wot.td.io.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.github.jsonldjava.core.RemoteDocument;
+
+public class JsonLdContextsTest {
+
+  @Test
+  public void testResolveLibraryContext() throws Exception {
+    // The IRI of the library context is not dereferenceable, it can only be served from the bundle
+    RemoteDocument context = JsonLdContexts.documentLoader().loadDocument(
+        JsonLdContexts.TD_CONTEXT);
+
+    assertEquals(JsonLdContexts.TD_CONTEXT, context.getDocumentUrl());
+    assertTrue(context.getDocument() instanceof Map);
+    assertTrue(((Map<?, ?>) context.getDocument()).containsKey("@context"));
+  }
+
+  @Test
+  public void testResolveLibraryContextOnce() throws Exception {
+    RemoteDocument first = JsonLdContexts.documentLoader().loadDocument(JsonLdContexts.TD_CONTEXT);
+    RemoteDocument second = JsonLdContexts.documentLoader().loadDocument(JsonLdContexts.TD_CONTEXT);
+
+    // The loader and the parsed context document are shared
+    assertSame(JsonLdContexts.documentLoader(), JsonLdContexts.documentLoader());
+    assertSame(first.getDocument(), second.getDocument());
+  }
+}
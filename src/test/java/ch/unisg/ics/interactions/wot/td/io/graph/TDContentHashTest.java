@@ -0,0 +1,72 @@
+package ch.unisg.ics.interactions.wot.td.io.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.junit.Test;
+
+import ch.unisg.ics.interactions.wot.td.ThingDescription;
+import ch.unisg.ics.interactions.wot.td.ThingDescription.TDFormat;
+import ch.unisg.ics.interactions.wot.td.affordances.Form;
+import ch.unisg.ics.interactions.wot.td.affordances.PropertyAffordance;
+import ch.unisg.ics.interactions.wot.td.io.SampleTDs;
+import ch.unisg.ics.interactions.wot.td.io.graph.ReaderOptions.GraphRetention;
+import ch.unisg.ics.interactions.wot.td.schemas.BooleanSchema;
+import ch.unisg.ics.interactions.wot.td.security.NoSecurityScheme;
+
+public class TDContentHashTest {
+  private static final String EVE_ARTIFACT = "http://w3id.org/eve#Artifact";
+  private static final String IOT_LIGHT = "http://iot-schema.org/eve#Light";
+
+  @Test
+  public void testContentHash() {
+    ThingDescription td = SampleTDs.createLamp(EVE_ARTIFACT, IOT_LIGHT);
+    ThingDescription same = SampleTDs.createLamp(IOT_LIGHT, EVE_ARTIFACT);
+
+    assertEquals(64, TDContentHash.of(td).length());
+    assertEquals(TDContentHash.of(td), TDContentHash.of(same));
+    assertNotEquals(TDContentHash.of(td),
+        TDContentHash.of(new ThingDescription.Builder("My Lamp").build()));
+  }
+
+  @Test
+  public void testCachedHashIsStable() {
+    ThingDescription td = SampleTDs.createLamp(EVE_ARTIFACT, IOT_LIGHT);
+    String hash = TDContentHash.of(td);
+
+    assertEquals(hash, TDContentHash.of(td));
+    assertEquals(hash, TDContentHash.of(SampleTDs.createLamp(EVE_ARTIFACT, IOT_LIGHT)));
+  }
+
+  @Test
+  public void testSameHashWhenRead() {
+    ValueFactory rdf = SimpleValueFactory.getInstance();
+    ThingDescription built = new ThingDescription.Builder("My Lamp")
+        .addThingURI("http://example.org/#lamp")
+        .addSemanticType(IOT_LIGHT)
+        .addSecurityScheme(new NoSecurityScheme())
+        .addProperty(new PropertyAffordance.Builder(new BooleanSchema.Builder().build(),
+            new Form.Builder("http://example.org/status").build())
+            .addName("status")
+            .build())
+        .addTriple(rdf.createIRI("http://example.org/#lamp"), RDFS.COMMENT,
+            rdf.createLiteral("A lamp"))
+        .build();
+    String turtle = new TDGraphWriter(built).write();
+
+    // The full graph of a read TD also describes its object model, which is hashed once
+    for (GraphRetention retention : GraphRetention.values()) {
+      ThingDescription read = TDGraphReader.readFromString(TDFormat.RDF_TURTLE, turtle,
+          new ReaderOptions.Builder().setGraphRetention(retention).build());
+
+      if (retention == GraphRetention.NONE) {
+        assertNotEquals(TDContentHash.of(built), TDContentHash.of(read));
+      } else {
+        assertEquals(retention.toString(), TDContentHash.of(built), TDContentHash.of(read));
+      }
+    }
+  }
+}
@@ -4,28 +4,53 @@ import ch.unisg.ics.interactions.wot.td.ThingDescription;
 import ch.unisg.ics.interactions.wot.td.ThingDescription.TDFormat;
 import ch.unisg.ics.interactions.wot.td.affordances.ActionAffordance;
 import ch.unisg.ics.interactions.wot.td.affordances.Form;
+import ch.unisg.ics.interactions.wot.td.affordances.LazyAffordanceList;
 import ch.unisg.ics.interactions.wot.td.affordances.PropertyAffordance;
 import ch.unisg.ics.interactions.wot.td.io.InvalidTDException;
 import ch.unisg.ics.interactions.wot.td.schemas.DataSchema;
 import ch.unisg.ics.interactions.wot.td.schemas.IntegerSchema;
 import ch.unisg.ics.interactions.wot.td.schemas.NumberSchema;
 import ch.unisg.ics.interactions.wot.td.schemas.ObjectSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.SchemaCache;
 import ch.unisg.ics.interactions.wot.td.security.APIKeySecurityScheme;
 import ch.unisg.ics.interactions.wot.td.security.APIKeySecurityScheme.TokenLocation;
 import ch.unisg.ics.interactions.wot.td.security.SecurityScheme;
+import ch.unisg.ics.interactions.wot.td.vocabularies.DCT;
 import ch.unisg.ics.interactions.wot.td.vocabularies.TD;
 import ch.unisg.ics.interactions.wot.td.vocabularies.WoTSec;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.*;
 
 public class TDGraphReaderTest {
+  private static final ValueFactory rdf = SimpleValueFactory.getInstance();
 
   private static final String TEST_SIMPLE_TD =
     "@prefix td: <https://www.w3.org/2019/wot/td#> .\n" +
@@ -487,6 +512,63 @@ public class TDGraphReaderTest {
     assertEquals("forkliftRobot", forklift.getTitle());
   }
 
+  @Test
+  public void testReadTDFromPathMemoryMapped() throws IOException {
+    ReaderOptions options = new ReaderOptions.Builder().setMemoryMapped(true).build();
+
+    ThingDescription simple = TDGraphReader.readFromPath(TDFormat.RDF_TURTLE,
+      Paths.get("samples/simple_td.ttl"), options);
+    ThingDescription forklift = TDGraphReader.readFromPath(TDFormat.RDF_TURTLE,
+      Paths.get("samples/forkliftRobot.ttl"), options);
+
+    assertEquals("My Thing", simple.getTitle());
+    assertEquals("forkliftRobot", forklift.getTitle());
+  }
+
+  @Test
+  public void testReadTDFromStreamAsUTF8() {
+    String testTD = TEST_SIMPLE_TD.replace("\"My Thing\"", "\"K\u00fchlschrank \u2013 \u51b7\u8535\u5eab\"");
+    InputStream in = new ByteArrayInputStream(testTD.getBytes(StandardCharsets.UTF_8));
+
+    ThingDescription td = TDGraphReader.readFromStream(TDFormat.RDF_TURTLE, in);
+
+    assertEquals("K\u00fchlschrank \u2013 \u51b7\u8535\u5eab", td.getTitle());
+    assertEquals(1, td.getActions().size());
+  }
+
+  @Test
+  public void testReadTDFromStreamParsedTwice() {
+    // The root-relative target cannot be rewritten after the first parse
+    String testTD = TEST_SIMPLE_TD.replace("<http://example.org/#thing>", "</things/#thing>");
+    byte[] bytes = testTD.getBytes(StandardCharsets.UTF_8);
+
+    InputStream oneShot = new FilterInputStream(new ByteArrayInputStream(bytes)) {
+      @Override
+      public boolean markSupported() {
+        return false;
+      }
+    };
+
+    ThingDescription recorded = TDGraphReader.readFromStream(TDFormat.RDF_TURTLE, oneShot);
+    ThingDescription rewound = TDGraphReader.readFromStream(TDFormat.RDF_TURTLE,
+      new ByteArrayInputStream(bytes));
+
+    assertEquals("http://example.org/things/#thing", recorded.getThingURI().get());
+    assertEquals("http://example.org/things/#thing", rewound.getThingURI().get());
+    assertEquals(1, rewound.getActions().size());
+  }
+
+  @Test
+  public void testReadTDFromChannel() {
+    ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(
+      TEST_SIMPLE_TD_JSONLD.getBytes(StandardCharsets.UTF_8)));
+
+    ThingDescription td = TDGraphReader.readFromChannel(TDFormat.RDF_JSONLD, channel);
+
+    assertEquals("My Thing", td.getTitle());
+    assertEquals("http://example.org/", td.getBaseURI().get());
+  }
+
   @Test
   public void testReadSimpleFullTD() {
     ThingDescription td = TDGraphReader.readFromString(TDFormat.RDF_TURTLE, TEST_SIMPLE_TD);
@@ -528,6 +610,393 @@ public class TDGraphReaderTest {
     assertTrue(output.getRequiredProperties().contains("boolean_value"));
   }
 
+  @Test
+  public void testReadRelativeIRIsAgainstBase() {
+    String testTD =
+      "@prefix td: <https://www.w3.org/2019/wot/td#> .\n" +
+        "@prefix htv: <http://www.w3.org/2011/http#> .\n" +
+        "@prefix hctl: <https://www.w3.org/2019/wot/hypermedia#> .\n" +
+        "@prefix dct: <http://purl.org/dc/terms/> .\n" +
+        "@prefix wotsec: <https://www.w3.org/2019/wot/security#> .\n" +
+        "@prefix js: <https://www.w3.org/2019/wot/json-schema#> .\n" +
+        "\n" +
+        "<#thing> a td:Thing ;\n" +
+        "    dct:title \"My Thing\" ;\n" +
+        "    td:hasSecurityConfiguration [ a wotsec:NoSecurityScheme ] ;\n" +
+        "    td:hasBase <http://example.org/things/> ;\n" +
+        "    td:hasPropertyAffordance [\n" +
+        "        a td:PropertyAffordance, js:NumberSchema ;\n" +
+        "        td:name \"my_property\" ;\n" +
+        "        td:hasForm [\n" +
+        "            hctl:hasTarget <properties/my_property> ;\n" +
+        "            hctl:hasOperationType td:readProperty;\n" +
+        "        ] ;\n" +
+        "    ] .";
+
+    ThingDescription td = TDGraphReader.readFromString(TDFormat.RDF_TURTLE, testTD);
+
+    assertEquals("http://example.org/things/#thing", td.getThingURI().get());
+    assertEquals("http://example.org/things/", td.getBaseURI().get());
+
+    PropertyAffordance property = td.getPropertyByName("my_property").get();
+    assertEquals("http://example.org/things/properties/my_property",
+      property.getForms().get(0).getTarget());
+  }
+
+  @Test
+  public void testReadDotSegmentsAgainstBase() {
+    String testTD =
+      "@prefix td: <https://www.w3.org/2019/wot/td#> .\n" +
+        "@prefix hctl: <https://www.w3.org/2019/wot/hypermedia#> .\n" +
+        "@prefix dct: <http://purl.org/dc/terms/> .\n" +
+        "@prefix wotsec: <https://www.w3.org/2019/wot/security#> .\n" +
+        "@prefix js: <https://www.w3.org/2019/wot/json-schema#> .\n" +
+        "\n" +
+        "<#thing> a td:Thing ;\n" +
+        "    dct:title \"My Thing\" ;\n" +
+        "    td:hasSecurityConfiguration [ a wotsec:NoSecurityScheme ] ;\n" +
+        "    td:hasBase <http://example.org/things/lamp/> ;\n" +
+        "    td:hasPropertyAffordance [\n" +
+        "        a td:PropertyAffordance, js:NumberSchema ;\n" +
+        "        td:name \"my_property\" ;\n" +
+        "        td:hasForm [ hctl:hasTarget <../td/status> ] ,\n" +
+        "            [ hctl:hasTarget <./status> ] ,\n" +
+        "            [ hctl:hasTarget <properties/../status/raw> ] ;\n" +
+        "    ] .";
+
+    ThingDescription td = TDGraphReader.readFromString(TDFormat.RDF_TURTLE, testTD);
+
+    assertEquals("http://example.org/things/lamp/#thing", td.getThingURI().get());
+
+    Set<String> targets = td.getPropertyByName("my_property").get().getForms().stream()
+      .map(Form::getTarget)
+      .collect(Collectors.toSet());
+
+    assertEquals(new HashSet<String>(Arrays.asList("http://example.org/things/td/status",
+      "http://example.org/things/lamp/status", "http://example.org/things/lamp/status/raw")),
+      targets);
+  }
+
+  @Test
+  public void testReadRelativeIRIsWithSecondParse() {
+    // The absolute-path reference escapes the placeholder base, the TD is parsed again
+    String testTD = TEST_SIMPLE_TD
+      .replace("<http://example.org/#thing>", "</things/#thing>")
+      .replace("<http://example.org/> ;", "<http://example.org/api/> ;");
+
+    ThingDescription td = TDGraphReader.readFromString(TDFormat.RDF_TURTLE, testTD);
+
+    assertEquals("http://example.org/things/#thing", td.getThingURI().get());
+    assertEquals("http://example.org/api/", td.getBaseURI().get());
+    assertEquals("My Thing", td.getTitle());
+  }
+
+  @Test
+  public void testReadNetworkPathReferenceWithSecondParse() {
+    // The network-path reference keeps the scheme of the declared base, not of the placeholder
+    String testTD = TEST_SIMPLE_TD
+      .replace("<http://example.org/#thing>", "<//things.example.org/#thing>")
+      .replace("<http://example.org/> ;", "<https://example.org/api/> ;");
+
+    ThingDescription td = TDGraphReader.readFromString(TDFormat.RDF_TURTLE, testTD);
+
+    assertEquals("https://things.example.org/#thing", td.getThingURI().get());
+    assertEquals("https://example.org/api/", td.getBaseURI().get());
+  }
+
+  @Test
+  public void testReadFullGraphByDefault() {
+    ThingDescription td = TDGraphReader.readFromString(TDFormat.RDF_TURTLE, TEST_SIMPLE_TD);
+
+    Model graph = td.getGraph().get();
+    assertTrue(graph.contains(rdf.createIRI("http://example.org/#thing"),
+      rdf.createIRI(DCT.title), rdf.createLiteral("My Thing")));
+  }
+
+  @Test
+  public void testReadExtrasOnlyGraph() {
+    String testTD =
+      "@prefix td: <https://www.w3.org/2019/wot/td#> .\n" +
+        "@prefix hctl: <https://www.w3.org/2019/wot/hypermedia#> .\n" +
+        "@prefix dct: <http://purl.org/dc/terms/> .\n" +
+        "@prefix wotsec: <https://www.w3.org/2019/wot/security#> .\n" +
+        "@prefix js: <https://www.w3.org/2019/wot/json-schema#> .\n" +
+        "@prefix ex: <http://example.org/ns#> .\n" +
+        "\n" +
+        "<http://example.org/#thing> a td:Thing ;\n" +
+        "    dct:title \"My Thing\" ;\n" +
+        "    td:hasSecurityConfiguration [ a wotsec:NoSecurityScheme ] ;\n" +
+        "    ex:hasOwner [ ex:name \"Alice\" ] ;\n" +
+        "    td:hasPropertyAffordance [\n" +
+        "        a td:PropertyAffordance, js:NumberSchema ;\n" +
+        "        td:name \"my_property\" ;\n" +
+        "        td:hasForm [\n" +
+        "            hctl:hasTarget <http://example.org/property> ;\n" +
+        "            hctl:hasOperationType td:readProperty;\n" +
+        "        ] ;\n" +
+        "    ] .";
+
+    ReaderOptions options = new ReaderOptions.Builder()
+      .setGraphRetention(ReaderOptions.GraphRetention.EXTRAS_ONLY)
+      .build();
+
+    ThingDescription td = TDGraphReader.readFromString(TDFormat.RDF_TURTLE, testTD, options);
+
+    assertEquals("My Thing", td.getTitle());
+    assertEquals(1, td.getSecuritySchemes().size());
+    assertTrue(td.getPropertyByName("my_property").isPresent());
+
+    // Only the triples not mapped into the object model are retained
+    Model graph = td.getGraph().get();
+    assertEquals(2, graph.size());
+
+    IRI thingId = rdf.createIRI("http://example.org/#thing");
+    assertTrue(graph.contains(thingId, rdf.createIRI("http://example.org/ns#hasOwner"), null));
+    assertTrue(graph.contains(null, rdf.createIRI("http://example.org/ns#name"),
+      rdf.createLiteral("Alice")));
+  }
+
+  @Test
+  public void testReadExtrasOnlyKeepsAdditionalTitles() {
+    ThingDescription td = readExtrasOnly(
+      "<http://example.org/#thing> a td:Thing ;\n" +
+        "    dct:title \"My Thing\", \"Mein Ding\" ;\n" +
+        "    td:hasSecurityConfiguration [ a wotsec:NoSecurityScheme ] .");
+
+    assertEquals("My Thing", td.getTitle());
+
+    Model graph = td.getGraph().get();
+    assertEquals(1, graph.size());
+    assertTrue(graph.contains(rdf.createIRI("http://example.org/#thing"), rdf.createIRI(DCT.title),
+      rdf.createLiteral("Mein Ding")));
+  }
+
+  @Test
+  public void testReadExtrasOnlyKeepsLiteralTypes() {
+    ThingDescription td = readExtrasOnly(
+      "<http://example.org/#thing> a td:Thing, \"Lamp\" ;\n" +
+        "    dct:title \"My Thing\" ;\n" +
+        "    td:hasSecurityConfiguration [ a wotsec:NoSecurityScheme ] .");
+
+    assertEquals(1, td.getSemanticTypes().size());
+
+    Model graph = td.getGraph().get();
+    assertEquals(1, graph.size());
+    assertTrue(graph.contains(rdf.createIRI("http://example.org/#thing"), RDF.TYPE,
+      rdf.createLiteral("Lamp")));
+  }
+
+  @Test
+  public void testReadExtrasOnlyKeepsSkippedActions() {
+    ThingDescription td = readExtrasOnly(
+      "<http://example.org/#thing> a td:Thing ;\n" +
+        "    dct:title \"My Thing\" ;\n" +
+        "    td:hasSecurityConfiguration [ a wotsec:NoSecurityScheme ] ;\n" +
+        "    td:hasActionAffordance [\n" +
+        "        a ex:Operation ;\n" +
+        "        td:name \"my_operation\" ;\n" +
+        "    ] .");
+
+    assertTrue(td.getActions().isEmpty());
+
+    // The link to the node and the node are not mapped into the object model
+    Model graph = td.getGraph().get();
+    assertEquals(3, graph.size());
+    assertTrue(graph.contains(rdf.createIRI("http://example.org/#thing"),
+      rdf.createIRI(TD.hasActionAffordance), null));
+    assertTrue(graph.contains(null, RDF.TYPE, rdf.createIRI("http://example.org/ns#Operation")));
+    assertTrue(graph.contains(null, rdf.createIRI(TD.name), rdf.createLiteral("my_operation")));
+  }
+
+  @Test
+  public void testReadExtrasOnlyKeepsFormsWithoutTarget() {
+    ThingDescription td = readExtrasOnly(
+      "<http://example.org/#thing> a td:Thing ;\n" +
+        "    dct:title \"My Thing\" ;\n" +
+        "    td:hasSecurityConfiguration [ a wotsec:NoSecurityScheme ] ;\n" +
+        "    td:hasPropertyAffordance [\n" +
+        "        a td:PropertyAffordance, js:NumberSchema ;\n" +
+        "        td:name \"my_property\" ;\n" +
+        "        td:hasForm [\n" +
+        "            hctl:hasTarget <http://example.org/property> ;\n" +
+        "        ], [\n" +
+        "            hctl:hasOperationType td:writeProperty ;\n" +
+        "        ] ;\n" +
+        "    ] .");
+
+    assertEquals(1, td.getPropertyByName("my_property").get().getForms().size());
+
+    Model graph = td.getGraph().get();
+    assertEquals(2, graph.size());
+    assertEquals(1, graph.filter(null, rdf.createIRI(TD.hasForm), null).size());
+    assertTrue(graph.contains(null, rdf.createIRI("https://www.w3.org/2019/wot/hypermedia"
+      + "#hasOperationType"), rdf.createIRI(TD.writeProperty)));
+  }
+
+  @Test
+  public void testReadExtrasOnlyKeepsPropertiesWithoutSchema() {
+    ThingDescription td = readExtrasOnly(
+      "<http://example.org/#thing> a td:Thing ;\n" +
+        "    dct:title \"My Thing\" ;\n" +
+        "    td:hasSecurityConfiguration [ a wotsec:NoSecurityScheme ] ;\n" +
+        "    td:hasPropertyAffordance [\n" +
+        "        a td:PropertyAffordance ;\n" +
+        "        td:name \"my_property\" ;\n" +
+        "        td:hasForm [\n" +
+        "            hctl:hasTarget <http://example.org/property> ;\n" +
+        "        ] ;\n" +
+        "    ] .");
+
+    assertTrue(td.getProperties().isEmpty());
+
+    Model graph = td.getGraph().get();
+    assertEquals(5, graph.size());
+    assertTrue(graph.contains(rdf.createIRI("http://example.org/#thing"),
+      rdf.createIRI(TD.hasPropertyAffordance), null));
+    assertTrue(graph.contains(null, rdf.createIRI(TD.name), rdf.createLiteral("my_property")));
+    assertTrue(graph.contains(null, rdf.createIRI("https://www.w3.org/2019/wot/hypermedia"
+      + "#hasTarget"), rdf.createIRI("http://example.org/property")));
+  }
+
+  private ThingDescription readExtrasOnly(String thing) {
+    String testTD =
+      "@prefix td: <https://www.w3.org/2019/wot/td#> .\n" +
+        "@prefix hctl: <https://www.w3.org/2019/wot/hypermedia#> .\n" +
+        "@prefix dct: <http://purl.org/dc/terms/> .\n" +
+        "@prefix wotsec: <https://www.w3.org/2019/wot/security#> .\n" +
+        "@prefix js: <https://www.w3.org/2019/wot/json-schema#> .\n" +
+        "@prefix ex: <http://example.org/ns#> .\n" +
+        "\n" + thing;
+
+    ReaderOptions options = new ReaderOptions.Builder()
+      .setGraphRetention(ReaderOptions.GraphRetention.EXTRAS_ONLY)
+      .build();
+
+    return TDGraphReader.readFromString(TDFormat.RDF_TURTLE, testTD, options);
+  }
+
+  @Test
+  public void testReadNoGraph() {
+    ReaderOptions options = new ReaderOptions.Builder()
+      .setGraphRetention(ReaderOptions.GraphRetention.NONE)
+      .build();
+
+    ThingDescription td = TDGraphReader.readFromString(TDFormat.RDF_TURTLE, TEST_SIMPLE_TD,
+      options);
+
+    assertEquals("My Thing", td.getTitle());
+    assertEquals(1, td.getProperties().size());
+    assertEquals(1, td.getActions().size());
+    assertFalse(td.getGraph().isPresent());
+  }
+
+  @Test
+  public void testReadLazyAffordancesWithoutGraph() {
+    ReaderOptions options = new ReaderOptions.Builder()
+      .setGraphRetention(ReaderOptions.GraphRetention.NONE)
+      .setLazyAffordances(true)
+      .build();
+
+    ThingDescription td = TDGraphReader.readFromString(TDFormat.RDF_TURTLE, TEST_SIMPLE_TD,
+      options);
+
+    assertFalse(td.getGraph().isPresent());
+    assertEquals("My Property", td.getPropertyByName("my_property").get().getTitle().get());
+  }
+
+  @Test
+  public void testReadJSONLDWithLibraryContext() {
+    String testTD = "{\n" +
+      "  \"@context\": \"" + JsonLdContexts.TD_CONTEXT + "\",\n" +
+      "  \"id\": \"http://example.org/#thing\",\n" +
+      "  \"title\": \"My Thing\",\n" +
+      "  \"securityDefinitions\": { \"nosec_sc\": { \"scheme\": \"nosec\" } },\n" +
+      "  \"security\": [\"nosec_sc\"],\n" +
+      "  \"properties\": {\n" +
+      "    \"my_property\": {\n" +
+      "      \"type\": \"number\",\n" +
+      "      \"forms\": [{\n" +
+      "        \"href\": \"http://example.org/property\",\n" +
+      "        \"contentType\": \"application/json\",\n" +
+      "        \"op\": [\"readproperty\"]\n" +
+      "      }]\n" +
+      "    }\n" +
+      "  }\n" +
+      "}";
+
+    // The library context is resolved from the bundled copy
+    ThingDescription td = TDGraphReader.readFromString(TDFormat.RDF_JSONLD, testTD);
+
+    assertEquals("My Thing", td.getTitle());
+    assertEquals("http://example.org/#thing", td.getThingURI().get());
+    assertEquals(1, td.getSecuritySchemes().size());
+    assertEquals(WoTSec.NoSecurityScheme, td.getSecuritySchemes().get(0).getSchemeType());
+
+    assertEquals(1, td.getProperties().size());
+    PropertyAffordance property = td.getProperties().get(0);
+    assertEquals(DataSchema.NUMBER, property.getDataSchema().getDatatype());
+    Form form = property.getForms().get(0);
+    assertEquals("http://example.org/property", form.getTarget());
+    assertEquals("application/json", form.getContentType());
+    assertTrue(form.hasOperationType(TD.readProperty));
+  }
+
+  @Test
+  public void testReadAllFromStringsOrdered() {
+    Stream<String> representations = Stream.of(TEST_SIMPLE_TD, "not a TD", TEST_SIMPLE_TD);
+
+    List<TDReadResult> results;
+    try (Stream<TDReadResult> stream = TDGraphReader.readAllFromStrings(TDFormat.RDF_TURTLE,
+        representations)) {
+      results = stream.collect(Collectors.toList());
+    }
+
+    assertEquals(3, results.size());
+
+    for (int i = 0; i < results.size(); i++) {
+      assertEquals(i, results.get(i).getIndex());
+    }
+
+    assertEquals("My Thing", results.get(0).getThingDescription().get().getTitle());
+    assertFalse(results.get(1).isValid());
+    assertTrue(results.get(1).getError().isPresent());
+    assertEquals("My Thing", results.get(2).getThingDescription().get().getTitle());
+  }
+
+  @Test
+  public void testReadAllFromFilesUnordered() {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    ReaderOptions options = new ReaderOptions.Builder()
+      .setExecutor(executor)
+      .setMaxInFlight(1)
+      .setOrdered(false)
+      .build();
+
+    Stream<Path> paths = Stream.of(Paths.get("samples/simple_td.ttl"),
+      Paths.get("samples/forkliftRobot.ttl"), Paths.get("samples/missing.ttl"));
+
+    List<TDReadResult> results;
+    try (Stream<TDReadResult> stream = TDGraphReader.readAllFromFiles(TDFormat.RDF_TURTLE, paths,
+        options)) {
+      results = stream.collect(Collectors.toList());
+    } finally {
+      executor.shutdown();
+    }
+
+    assertEquals(3, results.size());
+
+    Set<String> titles = results.stream()
+      .filter(TDReadResult::isValid)
+      .map(result -> result.getThingDescription().get().getTitle())
+      .collect(Collectors.toSet());
+
+    assertEquals(2, titles.size());
+    assertTrue(titles.contains("My Thing"));
+    assertTrue(titles.contains("forkliftRobot"));
+    assertEquals(1, results.stream().filter(result -> !result.isValid()).count());
+  }
+
   @Test
   public void testMissingMandatoryTitle() {
     String testTDWithMissingTitle =
@@ -548,6 +1017,196 @@ public class TDGraphReaderTest {
     assertTrue(actualMessage.contains(expectedMessage));
   }
 
+  @Test
+  public void testReadLazyAffordances() {
+    ReaderOptions options = new ReaderOptions.Builder()
+      .setLazyAffordances(true)
+      .build();
+
+    ThingDescription td = TDGraphReader.readFromString(TDFormat.RDF_TURTLE, TEST_SIMPLE_TD,
+      options);
+
+    assertTrue(td.getProperties() instanceof LazyAffordanceList);
+    assertEquals(1, td.getProperties().size());
+    assertEquals(1, td.getActions().size());
+
+    PropertyAffordance property = td.getPropertyByName("my_property").get();
+    assertEquals("My Property", property.getTitle().get());
+    assertTrue(property.isObservable());
+    assertEquals(2, property.getForms().size());
+    assertSame(property, td.getProperties().get(0));
+
+    ActionAffordance action = td.getActionByName("my_action").get();
+    assertEquals(DataSchema.OBJECT, action.getInputSchema().get().getDatatype());
+    assertFalse(td.getActionByName("unknown_action").isPresent());
+  }
+
+  @Test
+  public void testReadLazyAffordancesReportsErrorsOnAccess() {
+    String testTD =
+      "@prefix td: <https://www.w3.org/2019/wot/td#> .\n" +
+        "@prefix dct: <http://purl.org/dc/terms/> .\n" +
+        "@prefix wotsec: <https://www.w3.org/2019/wot/security#> .\n" +
+        "@prefix js: <https://www.w3.org/2019/wot/json-schema#> .\n" +
+        "\n" +
+        "<http://example.org/#thing> a td:Thing ;\n" +
+        "    dct:title \"My Thing\" ;\n" +
+        "    td:hasSecurityConfiguration [ a wotsec:NoSecurityScheme ] ;\n" +
+        "    td:hasPropertyAffordance [\n" +
+        "        a td:PropertyAffordance, js:NumberSchema ;\n" +
+        "        td:name \"my_property\" ;\n" +
+        "    ] .";
+
+    ReaderOptions options = new ReaderOptions.Builder()
+      .setLazyAffordances(true)
+      .build();
+
+    ThingDescription td = TDGraphReader.readFromString(TDFormat.RDF_TURTLE, testTD, options);
+    assertEquals("My Thing", td.getTitle());
+
+    assertThrows(InvalidTDException.class, () -> td.getPropertyByName("my_property"));
+  }
+
+  @Test
+  public void testLazyAffordancesRequireFullGraph() {
+    assertThrows(IllegalArgumentException.class, () -> new ReaderOptions.Builder()
+      .setGraphRetention(ReaderOptions.GraphRetention.EXTRAS_ONLY)
+      .setLazyAffordances(true)
+      .build());
+  }
+
+  @Test
+  public void testReadSharedSchemas() {
+    SchemaCache cache = new SchemaCache();
+    ReaderOptions options = new ReaderOptions.Builder()
+      .setSchemaCache(cache)
+      .build();
+
+    ThingDescription first = TDGraphReader.readFromString(TDFormat.RDF_TURTLE, TEST_SIMPLE_TD,
+      options);
+    ThingDescription second = TDGraphReader.readFromString(TDFormat.RDF_TURTLE, TEST_SIMPLE_TD,
+      options);
+
+    ActionAffordance firstAction = first.getActionByName("my_action").get();
+    ActionAffordance secondAction = second.getActionByName("my_action").get();
+
+    assertSame(firstAction.getInputSchema().get(), secondAction.getInputSchema().get());
+    assertSame(first.getProperties().get(0).getDataSchema(),
+      second.getProperties().get(0).getDataSchema());
+
+    // Without a cache, equal schemas are distinct instances
+    ThingDescription third = TDGraphReader.readFromString(TDFormat.RDF_TURTLE, TEST_SIMPLE_TD);
+    DataSchema thirdInput = third.getActionByName("my_action").get().getInputSchema().get();
+
+    assertEquals(firstAction.getInputSchema().get(), thirdInput);
+    assertNotSame(firstAction.getInputSchema().get(), thirdInput);
+  }
+
+  @Test
+  public void testReadAllFromDataset() {
+    ThingDescription simple = TDGraphReader.readFromString(TDFormat.RDF_TURTLE, TEST_SIMPLE_TD);
+    ThingDescription anonymous = new ThingDescription.Builder("Anonymous Thing")
+      .addSecurityScheme(new APIKeySecurityScheme(TokenLocation.HEADER, "X-API-Key"))
+      .build();
+    ThingDescription other = new ThingDescription.Builder("My Other Thing")
+      .addThingURI("http://example.org/#other")
+      .addTriple(rdf.createIRI("http://example.org/#other"),
+        rdf.createIRI("http://www.w3.org/2000/01/rdf-schema#comment"), rdf.createLiteral("Other"))
+      .build();
+
+    for (RDFFormat format : Arrays.asList(RDFFormat.NQUADS, RDFFormat.TRIG)) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      TDGraphWriter.writeAll(Arrays.asList(simple, anonymous, other), out, format);
+
+      List<ThingDescription> tds = new ArrayList<ThingDescription>();
+      TDGraphReader.readAllFromDataset(format, new ByteArrayInputStream(out.toByteArray()),
+        result -> tds.add(result.getThingDescription().get()));
+
+      assertEquals(format.getName(), 3, tds.size());
+      assertEquals("http://example.org/#thing", tds.get(0).getThingURI().get());
+      assertEquals(1, tds.get(0).getProperties().size());
+      assertEquals(1, tds.get(0).getActions().size());
+      assertEquals("Anonymous Thing", tds.get(1).getTitle());
+      assertFalse(tds.get(1).getThingURI().isPresent());
+      assertTrue(tds.get(1).getFirstSecuritySchemeByType(WoTSec.APIKeySecurityScheme).isPresent());
+      assertEquals("My Other Thing", tds.get(2).getTitle());
+    }
+  }
+
+  @Test
+  public void testReadAllFromDatasetWithEmbeddedThings() {
+    // The graph of the TD without URI keeps its own blank node typed as a thing, and the other TD
+    // links to a thing
+    ThingDescription anonymous = TDGraphReader.readFromString(TDFormat.RDF_TURTLE,
+      TEST_SIMPLE_TD.replace("<http://example.org/#thing>", "[]"));
+    ThingDescription linking = new ThingDescription.Builder("My Other Thing")
+      .addThingURI("http://example.org/#other")
+      .addTriple(rdf.createIRI("http://example.org/#other"),
+        rdf.createIRI("http://example.org/#controls"), rdf.createIRI("http://example.org/#lamp"))
+      .addTriple(rdf.createIRI("http://example.org/#lamp"), RDF.TYPE, rdf.createIRI(TD.Thing))
+      .build();
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TDGraphWriter.writeAll(Arrays.asList(anonymous, linking), out, RDFFormat.NQUADS);
+
+    List<TDReadResult> results = new ArrayList<TDReadResult>();
+    TDGraphReader.readAllFromDataset(RDFFormat.NQUADS,
+      new ByteArrayInputStream(out.toByteArray()), results::add);
+
+    assertEquals(2, results.size());
+    assertEquals("My Thing", results.get(0).getThingDescription().get().getTitle());
+    assertEquals("My Other Thing", results.get(1).getThingDescription().get().getTitle());
+  }
+
+  @Test
+  public void testReadAllFromDatasetReportsInvalidTDs() {
+    String security = "<" + TD.hasSecurityConfiguration + "> _:sec";
+    String dataset =
+      "<http://example.org/#a> <" + DCT.title + "> \"A\" <http://example.org/#a> .\n" +
+      "<http://example.org/#b> <" + DCT.title + "> \"B\" <http://example.org/#b> .\n" +
+      "<http://example.org/#b> " + security + " <http://example.org/#b> .\n";
+
+    List<TDReadResult> results = new ArrayList<TDReadResult>();
+    TDGraphReader.readAllFromDataset(RDFFormat.NQUADS,
+      new ByteArrayInputStream(dataset.getBytes(StandardCharsets.UTF_8)), results::add);
+
+    // The first TD has no security definitions, the second TD is still read
+    assertEquals(2, results.size());
+    assertFalse(results.get(0).isValid());
+    assertEquals(0, results.get(0).getIndex());
+    assertEquals("B", results.get(1).getThingDescription().get().getTitle());
+    assertEquals(1, results.get(1).getIndex());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWriteAllRequiresNamedGraphs() {
+    TDGraphWriter.writeAll(Arrays.asList(new ThingDescription.Builder("My Thing").build()),
+      new ByteArrayOutputStream(), RDFFormat.NTRIPLES);
+  }
+
+  @Test(expected = InvalidTDException.class)
+  public void testReadAllFromDatasetRejectsDefaultGraph() {
+    String dataset = "<http://example.org/#a> <" + DCT.title + "> \"A\" .\n";
+
+    TDGraphReader.readAllFromDataset(RDFFormat.NQUADS,
+      new ByteArrayInputStream(dataset.getBytes(StandardCharsets.UTF_8)), result -> { });
+  }
+
+  @Test(expected = InvalidTDException.class)
+  public void testReadAllFromDatasetNotContiguous() {
+    String security = "<" + TD.hasSecurityConfiguration + "> _:sec";
+    String dataset =
+      "<http://example.org/#a> <" + DCT.title + "> \"A\" <http://example.org/#a> .\n" +
+      "<http://example.org/#a> " + security + " <http://example.org/#a> .\n" +
+      "<http://example.org/#b> <" + DCT.title + "> \"B\" <http://example.org/#b> .\n" +
+      "<http://example.org/#b> " + security + " <http://example.org/#b> .\n" +
+      "<http://example.org/#a> <" + RDF.TYPE + "> <" + TD.Thing + "> <http://example.org/#a> .\n";
+
+    // Both TDs are valid, the second graph of the first TD is rejected
+    TDGraphReader.readAllFromDataset(RDFFormat.NQUADS,
+      new ByteArrayInputStream(dataset.getBytes(StandardCharsets.UTF_8)), result -> { });
+  }
+
   private void assertForm(Form form, String methodName, String target,
                           String contentType, String operationType) {
     assertEquals(methodName, form.getMethodName().get());
@@ -4,6 +4,8 @@ import ch.unisg.ics.interactions.wot.td.ThingDescription;
 import ch.unisg.ics.interactions.wot.td.affordances.ActionAffordance;
 import ch.unisg.ics.interactions.wot.td.affordances.Form;
 import ch.unisg.ics.interactions.wot.td.affordances.PropertyAffordance;
+import ch.unisg.ics.interactions.wot.td.io.SampleTDs;
+import ch.unisg.ics.interactions.wot.td.io.graph.ReaderOptions.GraphRetention;
 import ch.unisg.ics.interactions.wot.td.schemas.BooleanSchema;
 import ch.unisg.ics.interactions.wot.td.schemas.IntegerSchema;
 import ch.unisg.ics.interactions.wot.td.schemas.NumberSchema;
@@ -11,8 +13,12 @@ import ch.unisg.ics.interactions.wot.td.schemas.ObjectSchema;
 import ch.unisg.ics.interactions.wot.td.security.APIKeySecurityScheme;
 import ch.unisg.ics.interactions.wot.td.security.APIKeySecurityScheme.TokenLocation;
 import ch.unisg.ics.interactions.wot.td.security.NoSecurityScheme;
+import ch.unisg.ics.interactions.wot.td.vocabularies.HCTL;
+import ch.unisg.ics.interactions.wot.td.vocabularies.TD;
 import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
@@ -23,14 +29,18 @@ import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.eclipse.rdf4j.rio.RDFHandlerException;
 import org.eclipse.rdf4j.rio.RDFParseException;
+import org.eclipse.rdf4j.rio.Rio;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class TDGraphWriterTest {
@@ -375,6 +385,79 @@ public class TDGraphWriterTest {
     assertIsomorphicGraphs(testTD, td);
   }
 
+  @Test
+  public void testStreamToRDFFormats() throws IOException {
+    PropertyAffordance property = new PropertyAffordance.Builder(
+        new IntegerSchema.Builder().addMinimum(0).build(),
+        new Form.Builder(IO_BASE_IRI + "count").build())
+        .addName("count")
+        .build();
+
+    ValueFactory rdf = SimpleValueFactory.getInstance();
+    ThingDescription td = new ThingDescription.Builder(THING_TITLE)
+        .addThingURI(THING_IRI)
+        .addSecurityScheme(new NoSecurityScheme())
+        .addProperty(property)
+        .addTriple(rdf.createIRI(THING_IRI), DCTERMS.CREATOR, rdf.createLiteral("Alice"))
+        .build();
+
+    Model expectedModel = ReadWriteUtils.readModelFromString(RDFFormat.TURTLE,
+        new TDGraphWriter(td).write(), IO_BASE_IRI);
+
+    for (RDFFormat format : Arrays.asList(RDFFormat.TURTLE, RDFFormat.NTRIPLES, RDFFormat.NQUADS,
+        RDFFormat.BINARY)) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      new TDGraphWriter(td).write(out, format);
+
+      Model tdModel = Rio.parse(new ByteArrayInputStream(out.toByteArray()), IO_BASE_IRI, format);
+      assertTrue(format.getName(), Models.isomorphic(expectedModel, tdModel));
+    }
+  }
+
+  @Test
+  public void testSerializerSameAsWriter() throws IOException {
+    ThingDescription td = constructThingDescription(new ArrayList<PropertyAffordance>(),
+        new ArrayList<ActionAffordance>());
+    TDGraphSerializer serializer = new TDGraphSerializer.Builder()
+        .setNamespace("td", "https://www.w3.org/2019/wot/td#")
+        .build();
+
+    Model expectedModel = ReadWriteUtils.readModelFromString(RDFFormat.TURTLE,
+        new TDGraphWriter(td).write(), IO_BASE_IRI);
+
+    String description = serializer.write(td);
+    assertTrue(description.contains("@prefix td: <https://www.w3.org/2019/wot/td#>"));
+    assertTrue(Models.isomorphic(expectedModel,
+        ReadWriteUtils.readModelFromString(RDFFormat.TURTLE, description, IO_BASE_IRI)));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    serializer.write(td, out, RDFFormat.NTRIPLES);
+    assertTrue(Models.isomorphic(expectedModel,
+        Rio.parse(new ByteArrayInputStream(out.toByteArray()), IO_BASE_IRI, RDFFormat.NTRIPLES)));
+  }
+
+  @Test
+  public void testWriteCanonical() {
+    Form form = new Form.Builder(IO_BASE_IRI + "count").build();
+    PropertyAffordance property = new PropertyAffordance.Builder(
+        new IntegerSchema.Builder().addMinimum(0).build(), Arrays.asList(form, form))
+        .addName("count")
+        .build();
+
+    String canonical = new TDGraphWriter(constructThingDescription(
+        Collections.singletonList(property), new ArrayList<ActionAffordance>())).writeCanonical();
+
+    // Blank nodes are labeled deterministically, unlike the blank nodes created by the writer
+    assertTrue(canonical.equals(new TDGraphWriter(constructThingDescription(
+        Collections.singletonList(property), new ArrayList<ActionAffordance>())).writeCanonical()));
+    assertTrue(canonical.contains("_:b0 "));
+    // Statements are sorted
+    List<String> lines = Arrays.asList(canonical.split("\n"));
+    List<String> sorted = new ArrayList<String>(lines);
+    Collections.sort(sorted);
+    assertTrue(lines.equals(sorted));
+  }
+
   private void assertIsomorphicGraphs(String expectedTD, ThingDescription td) throws RDFParseException,
       RDFHandlerException, IOException {
     Model expectedModel = ReadWriteUtils.readModelFromString(RDFFormat.TURTLE, expectedTD,
@@ -399,6 +482,34 @@ public class TDGraphWriterTest {
 
   }
 
+  @Test
+  public void testWriteExtrasOnlyGraph() throws IOException {
+    ThingDescription extrasOnly = SampleTDs.read(SampleTDs.EXTRAS_TD, GraphRetention.EXTRAS_ONLY);
+    ThingDescription noGraph = SampleTDs.read(SampleTDs.EXTRAS_TD, GraphRetention.NONE);
+
+    Model written = ReadWriteUtils.readModelFromString(RDFFormat.TURTLE,
+        new TDGraphWriter(extrasOnly).write(), IO_BASE_IRI);
+    Model writtenWithoutGraph = ReadWriteUtils.readModelFromString(RDFFormat.TURTLE,
+        new TDGraphWriter(noGraph).write(), IO_BASE_IRI);
+
+    // The extra triples are written once, next to the triples of the object model
+    ValueFactory rdf = SimpleValueFactory.getInstance();
+    IRI thingId = rdf.createIRI(THING_IRI);
+    IRI hasOwner = rdf.createIRI("http://example.org/ns#hasOwner");
+    IRI name = rdf.createIRI("http://example.org/ns#name");
+
+    assertEquals(writtenWithoutGraph.size() + 6, written.size());
+    assertEquals(2, written.filter(thingId, DCTERMS.TITLE, null).size());
+    assertTrue(written.contains(thingId, RDF.TYPE, rdf.createLiteral("Lamp")));
+
+    Resource ownerId = Models.objectResource(written.filter(thingId, hasOwner, null)).get();
+    assertTrue(written.contains(ownerId, name, rdf.createLiteral("Alice")));
+
+    // The form without a target is not read, but is kept with the property
+    assertTrue(written.contains(null, rdf.createIRI(HCTL.hasOperationType),
+        rdf.createIRI(TD.writeProperty)));
+  }
+
   private ThingDescription constructThingDescription(List<PropertyAffordance> properties,
       List<ActionAffordance> actions) {
     ThingDescription.Builder builder = new ThingDescription.Builder(THING_TITLE)
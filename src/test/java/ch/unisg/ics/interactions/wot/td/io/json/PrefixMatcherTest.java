@@ -0,0 +1,39 @@
+package ch.unisg.ics.interactions.wot.td.io.json;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class PrefixMatcherTest {
+
+  private PrefixMatcher matcher;
+
+  @Before
+  public void init() {
+    matcher = new PrefixMatcher();
+    matcher.add("http://example.org/", "ex1");
+    matcher.add("http://example.org/overlapping/", "ex2");
+    matcher.add("https://saref.etsi.org/core/", "saref");
+  }
+
+  @Test
+  public void testCompactLongestMatch() {
+    assertEquals("ex1:Type1", matcher.compact("http://example.org/Type1"));
+    assertEquals("ex2:Type2", matcher.compact("http://example.org/overlapping/Type2"));
+    assertEquals("ex1:overlap", matcher.compact("http://example.org/overlap"));
+    assertEquals("saref:LightSwitch", matcher.compact("https://saref.etsi.org/core/LightSwitch"));
+  }
+
+  @Test
+  public void testCompactWithoutMatch() {
+    assertEquals("http://example.com/Type", matcher.compact("http://example.com/Type"));
+    assertEquals("http://example.org", matcher.compact("http://example.org"));
+  }
+
+  @Test
+  public void testReplacePrefix() {
+    matcher.add("http://example.org/", "ex");
+    assertEquals("ex:Type1", matcher.compact("http://example.org/Type1"));
+  }
+}
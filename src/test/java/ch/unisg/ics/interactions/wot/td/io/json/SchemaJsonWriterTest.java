@@ -167,5 +167,28 @@ public class SchemaJsonWriterTest {
     Assert.assertEquals(expected, test);
   }
 
+  @Test
+  public void testReuseSchemaRepresentation() {
+    DataSchema name = new StringSchema.Builder().addSemanticType("sem:name").build();
+    ObjectSchema person = new ObjectSchema.Builder()
+      .addProperty("name", name)
+      .build();
+
+    JsonObject nameObj = SchemaJsonWriter.getDataSchemaObject(name);
+    JsonObject personObj = SchemaJsonWriter.getDataSchemaObject(person);
 
+    Assert.assertSame(personObj, SchemaJsonWriter.getDataSchemaObject(person));
+    Assert.assertSame(nameObj, personObj.getJsonObject("properties").getJsonObject("name"));
+
+    // Representations are cached by identity, equal schemas have equal representations
+    JsonObject equalObj = SchemaJsonWriter.getDataSchemaObject(
+      new StringSchema.Builder().addSemanticType("sem:name").build());
+    Assert.assertEquals(nameObj, equalObj);
+    Assert.assertNotSame(nameObj, equalObj);
+
+    // Builders are copies that can be extended
+    Assert.assertEquals("Name", SchemaJsonWriter.getDataSchema(name).add("title", "Name").build()
+      .getString("title"));
+    Assert.assertFalse(SchemaJsonWriter.getDataSchemaObject(name).containsKey("title"));
+  }
 }
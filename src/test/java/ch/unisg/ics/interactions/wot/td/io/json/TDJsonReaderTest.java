@@ -0,0 +1,268 @@
+package ch.unisg.ics.interactions.wot.td.io.json;
+
+import ch.unisg.ics.interactions.wot.td.ThingDescription;
+import ch.unisg.ics.interactions.wot.td.affordances.ActionAffordance;
+import ch.unisg.ics.interactions.wot.td.affordances.Form;
+import ch.unisg.ics.interactions.wot.td.affordances.PropertyAffordance;
+import ch.unisg.ics.interactions.wot.td.io.InvalidTDException;
+import ch.unisg.ics.interactions.wot.td.schemas.DataSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.IntegerSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.ObjectSchema;
+import ch.unisg.ics.interactions.wot.td.schemas.StringSchema;
+import ch.unisg.ics.interactions.wot.td.security.APIKeySecurityScheme;
+import ch.unisg.ics.interactions.wot.td.security.NoSecurityScheme;
+import ch.unisg.ics.interactions.wot.td.security.SecurityScheme;
+import ch.unisg.ics.interactions.wot.td.vocabularies.TD;
+import ch.unisg.ics.interactions.wot.td.vocabularies.WoTSec;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class TDJsonReaderTest {
+
+  private static final String THING_TITLE = "My Thing";
+  private static final String THING_IRI = "http://example.org/#thing";
+
+  private static final String TEST_SIMPLE_TD = "{\n" +
+    "  \"@context\": [\"https://www.w3.org/2019/wot/td/v1\", {\n" +
+    "    \"eve\": \"http://w3id.org/eve#\"\n" +
+    "  }],\n" +
+    "  \"id\": \"http://example.org/#thing\",\n" +
+    "  \"@type\": [\"Thing\", \"eve:Artifact\"],\n" +
+    "  \"title\": \"My Thing\",\n" +
+    "  \"securityDefinitions\": {\n" +
+    "    \"apikey_sc\": { \"scheme\": \"apikey\", \"in\": \"header\", \"name\": \"X-API-Key\" }\n" +
+    "  },\n" +
+    "  \"security\": \"apikey_sc\",\n" +
+    "  \"eve:hasManual\": \"http://example.org/manual\",\n" +
+    "  \"properties\": {\n" +
+    "    \"temperature\": {\n" +
+    "      \"title\": \"Temperature\",\n" +
+    "      \"type\": \"integer\",\n" +
+    "      \"minimum\": -10,\n" +
+    "      \"maximum\": 40,\n" +
+    "      \"observable\": true,\n" +
+    "      \"forms\": [{\n" +
+    "        \"href\": \"properties/temperature\",\n" +
+    "        \"op\": [\"readproperty\"]\n" +
+    "      }]\n" +
+    "    }\n" +
+    "  },\n" +
+    "  \"actions\": {\n" +
+    "    \"setLabel\": {\n" +
+    "      \"@type\": \"eve:SetLabel\",\n" +
+    "      \"forms\": [{\n" +
+    "        \"href\": \"http://example.org/actions/label\",\n" +
+    "        \"contentType\": \"application/json\",\n" +
+    "        \"op\": \"invokeaction\",\n" +
+    "        \"htv:methodName\": \"PUT\"\n" +
+    "      }],\n" +
+    "      \"input\": {\n" +
+    "        \"type\": \"object\",\n" +
+    "        \"properties\": { \"label\": { \"type\": \"string\" } },\n" +
+    "        \"required\": [\"label\"]\n" +
+    "      }\n" +
+    "    }\n" +
+    "  },\n" +
+    "  \"base\": \"http://example.org/\"\n" +
+    "}";
+
+  @Test
+  public void testReadThingMetadata() {
+    ThingDescription td = TDJsonReader.readFromString(TEST_SIMPLE_TD);
+
+    assertEquals(THING_TITLE, td.getTitle());
+    assertEquals(THING_IRI, td.getThingURI().get());
+    assertEquals("http://example.org/", td.getBaseURI().get());
+    assertEquals(2, td.getSemanticTypes().size());
+    assertTrue(td.getSemanticTypes().contains(TD.Thing));
+    assertTrue(td.getSemanticTypes().contains("http://w3id.org/eve#Artifact"));
+  }
+
+  @Test
+  public void testReadSecuritySchemes() {
+    ThingDescription td = TDJsonReader.readFromString(TEST_SIMPLE_TD);
+
+    assertEquals(1, td.getSecuritySchemes().size());
+    SecurityScheme scheme = td.getSecuritySchemes().get(0);
+    assertEquals(WoTSec.APIKeySecurityScheme, scheme.getSchemeType());
+    assertEquals(APIKeySecurityScheme.TokenLocation.HEADER, ((APIKeySecurityScheme) scheme).getIn());
+    assertEquals("X-API-Key", ((APIKeySecurityScheme) scheme).getName().get());
+  }
+
+  @Test
+  public void testReadProperty() {
+    ThingDescription td = TDJsonReader.readFromString(TEST_SIMPLE_TD);
+
+    assertEquals(1, td.getProperties().size());
+    PropertyAffordance property = td.getPropertyByName("temperature").get();
+    assertEquals("Temperature", property.getTitle().get());
+    assertTrue(property.isObservable());
+
+    assertEquals(DataSchema.INTEGER, property.getDataSchema().getDatatype());
+    IntegerSchema schema = (IntegerSchema) property.getDataSchema();
+    assertEquals(-10, schema.getMinimumAsInteger().get().intValue());
+    assertEquals(40, schema.getMaximumAsInteger().get().intValue());
+
+    // Relative targets are resolved against the base, which is declared after the affordances
+    Form form = property.getForms().get(0);
+    assertEquals("http://example.org/properties/temperature", form.getTarget());
+    assertEquals("application/json", form.getContentType());
+    assertTrue(form.hasOperationType(TD.readProperty));
+  }
+
+  @Test
+  public void testReadAction() {
+    ThingDescription td = TDJsonReader.readFromString(TEST_SIMPLE_TD);
+
+    assertEquals(1, td.getActions().size());
+    ActionAffordance action = td.getActionByName("setLabel").get();
+    assertTrue(action.hasSemanticType("http://w3id.org/eve#SetLabel"));
+
+    Form form = action.getForms().get(0);
+    assertEquals("http://example.org/actions/label", form.getTarget());
+    assertEquals("PUT", form.getMethodName().get());
+    assertTrue(form.hasOperationType(TD.invokeAction));
+
+    ObjectSchema input = (ObjectSchema) action.getInputSchema().get();
+    assertEquals(DataSchema.STRING, input.getProperties().get("label").getDatatype());
+    assertTrue(input.getRequiredProperties().contains("label"));
+    assertFalse(action.getOutputSchema().isPresent());
+  }
+
+  @Test
+  public void testReadAnnotationsAsGraph() {
+    ThingDescription td = TDJsonReader.readFromString(TEST_SIMPLE_TD);
+    ValueFactory rdf = SimpleValueFactory.getInstance();
+
+    Model graph = td.getGraph().get();
+    assertEquals("http://w3id.org/eve#", graph.getNamespace("eve").get().getName());
+    assertTrue(graph.contains(rdf.createIRI(THING_IRI), rdf.createIRI("http://w3id.org/eve#hasManual"),
+      rdf.createIRI("http://example.org/manual")));
+  }
+
+  @Test
+  public void testReadWrittenTD() {
+    ThingDescription original = new ThingDescription.Builder(THING_TITLE)
+      .addThingURI(THING_IRI)
+      .addSemanticType(TD.Thing)
+      .addSecurityScheme(new NoSecurityScheme())
+      .addProperty(new PropertyAffordance.Builder(new StringSchema.Builder().build(),
+          new Form.Builder("http://example.org/name").addOperationType(TD.readProperty).build())
+        .addName("name")
+        .build())
+      .build();
+
+    ThingDescription td = TDJsonReader.readFromString(new TDJsonWriter(original).write());
+
+    assertEquals(THING_TITLE, td.getTitle());
+    assertEquals(THING_IRI, td.getThingURI().get());
+    assertTrue(td.getSemanticTypes().contains(TD.Thing));
+    assertEquals(WoTSec.NoSecurityScheme, td.getSecuritySchemes().get(0).getSchemeType());
+
+    PropertyAffordance property = td.getPropertyByName("name").get();
+    assertEquals(DataSchema.STRING, property.getDataSchema().getDatatype());
+    assertEquals("http://example.org/name", property.getForms().get(0).getTarget());
+    assertTrue(property.getForms().get(0).hasOperationType(TD.readProperty));
+  }
+
+  @Test
+  public void testReadFormsSkipsUnmappedMembers() {
+    ThingDescription td = TDJsonReader.readFromString("{\n" +
+      "  \"title\": \"My Thing\",\n" +
+      "  \"securityDefinitions\": { \"nosec_sc\": { \"scheme\": \"nosec\" } },\n" +
+      "  \"security\": \"nosec_sc\",\n" +
+      "  \"properties\": {\n" +
+      "    \"status\": {\n" +
+      "      \"type\": \"boolean\",\n" +
+      "      \"forms\": [{\n" +
+      "        \"op\": \"writeproperty\",\n" +
+      "        \"response\": { \"contentType\": \"text/plain\" }\n" +
+      "      }, {\n" +
+      "        \"additionalResponses\": [{ \"success\": false, \"schema\": { } }],\n" +
+      "        \"href\": \"status\",\n" +
+      "        \"op\": [\"readproperty\"]\n" +
+      "      }]\n" +
+      "    }\n" +
+      "  },\n" +
+      "  \"base\": \"http://example.org/\"\n" +
+      "}");
+
+    PropertyAffordance property = td.getPropertyByName("status").get();
+    assertEquals(1, property.getForms().size());
+    assertEquals("http://example.org/status", property.getForms().get(0).getTarget());
+    assertTrue(property.getForms().get(0).hasOperationType(TD.readProperty));
+  }
+
+  @Test
+  public void testMissingValidForm() {
+    InvalidTDException e = assertThrows(InvalidTDException.class, () ->
+      TDJsonReader.readFromString("{\n" +
+        "  \"title\": \"My Thing\",\n" +
+        "  \"securityDefinitions\": { \"nosec_sc\": { \"scheme\": \"nosec\" } },\n" +
+        "  \"security\": \"nosec_sc\",\n" +
+        "  \"actions\": {\n" +
+        "    \"toggle\": { \"forms\": [{ \"op\": \"invokeaction\" }] }\n" +
+        "  }\n" +
+        "}"));
+
+    assertTrue(e.getCause().getMessage().endsWith("at least one valid form."));
+  }
+
+  @Test(expected = InvalidTDException.class)
+  public void testAnnotationsRequireId() {
+    TDJsonReader.readFromString("{\n" +
+      "  \"@context\": [\"https://www.w3.org/2019/wot/td/v1\", {\n" +
+      "    \"eve\": \"http://w3id.org/eve#\"\n" +
+      "  }],\n" +
+      "  \"title\": \"My Thing\",\n" +
+      "  \"securityDefinitions\": { \"nosec_sc\": { \"scheme\": \"nosec\" } },\n" +
+      "  \"security\": \"nosec_sc\",\n" +
+      "  \"eve:hasManual\": \"http://example.org/manual\"\n" +
+      "}");
+  }
+
+  @Test(expected = InvalidTDException.class)
+  public void testMissingMandatoryTitle() {
+    TDJsonReader.readFromString("{ \"securityDefinitions\": { \"nosec_sc\": { \"scheme\": " +
+      "\"nosec\" } }, \"security\": [\"nosec_sc\"] }");
+  }
+
+  @Test(expected = InvalidTDException.class)
+  public void testMissingMandatorySecurity() {
+    TDJsonReader.readFromString("{ \"title\": \"My Thing\" }");
+  }
+
+  @Test(expected = InvalidTDException.class)
+  public void testInvalidJson() {
+    TDJsonReader.readFromString("{ \"title\": \"My Thing\", ");
+  }
+
+  @Test
+  public void testReadFromFile() throws IOException {
+    Path file = Files.createTempFile("td", ".json");
+
+    try {
+      Files.write(file, TEST_SIMPLE_TD.getBytes(StandardCharsets.UTF_8));
+      ThingDescription td = TDJsonReader.readFromFile(file.toString());
+
+      assertEquals(THING_TITLE, td.getTitle());
+      assertEquals(THING_IRI, td.getThingURI().get());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testReadFromMissingFile() throws IOException {
+    TDJsonReader.readFromFile("samples/missing_td.json");
+  }
+}
@@ -0,0 +1,109 @@
+package ch.unisg.ics.interactions.wot.td.io.json;
+
+import ch.unisg.ics.interactions.wot.td.ThingDescription;
+import ch.unisg.ics.interactions.wot.td.io.SampleTDs;
+import ch.unisg.ics.interactions.wot.td.io.graph.ReaderOptions.GraphRetention;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.util.ModelBuilder;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class TDJsonSerializerTest {
+
+  private static final String THING_IRI = "http://example.org/#thing";
+  private static final String EVE_NS = "http://w3id.org/eve#";
+
+  @Test
+  public void testWriteSameAsWriter() {
+    TDJsonSerializer serializer = new TDJsonSerializer.Builder()
+      .setNamespace("eve", EVE_NS)
+      .build();
+    ThingDescription td = SampleTDs.read(SampleTDs.EXTRAS_TD, GraphRetention.EXTRAS_ONLY);
+
+    JsonObject expected = new TDJsonWriter(td).setNamespace("eve", EVE_NS).getJson();
+
+    Assert.assertEquals(expected, serializer.getJson(td));
+    Assert.assertEquals(expected, Json.createReader(new StringReader(serializer.write(td)))
+      .readObject());
+    // Writing the TD does not add the types from the graph to the TD
+    Assert.assertEquals(1, td.getSemanticTypes().size());
+  }
+
+  @Test
+  public void testWriterIsReusable() {
+    ThingDescription td = SampleTDs.read(SampleTDs.SIMPLE_TD, GraphRetention.NONE);
+    TDJsonWriter writer = new TDJsonWriter(td);
+
+    Assert.assertEquals(writer.getJson(), writer.getJson());
+  }
+
+  @Test
+  public void testWriterWithNamespaceIsReusable() {
+    ThingDescription td = SampleTDs.read(SampleTDs.SIMPLE_TD, GraphRetention.NONE);
+    TDJsonWriter writer = new TDJsonWriter(td).setNamespace("eve", EVE_NS);
+
+    JsonObject first = writer.getJson();
+    String written = writer.write();
+    JsonObject second = writer.getJson();
+
+    Assert.assertEquals(Json.createArrayBuilder()
+      .add(JWot.WOT_CONTEXT)
+      .add(Json.createObjectBuilder().add("eve", EVE_NS))
+      .build(), first.get(JWot.CONTEXT));
+    Assert.assertEquals(first, second);
+    Assert.assertEquals(first, Json.createReader(new StringReader(written)).readObject());
+  }
+
+  @Test
+  public void testGraphNamespacesAreNotShared() {
+    TDJsonSerializer serializer = new TDJsonSerializer.Builder().build();
+    ThingDescription withNamespace = new ThingDescription.Builder("My Thing")
+      .addThingURI(THING_IRI)
+      .addGraph(new ModelBuilder()
+        .setNamespace("eve", EVE_NS)
+        .subject(THING_IRI)
+        .add(RDF.TYPE, SimpleValueFactory.getInstance().createIRI(EVE_NS, "Artifact"))
+        .build())
+      .build();
+    ThingDescription withoutNamespace = new ThingDescription.Builder("My Thing").build();
+
+    Assert.assertEquals("eve:Artifact", serializer.getJson(withNamespace)
+      .getString(JWot.SEMANTIC_TYPE));
+    Assert.assertEquals(Json.createValue(JWot.WOT_CONTEXT),
+      serializer.getJson(withoutNamespace).get(JWot.CONTEXT));
+  }
+
+  @Test
+  public void testShareAcrossThreads() throws Exception {
+    TDJsonSerializer serializer = new TDJsonSerializer.Builder()
+      .setNamespace("eve", EVE_NS)
+      .build();
+    List<ThingDescription> tds = IntStream.range(0, 8)
+      .mapToObj(i -> SampleTDs.read(SampleTDs.SIMPLE_TD, "Thing " + i, GraphRetention.NONE))
+      .collect(Collectors.toList());
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    try {
+      List<Future<String>> results = IntStream.range(0, 64)
+        .mapToObj(i -> executor.submit(() -> serializer.write(tds.get(i % 8))))
+        .collect(Collectors.toList());
+
+      for (int i = 0; i < results.size(); i++) {
+        Assert.assertEquals(serializer.write(tds.get(i % 8)), results.get(i).get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -4,6 +4,8 @@ import ch.unisg.ics.interactions.wot.td.ThingDescription;
 import ch.unisg.ics.interactions.wot.td.affordances.ActionAffordance;
 import ch.unisg.ics.interactions.wot.td.affordances.Form;
 import ch.unisg.ics.interactions.wot.td.affordances.PropertyAffordance;
+import ch.unisg.ics.interactions.wot.td.io.SampleTDs;
+import ch.unisg.ics.interactions.wot.td.io.graph.ReaderOptions.GraphRetention;
 import ch.unisg.ics.interactions.wot.td.schemas.ObjectSchema;
 import ch.unisg.ics.interactions.wot.td.schemas.StringSchema;
 import ch.unisg.ics.interactions.wot.td.security.NoSecurityScheme;
@@ -21,7 +23,13 @@ import org.junit.Test;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 
 public class TDJsonWriterTest {
@@ -483,4 +491,161 @@ public class TDJsonWriterTest {
     Assert.assertEquals(expected, test);
   }
 
+  @Test
+  public void testWriteMultiValuedMetadata() {
+    ValueFactory rdf = SimpleValueFactory.getInstance();
+    final String NS = "http://w3id.org/eve#";
+
+    ThingDescription.Builder builder = new ThingDescription.Builder(THING_TITLE)
+      .addThingURI(THING_IRI);
+
+    for (int i = 0; i < 3; i++) {
+      builder.addTriple(rdf.createIRI(THING_IRI), rdf.createIRI(NS, "hasPart"),
+        rdf.createIRI("http://example.org/parts/" + i));
+    }
+
+    BNode ownerId = rdf.createBNode();
+    builder.addTriple(rdf.createIRI(THING_IRI), rdf.createIRI(NS, "hasOwner"), ownerId)
+      .addTriple(ownerId, RDF.TYPE, rdf.createIRI(NS, "Person"))
+      .addTriple(ownerId, RDF.TYPE, rdf.createIRI(NS, "Agent"));
+
+    JsonObject test = new TDJsonWriter(builder.build())
+      .setNamespace("eve", NS)
+      .getJson();
+
+    // Each key is written once, with all its values in a flat array
+    Assert.assertEquals(Json.createArrayBuilder()
+      .add("http://example.org/parts/0")
+      .add("http://example.org/parts/1")
+      .add("http://example.org/parts/2")
+      .build(), test.get("eve:hasPart"));
+
+    Assert.assertEquals(Json.createObjectBuilder()
+      .add("@type", Json.createArrayBuilder().add("eve:Person").add("eve:Agent"))
+      .build(), test.get("eve:hasOwner"));
+  }
+
+  @Test
+  public void testWriteToStreamAndWriter() {
+    ValueFactory rdf = SimpleValueFactory.getInstance();
+    final String NS = "http://w3id.org/eve#";
+
+    ThingDescription td = new ThingDescription.Builder(THING_TITLE)
+      .addThingURI(THING_IRI)
+      .addBaseURI(IO_BASE_IRI)
+      .addSemanticType("https://saref.etsi.org/core/LightSwitch")
+      .addProperty(new PropertyAffordance.Builder(new StringSchema.Builder().build(),
+        new Form.Builder(IO_BASE_IRI + "status").build())
+        .addName("status")
+        .build())
+      .addAction(new ActionAffordance.Builder(new Form.Builder(IO_BASE_IRI + "toggle").build())
+        .addName("toggle")
+        .build())
+      .addTriple(rdf.createIRI(THING_IRI), rdf.createIRI(NS, "hasManual"),
+        rdf.createIRI("http://example.org/manual"))
+      .build();
+
+    JsonObject expected = new TDJsonWriter(td)
+      .setNamespace("eve", NS)
+      .getJson();
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new TDJsonWriter(td).setNamespace("eve", NS).write(out);
+    JsonObject fromStream = Json.createReader(new StringReader(
+      new String(out.toByteArray(), StandardCharsets.UTF_8))).readObject();
+
+    StringWriter writer = new StringWriter();
+    new TDJsonWriter(td).setNamespace("eve", NS).write(writer);
+    JsonObject fromWriter = Json.createReader(new StringReader(writer.toString())).readObject();
+
+    Assert.assertEquals(expected, fromStream);
+    Assert.assertEquals(expected, fromWriter);
+  }
+
+  @Test
+  public void testWriteAffordancesToStream() {
+    ThingDescription td = new ThingDescription.Builder(THING_TITLE)
+      .addThingURI(THING_IRI)
+      .addProperty(new PropertyAffordance.Builder(new StringSchema.Builder()
+          .addSemanticType("http://example.org/Label")
+          .build(),
+        Arrays.asList(new Form.Builder(IO_BASE_IRI + "label")
+            .addOperationType(TD.readProperty)
+            .setMethodName("GET")
+            .build(),
+          new Form.Builder(IO_BASE_IRI + "label/observe")
+            .addSubProtocol("longpoll")
+            .build()))
+        .addName("label")
+        .addTitle("Label")
+        .addSemanticType("http://example.org/Status")
+        .addObserve()
+        .build())
+      .addProperty(new PropertyAffordance.Builder(new StringSchema.Builder()
+          .addSemanticType("http://example.org/Name")
+          .build(),
+        new Form.Builder(IO_BASE_IRI + "name").build())
+        .addName("name")
+        .build())
+      .addAction(new ActionAffordance.Builder(new Form.Builder(IO_BASE_IRI + "label").build())
+        .addName("setLabel")
+        .addSemanticType("http://example.org/SetLabel")
+        .addInputSchema(new StringSchema.Builder().build())
+        .addOutputSchema(new ObjectSchema.Builder().build())
+        .build())
+      .build();
+
+    // The affordances are streamed with the members of the built document, in the same order
+    TDJsonWriter writer = new TDJsonWriter(td).setNamespace("ex", "http://example.org/");
+    Assert.assertEquals(writer.getJson().toString(), writer.write());
+  }
+
+  @Test
+  public void testWriteExtrasOnlyGraph() {
+    final String NS = "http://example.org/ns#";
+    ThingDescription extrasOnly = SampleTDs.read(SampleTDs.EXTRAS_TD, GraphRetention.EXTRAS_ONLY);
+    ThingDescription noGraph = SampleTDs.read(SampleTDs.EXTRAS_TD, GraphRetention.NONE);
+
+    JsonObject test = new TDJsonWriter(extrasOnly).setNamespace("ex", NS).getJson();
+
+    // The namespaces of the retained graph are also used to compact the IRIs of the object model
+    TDJsonWriter writer = new TDJsonWriter(noGraph).setNamespace("ex", NS);
+    extrasOnly.getGraph().get().getNamespaces()
+      .forEach(ns -> writer.setNamespace(ns.getPrefix(), ns.getName()));
+    JsonObject withoutGraph = writer.getJson();
+
+    // Only the extra triples of the thing are added to the document written from the object model
+    Assert.assertEquals(Json.createObjectBuilder().add("ex:name", "Alice").build(),
+      test.get("ex:hasOwner"));
+    Assert.assertEquals(new HashSet<String>(Arrays.asList("My Thing", "Mein Ding")),
+      new HashSet<String>(Arrays.asList(test.getString(JWot.TITLE), test.getString("dct:title"))));
+    Assert.assertEquals(Json.createArrayBuilder().add("Thing").add("Lamp").build(),
+      test.get(JWot.SEMANTIC_TYPE));
+    Assert.assertEquals(withoutGraph, Json.createObjectBuilder(test)
+      .remove("ex:hasOwner")
+      .remove("dct:title")
+      .add(JWot.SEMANTIC_TYPE, withoutGraph.get(JWot.SEMANTIC_TYPE))
+      .build());
+  }
+
+  @Test
+  public void testWriteCanonical() {
+    ThingDescription td = new ThingDescription.Builder(THING_TITLE)
+      .addThingURI(THING_IRI)
+      .addSemanticType("http://w3id.org/eve#Artifact")
+      .addSemanticType("https://saref.etsi.org/core/LightSwitch")
+      .addProperty(new PropertyAffordance.Builder(new StringSchema.Builder().build(),
+        new Form.Builder(IO_BASE_IRI + "status").build())
+        .addName("status")
+        .build())
+      .build();
+
+    String canonical = new TDJsonWriter(td).writeCanonical();
+
+    Assert.assertEquals(canonical, new TDJsonWriter(td).writeCanonical());
+    Assert.assertTrue(canonical.startsWith("{\"@context\":"));
+    Assert.assertTrue(canonical.contains(
+      "\"@type\":[\"http://w3id.org/eve#Artifact\",\"https://saref.etsi.org/core/LightSwitch\"]"));
+    Assert.assertTrue(canonical.contains("\"op\":[\"readproperty\",\"writeproperty\"]"));
+  }
 }
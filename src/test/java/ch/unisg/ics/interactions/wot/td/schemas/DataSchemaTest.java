@@ -1,6 +1,7 @@
 package ch.unisg.ics.interactions.wot.td.schemas;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
@@ -242,4 +243,56 @@ public class DataSchemaTest {
     assertEquals(DataSchema.ARRAY, userGroup.getProperty("users").get().getDatatype());
     assertEquals(userSchema, ((ArraySchema) userGroup.getProperty("users").get()).getItems().get(0));
   }
+
+  @Test
+  public void testStructuralEquality() {
+    ObjectSchema otherUserSchema = new ObjectSchema.Builder()
+        .addProperty("full_name", new StringSchema.Builder().build())
+        .addProperty("id", new IntegerSchema.Builder().build())
+        .addRequiredProperties("id")
+        .build();
+    
+    assertEquals(userSchema, otherUserSchema);
+    assertEquals(userSchema.hashCode(), otherUserSchema.hashCode());
+    
+    ObjectSchema differentUserSchema = new ObjectSchema.Builder()
+        .addProperty("id", new IntegerSchema.Builder().addMinimum(0).build())
+        .addProperty("full_name", new StringSchema.Builder().build())
+        .addRequiredProperties("id")
+        .build();
+    
+    assertNotEquals(userSchema, differentUserSchema);
+    
+    // Integer and number schemas with the same constraints are different schemas
+    assertNotEquals(new NumberSchema.Builder().build(), new IntegerSchema.Builder().build());
+    assertNotEquals(new StringSchema.Builder().addSemanticType("sem1").build(),
+        new StringSchema.Builder().build());
+  }
+  
+  @Test
+  public void testNestedStructuralEquality() {
+    ArraySchema users = new ArraySchema.Builder().addItem(userSchema).addMinItems(1).build();
+    ArraySchema sameUsers = new ArraySchema.Builder()
+        .addItem(new ObjectSchema.Builder()
+            .addProperty("id", new IntegerSchema.Builder().build())
+            .addProperty("full_name", new StringSchema.Builder().build())
+            .addRequiredProperties("id")
+            .build())
+        .addMinItems(1)
+        .build();
+    
+    assertEquals(users, sameUsers);
+    assertEquals(users.hashCode(), sameUsers.hashCode());
+    assertEquals(users.hashCode(), users.hashCode());
+    
+    ArraySchema otherUsers = new ArraySchema.Builder()
+        .addItem(new ObjectSchema.Builder()
+            .addProperty("id", new IntegerSchema.Builder().build())
+            .addRequiredProperties("id")
+            .build())
+        .addMinItems(1)
+        .build();
+    
+    assertNotEquals(users, otherUsers);
+  }
 }
@@ -0,0 +1,51 @@
+package ch.unisg.ics.interactions.wot.td.schemas;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class SchemaCacheTest {
+
+  private ObjectSchema buildUserSchema(SchemaCache cache) {
+    return cache.canonicalize(new ObjectSchema.Builder()
+        .addProperty("id", cache.canonicalize(new IntegerSchema.Builder().build()))
+        .addProperty("full_name", cache.canonicalize(new StringSchema.Builder().build()))
+        .addRequiredProperties("id")
+        .build());
+  }
+
+  @Test
+  public void testCanonicalizeEqualSchemas() {
+    SchemaCache cache = new SchemaCache();
+
+    ObjectSchema first = buildUserSchema(cache);
+    ObjectSchema second = buildUserSchema(cache);
+
+    assertSame(first, second);
+    assertEquals(3, cache.size());
+  }
+
+  @Test
+  public void testCanonicalizeDifferentSchemas() {
+    SchemaCache cache = new SchemaCache();
+
+    NumberSchema first = cache.canonicalize(new NumberSchema.Builder().addMinimum(0.0).build());
+    NumberSchema second = cache.canonicalize(new NumberSchema.Builder().addMinimum(1.0).build());
+
+    assertNotSame(first, second);
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void testClear() {
+    SchemaCache cache = new SchemaCache();
+    StringSchema schema = cache.canonicalize(new StringSchema.Builder().build());
+
+    cache.clear();
+
+    assertEquals(0, cache.size());
+    assertNotSame(schema, cache.canonicalize(new StringSchema.Builder().build()));
+  }
+}